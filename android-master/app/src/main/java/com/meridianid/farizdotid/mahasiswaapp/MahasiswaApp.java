@@ -0,0 +1,115 @@
+package com.meridianid.farizdotid.mahasiswaapp;
+
+import android.app.Application;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.util.Log;
+
+import com.meridianid.farizdotid.mahasiswaapp.util.MainThreadExecutor;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.AsyncLogWriter;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CircuitBreakerInterceptor;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.ConnectionWarmer;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.EndpointRegistry;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.MatkulOutbox;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.NetworkLogInterceptor;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.NetworkQualityEstimator;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.RetrofitClient;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
+
+import java.io.File;
+
+public class MahasiswaApp extends Application {
+
+    private static final String TAG_NETWORK = "Network";
+    private static final int NETWORK_LOG_CAPACITY = 256;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        RetrofitClient.setCacheDirectory(new File(getCacheDir(), "http"));
+        RetrofitClient.getCompletableFutureCallAdapterFactory().setCallbackExecutor(MainThreadExecutor.getInstance());
+        initNetworkLog();
+        initNetworkQuality();
+        initCircuitBreaker();
+        initEndpoints();
+        warmUpConnection();
+        initMatkulOutbox();
+    }
+
+    // Antrian dari sesi sebelumnya dikirim sekarang, dan dikirim lagi setiap jaringan kembali tersedia.
+    private void initMatkulOutbox() {
+        final MatkulOutbox outbox = UtilsApi.initMatkulOutbox(getFilesDir(),
+                MainThreadExecutor.getInstance());
+        ConnectivityManager connectivityManager = (ConnectivityManager) getSystemService(CONNECTIVITY_SERVICE);
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                outbox.replay();
+            }
+        });
+        outbox.replay();
+    }
+
+    // Mahasiswa diarahkan ke mirror kampus terdekat, diukur dari waktu HEAD ke setiap backend.
+    private void initEndpoints() {
+        final EndpointRegistry registry = UtilsApi.getEndpointRegistry();
+        registry.registerAll(BuildConfig.API_MIRRORS);
+        if (registry.getNames().size() < 2) {
+            return;
+        }
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                String selected = registry.selectNearest(RetrofitClient.getOkHttpClient(UtilsApi.BASE_URL_API));
+                Log.d(TAG_NETWORK, "backend " + selected + " (" + registry.getProbeMillis(selected) + " ms)");
+            }
+        }, "endpoint-probe");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void initNetworkQuality() {
+        final NetworkQualityEstimator estimator = UtilsApi.getNetworkQuality();
+        estimator.setListener(new NetworkQualityEstimator.Listener() {
+            @Override
+            public void onQualityChanged(NetworkQualityEstimator.Quality quality) {
+                Log.d(TAG_NETWORK, "kualitas jaringan " + estimator);
+            }
+        });
+    }
+
+    private void initCircuitBreaker() {
+        UtilsApi.getCircuitBreaker().setListener(new CircuitBreakerInterceptor.Listener() {
+            @Override
+            public void onStateChanged(String endpoint, CircuitBreakerInterceptor.State from,
+                                       CircuitBreakerInterceptor.State to) {
+                Log.d(TAG_NETWORK, "circuit " + endpoint + " " + from + " -> " + to);
+            }
+        });
+    }
+
+    private void warmUpConnection() {
+        final ConnectionWarmer warmer = UtilsApi.warmUp();
+        warmer.setListener(new ConnectionWarmer.Listener() {
+            @Override
+            public void onFirstRequest(boolean reused, long savedMillis) {
+                Log.d(TAG_NETWORK, "warmup dns=" + warmer.getDnsMillis() + "ms connect="
+                        + warmer.getConnectMillis() + "ms reused=" + reused + " saved=" + savedMillis + "ms");
+                Log.d(TAG_NETWORK, RetrofitClient.getDns().toString());
+            }
+        });
+    }
+
+    private void initNetworkLog() {
+        NetworkLogInterceptor logInterceptor = RetrofitClient.getLogInterceptor();
+        logInterceptor.setLevel(NetworkLogInterceptor.Level.valueOf(BuildConfig.NETWORK_LOG_LEVEL));
+        logInterceptor.setSampleRate(BuildConfig.NETWORK_LOG_SAMPLE_RATE);
+        logInterceptor.setWriter(new AsyncLogWriter(NETWORK_LOG_CAPACITY, new AsyncLogWriter.Sink() {
+            @Override
+            public void write(String record) {
+                Log.d(TAG_NETWORK, record);
+            }
+        }));
+    }
+}
@@ -4,17 +4,27 @@ import android.app.ProgressDialog;
 import android.content.Context;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.support.v7.app.AlertDialog;
 import android.support.v7.widget.DefaultItemAnimator;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
-import android.widget.BaseAdapter;
+import android.view.View;
 import android.widget.Toast;
 
 import com.meridianid.farizdotid.mahasiswaapp.R;
 import com.meridianid.farizdotid.mahasiswaapp.adapter.DosenAdapter;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosenDetail;
 import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+import com.meridianid.farizdotid.mahasiswaapp.util.Constant;
+import com.meridianid.farizdotid.mahasiswaapp.util.MainThreadExecutor;
+import com.meridianid.farizdotid.mahasiswaapp.util.RecyclerItemClickListener;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CallScope;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.DosenDetailPrefetcher;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.FieldProjection;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.HttpException;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.StreamingListDecoder;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
 import java.util.ArrayList;
@@ -22,6 +32,7 @@ import java.util.List;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -36,6 +47,12 @@ public class DosenActivity extends AppCompatActivity {
     List<SemuadosenItem> semuadosenItemList = new ArrayList<>();
     DosenAdapter dosenAdapter;
     BaseApiService mApiService;
+    CallScope callScope = new CallScope();
+    StreamingListDecoder<SemuadosenItem> dosenDecoder;
+    DosenDetailPrefetcher detailPrefetcher;
+    LinearLayoutManager mLayoutManager;
+    // Nama dosen per baris, key untuk detailPrefetcher.
+    List<String> namaDosenList = new ArrayList<>();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,38 +64,159 @@ public class DosenActivity extends AppCompatActivity {
         ButterKnife.bind(this);
         mContext = this;
         mApiService = UtilsApi.getAPIService();
+        dosenDecoder = new StreamingListDecoder<>(SemuadosenItem.class, "semuadosen",
+                StreamingListDecoder.DEFAULT_CHUNK_SIZE, callScope.wrap(MainThreadExecutor.getInstance()));
 
-        dosenAdapter = new DosenAdapter(this, semuadosenItemList);
-        RecyclerView.LayoutManager mLayoutManager = new LinearLayoutManager(this);
+        detailPrefetcher = new DosenDetailPrefetcher(mApiService);
+
+        dosenAdapter = new DosenAdapter(semuadosenItemList);
+        mLayoutManager = new LinearLayoutManager(this);
         rvDosen.setLayoutManager(mLayoutManager);
         rvDosen.setItemAnimator(new DefaultItemAnimator());
+        rvDosen.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                prefetchVisibleDetails();
+            }
+        });
+        rvDosen.addOnItemTouchListener(new RecyclerItemClickListener(mContext, rvDosen,
+                new RecyclerItemClickListener.OnItemClickListener() {
+                    @Override
+                    public void onItemClick(View view, int position) {
+                        showDetailDosen(semuadosenItemList.get(position).getNama());
+                    }
+
+                    @Override
+                    public void onLongItemClick(View view, int position) {
+
+                    }
+                }));
 
         getResultListDosen();
     }
 
+    @Override
+    protected void onDestroy() {
+        // Potongan item yang belum sampai tidak diunduh lagi dan tidak dikirim ke adapter.
+        callScope.cancel();
+        detailPrefetcher.cancelAll();
+        if (loading != null) {
+            loading.dismiss();
+        }
+        super.onDestroy();
+    }
+
     private void getResultListDosen(){
         loading = ProgressDialog.show(this, null, "Harap Tunggu...", true, false);
 
-        mApiService.getSemuaDosen().enqueue(new Callback<ResponseDosen>() {
-            @Override
-            public void onResponse(Call<ResponseDosen> call, Response<ResponseDosen> response) {
-                if (response.isSuccessful()){
-                    loading.dismiss();
+        rvDosen.setAdapter(dosenAdapter);
 
-                    final List<SemuadosenItem> semuaDosenItems = response.body().getSemuadosen();
+        // List yang sudah dimuat MainActivity dipakai langsung, selain itu dibaca bertahap dari server.
+        Call<ResponseDosen> speculative = UtilsApi.getSpeculativeFetcher().take(Constant.SPECULATIVE_DOSEN);
+        if (speculative != null) {
+            showSpeculativeDosen(speculative);
+        } else {
+            streamDosen();
+        }
+    }
 
-                    rvDosen.setAdapter(new DosenAdapter(mContext, semuaDosenItems));
-                    dosenAdapter.notifyDataSetChanged();
+    private void showSpeculativeDosen(Call<ResponseDosen> speculative){
+        callScope.enqueue(speculative, new Callback<ResponseDosen>() {
+            @Override
+            public void onResponse(Call<ResponseDosen> call, Response<ResponseDosen> response) {
+                // Request speculative bisa selesai dengan 4xx/5xx setelah diambil, muat ulang seperti biasa.
+                if (!response.isSuccessful()) {
+                    streamDosen();
+                    return;
+                }
+                loading.dismiss();
+                if (response.body().isError()) {
+                    Toast.makeText(mContext, response.body().getMessage(), Toast.LENGTH_SHORT).show();
                 } else {
-                    loading.dismiss();
-                    Toast.makeText(mContext, "Gagal mengambil data dosen", Toast.LENGTH_SHORT).show();
+                    addDosen(response.body().getSemuadosen());
                 }
             }
 
             @Override
             public void onFailure(Call<ResponseDosen> call, Throwable t) {
+                streamDosen();
+            }
+        });
+    }
+
+    private void addDosen(List<SemuadosenItem> items){
+        int start = semuadosenItemList.size();
+        semuadosenItemList.addAll(items);
+        for (SemuadosenItem item : items) {
+            namaDosenList.add(item.getNama());
+        }
+        dosenAdapter.notifyItemRangeInserted(start, items.size());
+        rvDosen.post(new Runnable() {
+            @Override
+            public void run() {
+                prefetchVisibleDetails();
+            }
+        });
+    }
+
+    private void streamDosen(){
+        Call<ResponseBody> call = callScope.track(mApiService.getSemuaDosenStream(FieldProjection.DOSEN_LIST));
+        dosenDecoder.load(call, new StreamingListDecoder.Listener<SemuadosenItem>() {
+            @Override
+            public void onItems(List<SemuadosenItem> items) {
                 loading.dismiss();
-                Toast.makeText(mContext, "Koneksi Internet Bermasalah", Toast.LENGTH_SHORT).show();
+                addDosen(items);
+            }
+
+            @Override
+            public void onComplete(boolean error, String message, int total) {
+                loading.dismiss();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                loading.dismiss();
+                if (t instanceof HttpException) {
+                    Toast.makeText(mContext, "Gagal mengambil data dosen", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(mContext, "Koneksi Internet Bermasalah", Toast.LENGTH_SHORT).show();
+                }
+            }
+        }, callScope.untrackOnFinish(call));
+    }
+
+    private void prefetchVisibleDetails(){
+        if (!UtilsApi.getNetworkQuality().shouldPrefetch()){
+            return;
+        }
+        detailPrefetcher.onViewportChanged(namaDosenList, mLayoutManager.findFirstVisibleItemPosition(),
+                mLayoutManager.findLastVisibleItemPosition());
+    }
+
+    // Biasanya detail sudah ada di cache prefetch sehingga dialog langsung tampil.
+    private void showDetailDosen(final String namaDosen){
+        detailPrefetcher.load(namaDosen, new DosenDetailPrefetcher.Callback<ResponseDosenDetail>() {
+            @Override
+            public void onResult(ResponseDosenDetail detail) {
+                if (isFinishing()) {
+                    return;
+                }
+                if (detail.isError()) {
+                    Toast.makeText(mContext, detail.getMessage(), Toast.LENGTH_SHORT).show();
+                    return;
+                }
+                new AlertDialog.Builder(mContext)
+                        .setTitle(detail.getNama())
+                        .setMessage("No HP : " + detail.getNoHp() + "\nMatkul : " + detail.getMatkul())
+                        .setPositiveButton("OK", null)
+                        .show();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (!isFinishing()) {
+                    Toast.makeText(mContext, "Gagal mengambil data detail", Toast.LENGTH_SHORT).show();
+                }
             }
         });
     }
@@ -12,6 +12,7 @@ import android.widget.Toast;
 import com.meridianid.farizdotid.mahasiswaapp.databinding.ActivityLoginBinding;
 import com.meridianid.farizdotid.mahasiswaapp.util.SharedPrefManager;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CallScope;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
 import org.json.JSONException;
@@ -28,6 +29,7 @@ public class LoginActivity extends AppCompatActivity {
 
     private ActivityLoginBinding binding;
     private BaseApiService mApiService;
+    private final CallScope callScope = new CallScope();
     private SharedPrefManager sharedPrefManager;
     private Context mContext;
 
@@ -46,9 +48,17 @@ public class LoginActivity extends AppCompatActivity {
         setupClickListeners();
     }
 
+    @Override
+    protected void onDestroy() {
+        callScope.cancel();
+        super.onDestroy();
+    }
+
     private void initDependencies() {
         mContext = this;
         mApiService = UtilsApi.getAPIService();
+        // Koneksi mungkin sudah ditutup pool sejak proses mulai, buka lagi sebelum user login.
+        UtilsApi.warmUp();
         sharedPrefManager = new SharedPrefManager(this);
     }
 
@@ -73,25 +83,24 @@ public class LoginActivity extends AppCompatActivity {
         String email = binding.etEmail.getText().toString();
         String password = binding.etPassword.getText().toString();
 
-        mApiService.loginRequest(email, password)
-                .enqueue(new Callback<ResponseBody>() {
-                    @Override
-                    public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
-                        showLoading(false);
-                        if (response.isSuccessful() && response.body() != null) {
-                            handleLoginSuccess(response.body());
-                        } else {
-                            Toast.makeText(mContext, "Gagal terhubung ke server", Toast.LENGTH_SHORT).show();
-                        }
-                    }
-
-                    @Override
-                    public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
-                        Log.e("LoginActivity", "onFailure: " + t.getMessage());
-                        showLoading(false);
-                        Toast.makeText(mContext, "Masalah Koneksi", Toast.LENGTH_SHORT).show();
-                    }
-                });
+        callScope.enqueue(mApiService.loginRequest(email, password), new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+                showLoading(false);
+                if (response.isSuccessful() && response.body() != null) {
+                    handleLoginSuccess(response.body());
+                } else {
+                    Toast.makeText(mContext, "Gagal terhubung ke server", Toast.LENGTH_SHORT).show();
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable t) {
+                Log.e("LoginActivity", "onFailure: " + t.getMessage());
+                showLoading(false);
+                Toast.makeText(mContext, "Masalah Koneksi", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 
     private void handleLoginSuccess(ResponseBody body) {
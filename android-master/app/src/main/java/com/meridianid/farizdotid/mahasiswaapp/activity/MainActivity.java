@@ -8,15 +8,30 @@ import android.widget.Button;
 import android.widget.TextView;
 
 import com.meridianid.farizdotid.mahasiswaapp.R;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.util.Constant;
 import com.meridianid.farizdotid.mahasiswaapp.util.SharedPrefManager;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.FieldProjection;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.SpeculativeFetcher;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
+import retrofit2.Response;
 
 public class MainActivity extends AppCompatActivity {
 
     @BindView(R.id.tvResultNama)
     TextView tvResultNama;
+    @BindView(R.id.tvRingkasan)
+    TextView tvRingkasan;
     @BindView(R.id.btnLogout)
     Button btnLogout;
     @BindView(R.id.btnLihatDosen)
@@ -40,6 +55,7 @@ public class MainActivity extends AppCompatActivity {
             @Override
             public void onClick(View v) {
                 sharedPrefManager.saveSPBoolean(SharedPrefManager.SP_SUDAH_LOGIN, false);
+                UtilsApi.getSpeculativeFetcher().cancelAll();
                 startActivity(new Intent(MainActivity.this, LoginActivity.class)
                     .addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK));
                 finish();
@@ -60,4 +76,54 @@ public class MainActivity extends AppCompatActivity {
             }
         });
     }
-}
\ No newline at end of file
+
+    // Begitu layar terlihat, list dosen dan halaman pertama matkul mulai dimuat bersamaan supaya
+    // DosenActivity/MatkulActivity bisa langsung tampil. Request yang belum dipakai tidak dimulai ulang.
+    @Override
+    protected void onStart() {
+        super.onStart();
+        final BaseApiService apiService = UtilsApi.getAPIService();
+        SpeculativeFetcher fetcher = UtilsApi.getSpeculativeFetcher();
+        CompletableFuture<Response<ResponseDosen>> dosen = fetcher.start(Constant.SPECULATIVE_DOSEN,
+                new Supplier<CompletableFuture<Response<ResponseDosen>>>() {
+                    @Override
+                    public CompletableFuture<Response<ResponseDosen>> get() {
+                        return apiService.prefetchSemuaDosen(FieldProjection.DOSEN_LIST);
+                    }
+                });
+        CompletableFuture<Response<ResponseMatkul>> matkul = fetcher.start(Constant.SPECULATIVE_MATKUL_PAGE,
+                new Supplier<CompletableFuture<Response<ResponseMatkul>>>() {
+                    @Override
+                    public CompletableFuture<Response<ResponseMatkul>> get() {
+                        return apiService.prefetchMatkulPage(null,
+                                UtilsApi.getNetworkQuality().pageSizeFor(MatkulActivity.PAGE_SIZE));
+                    }
+                });
+        showRingkasan(dosen, matkul);
+    }
+
+    // Kalau salah satu gagal ringkasan dibiarkan kosong, layar lain tetap bisa dibuka.
+    private void showRingkasan(CompletableFuture<Response<ResponseDosen>> dosenFuture,
+                               CompletableFuture<Response<ResponseMatkul>> matkulFuture){
+        dosenFuture.thenCombine(matkulFuture, new BiFunction<Response<ResponseDosen>, Response<ResponseMatkul>, String>() {
+            @Override
+            public String apply(Response<ResponseDosen> dosen, Response<ResponseMatkul> matkul) {
+                if (!dosen.isSuccessful() || !matkul.isSuccessful()
+                        || dosen.body().isError() || matkul.body().isError()){
+                    return null;
+                }
+                // Hanya halaman pertama matkul yang dimuat, sisanya belum diketahui.
+                String more = matkul.body().getNextCursor() == null ? "" : "+";
+                return dosen.body().getSemuadosen().size() + " dosen, "
+                        + matkul.body().getSemuamatkul().size() + more + " mata kuliah";
+            }
+        }).whenComplete(new BiConsumer<String, Throwable>() {
+            @Override
+            public void accept(String ringkasan, Throwable error) {
+                if (ringkasan != null && !isDestroyed()){
+                    tvRingkasan.setText(ringkasan);
+                }
+            }
+        });
+    }
+}
\ No newline at end of file
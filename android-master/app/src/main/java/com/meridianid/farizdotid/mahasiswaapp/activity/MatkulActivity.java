@@ -1,13 +1,16 @@
 package com.meridianid.farizdotid.mahasiswaapp.activity;
 
+import android.app.Activity;
 import android.app.ProgressDialog;
 import android.content.Context;
 import android.content.Intent;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
+import android.support.design.widget.Snackbar;
 import android.support.v7.widget.DefaultItemAnimator;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -15,15 +18,26 @@ import android.widget.Toast;
 
 import com.meridianid.farizdotid.mahasiswaapp.R;
 import com.meridianid.farizdotid.mahasiswaapp.adapter.MatkulAdapter;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutation;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkulDelta;
 import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
 import com.meridianid.farizdotid.mahasiswaapp.util.Constant;
+import com.meridianid.farizdotid.mahasiswaapp.util.PagingScrollListener;
 import com.meridianid.farizdotid.mahasiswaapp.util.RecyclerItemClickListener;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CallScope;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CursorPager;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.DeltaMerger;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.DeltaVersion;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.MatkulOutbox;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
@@ -33,6 +47,12 @@ import retrofit2.Response;
 
 public class MatkulActivity extends AppCompatActivity {
 
+    private static final String TAG = "MatkulActivity";
+    static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int MAX_PAGES_IN_MEMORY = 5;
+    private static final int REQUEST_DETAIL = 1;
+
     @BindView(R.id.btnTambahMatkul)
     Button btnTambahMatkul;
     @BindView(R.id.tvBelumMatkul)
@@ -45,6 +65,30 @@ public class MatkulActivity extends AppCompatActivity {
     List<SemuamatkulItem> semuamatkulItemList = new ArrayList<>();
     MatkulAdapter matkulAdapter;
     BaseApiService mApiService;
+    CallScope callScope = new CallScope();
+    CursorPager<ResponseMatkul, SemuamatkulItem> matkulPager;
+    DeltaMerger<SemuamatkulItem> matkulMerger;
+    Call<ResponseMatkulDelta> pendingDelta;
+    // Version katalog dari halaman pertama atau delta terakhir.
+    DeltaVersion syncVersion = new DeltaVersion();
+
+    MatkulOutbox matkulOutbox;
+    MatkulOutbox.Listener outboxListener;
+    // Hapus yang sudah dikirim ke outbox, dikembalikan ke list jika server menolak. Kuncinya client_id.
+    Map<String, RemovedItem> pendingDeletes = new HashMap<>();
+    // Hapus yang masih bisa dibatalkan lewat snackbar.
+    RemovedItem undoableDelete;
+    Snackbar undoBar;
+
+    static class RemovedItem {
+        final SemuamatkulItem item;
+        final int position;
+
+        RemovedItem(SemuamatkulItem item, int position) {
+            this.item = item;
+            this.position = position;
+        }
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -58,10 +102,31 @@ public class MatkulActivity extends AppCompatActivity {
         mContext = this;
 
         matkulAdapter = new MatkulAdapter(this, semuamatkulItemList);
-        RecyclerView.LayoutManager mLayoutManager = new LinearLayoutManager(this);
+        LinearLayoutManager mLayoutManager = new LinearLayoutManager(this);
         rvMatkul.setLayoutManager(mLayoutManager);
         rvMatkul.setItemAnimator(new DefaultItemAnimator());
 
+        initPager();
+        initOutbox();
+        matkulMerger = new DeltaMerger<SemuamatkulItem>() {
+            @Override
+            protected String idOf(SemuamatkulItem item) {
+                return item.getId();
+            }
+        };
+        rvMatkul.addOnScrollListener(new PagingScrollListener(mLayoutManager, PREFETCH_DISTANCE,
+                new PagingScrollListener.Callback() {
+                    @Override
+                    public void onLoadNext() {
+                        matkulPager.loadNext();
+                    }
+
+                    @Override
+                    public void onLoadPrevious() {
+                        matkulPager.loadPrevious();
+                    }
+                }));
+
         getDataMatkul();
 
         btnTambahMatkul.setOnClickListener(new View.OnClickListener() {
@@ -72,37 +137,330 @@ public class MatkulActivity extends AppCompatActivity {
         });
     }
 
+    // Kembali dari tambah/hapus matkul: cukup ambil perubahannya saja.
+    @Override
+    protected void onRestart() {
+        super.onRestart();
+        showPendingAdds();
+        syncMatkul();
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        super.onActivityResult(requestCode, resultCode, data);
+        if (requestCode == REQUEST_DETAIL && resultCode == Activity.RESULT_OK && data != null) {
+            removeWithUndo(data.getStringExtra(Constant.KEY_ID_MATKUL));
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        // Hapus yang belum dibatalkan tetap dikirim walaupun snackbar-nya belum hilang.
+        commitDelete();
+        matkulOutbox.removeListener(outboxListener);
+        matkulPager.cancel();
+        callScope.cancel();
+        if (loading != null) {
+            loading.dismiss();
+        }
+        super.onDestroy();
+    }
+
+    private void initPager(){
+        matkulPager = new CursorPager<ResponseMatkul, SemuamatkulItem>(semuamatkulItemList, PAGE_SIZE,
+                MAX_PAGES_IN_MEMORY, new CursorPager.Listener() {
+            @Override
+            public void onItemsInserted(int position, int count) {
+                loading.dismiss();
+                matkulAdapter.notifyItemRangeInserted(position, count);
+                if (matkulPager.getLoadedPageCount() == 1) {
+                    showPendingAdds();
+                }
+                Log.d(TAG, "Halaman matkul dimuat dalam " + matkulPager.getLastPageLatencyMillis()
+                        + " ms (rata-rata " + matkulPager.getAveragePageLatencyMillis() + " ms)");
+            }
+
+            @Override
+            public void onItemsRemoved(int position, int count) {
+                matkulAdapter.notifyItemRangeRemoved(position, count);
+            }
+
+            @Override
+            public void onPageError(boolean empty, String message) {
+                loading.dismiss();
+                if (empty) {
+                    tvBelumMatkul.setVisibility(View.VISIBLE);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t, boolean httpError) {
+                loading.dismiss();
+                if (httpError) {
+                    Toast.makeText(mContext, "Gagal mengambil data mata kuliah", Toast.LENGTH_SHORT).show();
+                } else {
+                    Toast.makeText(mContext, "Koneksi internet bermasalah", Toast.LENGTH_SHORT).show();
+                }
+            }
+        }) {
+            @Override
+            protected Call<ResponseMatkul> createCall(String cursor, int limit) {
+                // Halaman lebih kecil di jaringan lambat, lebih besar di jaringan cepat.
+                Call<ResponseMatkul> call = mApiService.getMatkulPage(cursor, UtilsApi.getNetworkQuality().pageSizeFor(limit));
+                // Halaman pertama mungkin sudah dimuat (atau sedang dimuat) oleh MainActivity lewat jalur
+                // prefetch. Jika request itu dibuang atau gagal, call biasa dipakai sebagai gantinya.
+                if (cursor == null) {
+                    return UtilsApi.getSpeculativeFetcher().take(Constant.SPECULATIVE_MATKUL_PAGE, call);
+                }
+                return call;
+            }
+
+            @Override
+            protected boolean isError(ResponseMatkul response) {
+                return response.isError();
+            }
+
+            @Override
+            protected String messageOf(ResponseMatkul response) {
+                return response.getMessage();
+            }
+
+            @Override
+            protected List<SemuamatkulItem> itemsOf(ResponseMatkul response) {
+                syncVersion.onFirstPage(response.getVersion());
+                return response.getSemuamatkul();
+            }
+
+            @Override
+            protected String nextCursorOf(ResponseMatkul response) {
+                return response.getNextCursor();
+            }
+        };
+    }
+
     private void getDataMatkul(){
         loading = ProgressDialog.show(mContext, null, "Harap Tunggu...", true, false);
 
-        mApiService.getSemuaMatkul().enqueue(new Callback<ResponseMatkul>() {
+        rvMatkul.setAdapter(matkulAdapter);
+        initDataIntent(semuamatkulItemList);
+
+        matkulPager.loadFirst();
+    }
+
+    private void initOutbox(){
+        matkulOutbox = UtilsApi.getMatkulOutbox();
+        outboxListener = new MatkulOutbox.Listener() {
             @Override
-            public void onResponse(Call<ResponseMatkul> call, Response<ResponseMatkul> response) {
-                if (response.isSuccessful()) {
-                    loading.dismiss();
-                    if (response.body().isError()) {
-                        tvBelumMatkul.setVisibility(View.VISIBLE);
-                    } else {
-                        final List<SemuamatkulItem> semuamatkulItems = response.body().getSemuamatkul();
-                        rvMatkul.setAdapter(new MatkulAdapter(mContext, semuamatkulItems));
-                        matkulAdapter.notifyDataSetChanged();
-
-                        initDataIntent(semuamatkulItems);
-                    }
+            public void onSettled(MatkulMutation mutation, MatkulMutationResult result, Throwable error) {
+                boolean success = result != null && !result.isError();
+                if (MatkulMutation.OP_ADD.equals(mutation.getOp())) {
+                    reconcileAdd(mutation, success ? result.getId() : null);
                 } else {
-                    loading.dismiss();
-                    Toast.makeText(mContext, "Gagal mengambil data mata kuliah", Toast.LENGTH_SHORT).show();
+                    RemovedItem removed = pendingDeletes.remove(mutation.getClientId());
+                    if (!success && removed != null) {
+                        reinsert(removed);
+                        Toast.makeText(mContext, "Gagal menghapus " + removed.item.getMatkul(),
+                                Toast.LENGTH_SHORT).show();
+                    }
+                }
+            }
+        };
+        matkulOutbox.addListener(outboxListener);
+    }
+
+    // Matkul yang ditambah dari layar lain tapi belum dijawab server langsung tampil dengan id lokal.
+    private void showPendingAdds(){
+        if (matkulPager.getLoadedPageCount() == 0) {
+            return;
+        }
+        for (MatkulMutation mutation : matkulOutbox.getPendingMutations()) {
+            String localId = MatkulOutbox.localIdOf(mutation);
+            if (!MatkulMutation.OP_ADD.equals(mutation.getOp()) || indexOf(localId) >= 0) {
+                continue;
+            }
+            SemuamatkulItem item = new SemuamatkulItem();
+            item.setId(localId);
+            item.setNamaDosen(mutation.getNamaDosen());
+            item.setMatkul(mutation.getMatkul());
+            semuamatkulItemList.add(0, item);
+            matkulPager.onItemInserted(0);
+            matkulAdapter.notifyItemInserted(0);
+        }
+        tvBelumMatkul.setVisibility(semuamatkulItemList.isEmpty() ? View.VISIBLE : View.GONE);
+    }
+
+    // Id lokal diganti id server, atau item lokal dibuang jika ditolak atau versi server sudah ada di list.
+    private void reconcileAdd(MatkulMutation mutation, String serverId){
+        int position = indexOf(MatkulOutbox.localIdOf(mutation));
+        if (position < 0) {
+            return;
+        }
+        if (serverId != null && indexOf(serverId) < 0) {
+            semuamatkulItemList.get(position).setId(serverId);
+            matkulAdapter.notifyItemChanged(position);
+            return;
+        }
+        semuamatkulItemList.remove(position);
+        matkulPager.onItemRemoved(position);
+        matkulAdapter.notifyItemRemoved(position);
+    }
+
+    private void removeWithUndo(String id){
+        int position = indexOf(id);
+        if (position < 0) {
+            return;
+        }
+        commitDelete();
+
+        undoableDelete = new RemovedItem(semuamatkulItemList.remove(position), position);
+        matkulPager.onItemRemoved(position);
+        matkulAdapter.notifyItemRemoved(position);
+
+        undoBar = Snackbar.make(rvMatkul, "Matkul dihapus", Snackbar.LENGTH_LONG)
+                .setAction("BATAL", new View.OnClickListener() {
+                    @Override
+                    public void onClick(View v) {
+                        RemovedItem removed = undoableDelete;
+                        undoableDelete = null;
+                        if (removed != null) {
+                            reinsert(removed);
+                        }
+                    }
+                })
+                .addCallback(new Snackbar.Callback() {
+                    @Override
+                    public void onDismissed(Snackbar bar, int event) {
+                        if (bar == undoBar && event != DISMISS_EVENT_ACTION) {
+                            commitDelete();
+                        }
+                    }
+                });
+        undoBar.show();
+    }
+
+    // Waktu batal habis: baru sekarang hapus dikirim (satu request kecil, tanpa memuat ulang list).
+    private void commitDelete(){
+        RemovedItem removed = undoableDelete;
+        undoableDelete = null;
+        if (removed == null) {
+            return;
+        }
+        MatkulMutation mutation = matkulOutbox.hapus(removed.item.getId(), null);
+        pendingDeletes.put(mutation.getClientId(), removed);
+    }
+
+    private void reinsert(RemovedItem removed){
+        int position = Math.min(removed.position, semuamatkulItemList.size());
+        semuamatkulItemList.add(position, removed.item);
+        matkulPager.onItemInserted(position);
+        matkulAdapter.notifyItemInserted(position);
+        tvBelumMatkul.setVisibility(View.GONE);
+    }
+
+    // Item yang baru dihapus di sini jangan muncul lagi dari delta sebelum server memprosesnya.
+    private List<SemuamatkulItem> withoutPendingDeletes(List<SemuamatkulItem> upserts){
+        if (upserts == null || (pendingDeletes.isEmpty() && undoableDelete == null)) {
+            return upserts;
+        }
+        List<SemuamatkulItem> filtered = new ArrayList<>();
+        for (SemuamatkulItem item : upserts) {
+            if (!isPendingDelete(item.getId())) {
+                filtered.add(item);
+            }
+        }
+        return filtered;
+    }
+
+    private boolean isPendingDelete(String id){
+        if (undoableDelete != null && undoableDelete.item.getId().equals(id)) {
+            return true;
+        }
+        for (RemovedItem removed : pendingDeletes.values()) {
+            if (removed.item.getId().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(String id){
+        for (int i = 0; i < semuamatkulItemList.size(); i++) {
+            if (id.equals(semuamatkulItemList.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void syncMatkul(){
+        if (pendingDelta != null || matkulPager.isLoading()) {
+            return;
+        }
+        DeltaVersion.Action action = syncVersion.next();
+        if (action == DeltaVersion.Action.NONE) {
+            return;
+        }
+        // Server tanpa version tidak mendukung delta, list dimuat ulang seperti sebelum ada delta.
+        if (action == DeltaVersion.Action.RELOAD) {
+            reloadMatkul();
+            return;
+        }
+
+        final long startedAt = System.currentTimeMillis();
+        pendingDelta = mApiService.getMatkulDelta(syncVersion.get());
+        callScope.enqueue(pendingDelta, new Callback<ResponseMatkulDelta>() {
+            @Override
+            public void onResponse(Call<ResponseMatkulDelta> call, Response<ResponseMatkulDelta> response) {
+                pendingDelta = null;
+                if (!response.isSuccessful() || response.body().isError()) {
+                    return;
+                }
+
+                ResponseMatkulDelta delta = response.body();
+                if (syncVersion.onDelta(delta.getVersion(), delta.isFullResync())) {
+                    reloadMatkul();
+                    return;
                 }
+
+                int changes = matkulMerger.apply(semuamatkulItemList, withoutPendingDeletes(delta.getUpserts()),
+                        delta.getDeleted(),
+                        matkulPager.isEndReached(), new DeltaMerger.Listener() {
+                            @Override
+                            public void onItemChanged(int position) {
+                                matkulAdapter.notifyItemChanged(position);
+                            }
+
+                            @Override
+                            public void onItemRemoved(int position) {
+                                matkulPager.onItemRemoved(position);
+                                matkulAdapter.notifyItemRemoved(position);
+                            }
+
+                            @Override
+                            public void onItemsInserted(int position, int count) {
+                                matkulPager.onItemsAppended(count);
+                                matkulAdapter.notifyItemRangeInserted(position, count);
+                            }
+                        });
+                tvBelumMatkul.setVisibility(semuamatkulItemList.isEmpty() ? View.VISIBLE : View.GONE);
+                Log.d(TAG, "Delta matkul: " + changes + " perubahan dalam "
+                        + (System.currentTimeMillis() - startedAt) + " ms");
             }
 
             @Override
-            public void onFailure(Call<ResponseMatkul> call, Throwable t) {
-                loading.dismiss();
-                Toast.makeText(mContext, "Koneksi internet bermasalah", Toast.LENGTH_SHORT).show();
+            public void onFailure(Call<ResponseMatkulDelta> call, Throwable t) {
+                // Data lama tetap ditampilkan, dicoba lagi saat layar ini tampil berikutnya.
+                pendingDelta = null;
             }
         });
     }
 
+    private void reloadMatkul(){
+        syncVersion.reset();
+        matkulPager.reset();
+        matkulPager.loadFirst();
+    }
+
     private void initDataIntent(final List<SemuamatkulItem> matkulList){
         rvMatkul.addOnItemTouchListener(
                 new RecyclerItemClickListener(mContext, new RecyclerItemClickListener.OnItemClickListener() {
@@ -115,7 +473,7 @@ public class MatkulActivity extends AppCompatActivity {
                         detailMatkul.putExtra(Constant.KEY_ID_MATKUL, id);
                         detailMatkul.putExtra(Constant.KEY_NAMA_DOSEN, namadosen);
                         detailMatkul.putExtra(Constant.KEY_MATKUL, matkul);
-                        startActivity(detailMatkul);
+                        startActivityForResult(detailMatkul, REQUEST_DETAIL);
                     }
                 }));
     }
@@ -1,6 +1,6 @@
 package com.meridianid.farizdotid.mahasiswaapp.activity;
 
-import android.app.ProgressDialog;
+import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Color;
@@ -10,22 +10,15 @@ import android.view.View;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
-import android.widget.Toast;
 
 import com.amulyakhare.textdrawable.TextDrawable;
 import com.meridianid.farizdotid.mahasiswaapp.R;
 import com.meridianid.farizdotid.mahasiswaapp.util.Constant;
-import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
-import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
 import java.util.Random;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
-import okhttp3.ResponseBody;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class MatkulDetailActivity extends AppCompatActivity {
 
@@ -37,14 +30,12 @@ public class MatkulDetailActivity extends AppCompatActivity {
     TextView tvNamaMatkul;
     @BindView(R.id.btnHapus)
     Button btnHapus;
-    ProgressDialog loading;
 
     String mId;
     String mNamaDosen;
     String mNamaMatkul;
 
     Context mContext;
-    BaseApiService mApiService;
 
     public String[] mColors = {
             "#39add1", // light blue
@@ -70,7 +61,6 @@ public class MatkulDetailActivity extends AppCompatActivity {
 
         ButterKnife.bind(this);
         mContext = this;
-        mApiService = UtilsApi.getAPIService();
 
         Intent intent = getIntent();
         mId = intent.getStringExtra(Constant.KEY_ID_MATKUL);
@@ -92,30 +82,10 @@ public class MatkulDetailActivity extends AppCompatActivity {
         });
     }
 
+    // Penghapusan dilakukan MatkulActivity: item langsung hilang dari list dan masih bisa dibatalkan.
     private void requestDeleteMatkul(){
-        loading = ProgressDialog.show(mContext, null, "Harap Tunggu...", true, false);
-
-        mApiService.deteleMatkul(mId).enqueue(new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                if (response.isSuccessful()){
-                    loading.dismiss();
-                    Toast.makeText(mContext, "Berhasil mengapus matkul", Toast.LENGTH_SHORT).show();
-                    startActivity(new Intent(mContext, MatkulActivity.class)
-                            .addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK));
-                    finish();
-                } else {
-                    loading.dismiss();
-                    Toast.makeText(mContext, "Gagal menghapus matkul", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable t) {
-                loading.dismiss();
-                Toast.makeText(mContext, "koneksi internet bermasalah", Toast.LENGTH_SHORT).show();
-            }
-        });
+        setResult(Activity.RESULT_OK, new Intent().putExtra(Constant.KEY_ID_MATKUL, mId));
+        finish();
     }
 
     public int getColor() {
@@ -13,6 +13,7 @@ import android.widget.Toast;
 
 import com.meridianid.farizdotid.mahasiswaapp.R;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CallScope;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
 import org.json.JSONException;
@@ -37,6 +38,7 @@ public class RegisterActivity extends AppCompatActivity {
 
     Context mContext;
     BaseApiService mApiService;
+    CallScope callScope = new CallScope();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -57,42 +59,50 @@ public class RegisterActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        callScope.cancel();
+        if (loading != null) {
+            loading.dismiss();
+        }
+        super.onDestroy();
+    }
+
     private void requestRegister(){
-        mApiService.registerRequest(etNama.getText().toString(),
+        callScope.enqueue(mApiService.registerRequest(etNama.getText().toString(),
                 etEmail.getText().toString(),
-                etPassword.getText().toString())
-                .enqueue(new Callback<ResponseBody>() {
-                    @Override
-                    public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                        if (response.isSuccessful()){
-                            Log.i("debug", "onResponse: BERHASIL");
-                            loading.dismiss();
-                            try {
-                                JSONObject jsonRESULTS = new JSONObject(response.body().string());
-                                if (jsonRESULTS.getString("error").equals("false")){
-                                    Toast.makeText(mContext, "BERHASIL REGISTRASI", Toast.LENGTH_SHORT).show();
-                                    startActivity(new Intent(mContext, LoginActivity.class));
-                                } else {
-                                    String error_message = jsonRESULTS.getString("error_msg");
-                                    Toast.makeText(mContext, error_message, Toast.LENGTH_SHORT).show();
-                                }
-                            } catch (JSONException e) {
-                                e.printStackTrace();
-                            } catch (IOException e) {
-                                e.printStackTrace();
-                            }
+                etPassword.getText().toString()), new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                if (response.isSuccessful()){
+                    Log.i("debug", "onResponse: BERHASIL");
+                    loading.dismiss();
+                    try {
+                        JSONObject jsonRESULTS = new JSONObject(response.body().string());
+                        if (jsonRESULTS.getString("error").equals("false")){
+                            Toast.makeText(mContext, "BERHASIL REGISTRASI", Toast.LENGTH_SHORT).show();
+                            startActivity(new Intent(mContext, LoginActivity.class));
                         } else {
-                            Log.i("debug", "onResponse: GA BERHASIL");
-                            loading.dismiss();
+                            String error_message = jsonRESULTS.getString("error_msg");
+                            Toast.makeText(mContext, error_message, Toast.LENGTH_SHORT).show();
                         }
+                    } catch (JSONException e) {
+                        e.printStackTrace();
+                    } catch (IOException e) {
+                        e.printStackTrace();
                     }
+                } else {
+                    Log.i("debug", "onResponse: GA BERHASIL");
+                    loading.dismiss();
+                }
+            }
 
-                    @Override
-                    public void onFailure(Call<ResponseBody> call, Throwable t) {
-                        Log.e("debug", "onFailure: ERROR > " + t.getMessage());
-                        Toast.makeText(mContext, "Koneksi Internet Bermasalah", Toast.LENGTH_SHORT).show();
-                    }
-                });
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                Log.e("debug", "onFailure: ERROR > " + t.getMessage());
+                Toast.makeText(mContext, "Koneksi Internet Bermasalah", Toast.LENGTH_SHORT).show();
+            }
+        });
     }
 }
 
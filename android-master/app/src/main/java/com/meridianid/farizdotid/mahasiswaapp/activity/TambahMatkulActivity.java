@@ -2,7 +2,6 @@ package com.meridianid.farizdotid.mahasiswaapp.activity;
 
 import android.app.ProgressDialog;
 import android.content.Context;
-import android.content.Intent;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
 import android.view.View;
@@ -14,18 +13,22 @@ import android.widget.Spinner;
 import android.widget.Toast;
 
 import com.meridianid.farizdotid.mahasiswaapp.R;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosenDetail;
 import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.CallScope;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.FieldProjection;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.MatkulOutbox;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import butterknife.BindView;
 import butterknife.ButterKnife;
-import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -42,6 +45,7 @@ public class TambahMatkulActivity extends AppCompatActivity {
 
     Context mContext;
     BaseApiService mApiService;
+    CallScope callScope = new CallScope();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -76,10 +80,19 @@ public class TambahMatkulActivity extends AppCompatActivity {
         });
     }
 
+    @Override
+    protected void onDestroy() {
+        callScope.cancel();
+        if (loading != null) {
+            loading.dismiss();
+        }
+        super.onDestroy();
+    }
+
     private void initSpinnerDosen(){
         loading = ProgressDialog.show(mContext, null, "harap tunggu...", true, false);
         
-        mApiService.getSemuaDosen().enqueue(new Callback<ResponseDosen>() {
+        callScope.enqueue(mApiService.getSemuaDosen(FieldProjection.DOSEN_NAMA), new Callback<ResponseDosen>() {
             @Override
             public void onResponse(Call<ResponseDosen> call, Response<ResponseDosen> response) {
                 if (response.isSuccessful()) {
@@ -109,7 +122,7 @@ public class TambahMatkulActivity extends AppCompatActivity {
     }
 
     private void requestDetailDosen(String namadosen){
-        mApiService.getDetailDosen(namadosen).enqueue(new Callback<ResponseDosenDetail>() {
+        callScope.enqueue(mApiService.getDetailDosen(namadosen), new Callback<ResponseDosenDetail>() {
             @Override
             public void onResponse(Call<ResponseDosenDetail> call, Response<ResponseDosenDetail> response) {
                 if (response.isSuccessful()){
@@ -130,31 +143,32 @@ public class TambahMatkulActivity extends AppCompatActivity {
         });
     }
 
+    // Tidak menunggu server: matkul langsung tampil di MatkulActivity dengan id lokal dan
+    // dicocokkan (atau dibuang lagi) saat jawaban server datang.
     private void requestSimpanMatkul(){
-        loading = ProgressDialog.show(mContext, null, "Harap Tunggu...", true, false);
-
-        mApiService.simpanMatkulRequest(spinnerDosen.getSelectedItem().toString(),
-                etNamaMatkul.getText().toString())
-                .enqueue(new Callback<ResponseBody>() {
+        final Context appContext = getApplicationContext();
+        UtilsApi.getMatkulOutbox().simpan(spinnerDosen.getSelectedItem().toString(), etNamaMatkul.getText().toString(),
+                new MatkulOutbox.Callback() {
                     @Override
-                    public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                        if (response.isSuccessful()){
-                            loading.dismiss();
-                            Toast.makeText(mContext, "Berhasil menambahkan data matkul", Toast.LENGTH_SHORT).show();
-                            startActivity(new Intent(mContext, MatkulActivity.class)
-                                    .addFlags(Intent.FLAG_ACTIVITY_CLEAR_TOP | Intent.FLAG_ACTIVITY_NEW_TASK));
-                            finish();
-                        } else {
-                            loading.dismiss();
-                            Toast.makeText(mContext, "Gagal menambahkan data matkul", Toast.LENGTH_SHORT).show();
+                    public void onResult(MatkulMutationResult result) {
+                        if (result.isError()){
+                            Toast.makeText(appContext, "Gagal menambahkan data matkul", Toast.LENGTH_SHORT).show();
                         }
                     }
 
                     @Override
-                    public void onFailure(Call<ResponseBody> call, Throwable t) {
-                        loading.dismiss();
-                        Toast.makeText(mContext, "Koneksi internet bermasalah", Toast.LENGTH_SHORT).show();
+                    public void onQueued() {
+                        Toast.makeText(appContext, "Koneksi internet bermasalah, matkul akan disimpan saat online",
+                                Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        if (!(t instanceof CancellationException)){
+                            Toast.makeText(appContext, "Gagal menambahkan data matkul", Toast.LENGTH_SHORT).show();
+                        }
                     }
                 });
+        finish();
     }
 }
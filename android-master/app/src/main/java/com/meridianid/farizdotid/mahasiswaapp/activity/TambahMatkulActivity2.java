@@ -1,6 +1,5 @@
 package com.meridianid.farizdotid.mahasiswaapp.activity;
 
-import android.app.ProgressDialog;
 import android.content.Context;
 import android.support.v7.app.AppCompatActivity;
 import android.os.Bundle;
@@ -10,15 +9,14 @@ import android.widget.EditText;
 import android.widget.Toast;
 
 import com.meridianid.farizdotid.mahasiswaapp.R;
-import com.meridianid.farizdotid.mahasiswaapp.util.api.BaseApiService;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
+import com.meridianid.farizdotid.mahasiswaapp.util.api.MatkulOutbox;
 import com.meridianid.farizdotid.mahasiswaapp.util.api.UtilsApi;
 
+import java.util.concurrent.CancellationException;
+
 import butterknife.BindView;
 import butterknife.ButterKnife;
-import okhttp3.ResponseBody;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
 
 public class TambahMatkulActivity2 extends AppCompatActivity {
 
@@ -28,9 +26,8 @@ public class TambahMatkulActivity2 extends AppCompatActivity {
     EditText etNamaMatkul;
     @BindView(R.id.btnSimpanMatkul)
     Button btnSimpanMatkul;
-    ProgressDialog loading;
 
-    BaseApiService mApiService;
+    MatkulOutbox mMatkulOutbox;
     Context mContext;
 
     @Override
@@ -40,7 +37,7 @@ public class TambahMatkulActivity2 extends AppCompatActivity {
 
         ButterKnife.bind(this);
         mContext = this;
-        mApiService = UtilsApi.getAPIService();
+        mMatkulOutbox = UtilsApi.getMatkulOutbox();
 
         btnSimpanMatkul.setOnClickListener(new View.OnClickListener() {
             @Override
@@ -50,27 +47,39 @@ public class TambahMatkulActivity2 extends AppCompatActivity {
         });
     }
 
+    // Tidak menunggu server: form langsung dikosongkan supaya matkul berikutnya bisa diisi,
+    // dan matkul yang diisi selagi request sebelumnya berjalan (atau selagi offline) dikirim bersama.
     private void requestSimpanMatkul(){
-        loading = ProgressDialog.show(mContext, null, "Harap Tunggu...", true, false);
+        final Context appContext = getApplicationContext();
+        final String namaMatkul = etNamaMatkul.getText().toString();
 
-        mApiService.simpanMatkulRequest(etNamaDosen.getText().toString(), etNamaMatkul.getText().toString())
-                .enqueue(new Callback<ResponseBody>() {
+        mMatkulOutbox.simpan(etNamaDosen.getText().toString(), namaMatkul,
+                new MatkulOutbox.Callback() {
                     @Override
-                    public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
-                        if (response.isSuccessful()){
-                            loading.dismiss();
-                            Toast.makeText(mContext, "Data Berhasil Ditambahkan", Toast.LENGTH_LONG).show();
+                    public void onResult(MatkulMutationResult result) {
+                        if (!result.isError()){
+                            Toast.makeText(appContext, namaMatkul + " Berhasil Ditambahkan", Toast.LENGTH_SHORT).show();
                         } else {
-                            loading.dismiss();
-                            Toast.makeText(mContext, "Gagal Menyimpan Data", Toast.LENGTH_SHORT).show();
+                            Toast.makeText(appContext, "Gagal Menyimpan " + namaMatkul, Toast.LENGTH_SHORT).show();
                         }
                     }
 
                     @Override
-                    public void onFailure(Call<ResponseBody> call, Throwable t) {
-                        loading.dismiss();
-                        Toast.makeText(mContext, "Koneksi Internet Bermasalah", Toast.LENGTH_SHORT).show();
+                    public void onQueued() {
+                        Toast.makeText(appContext, "Koneksi Internet Bermasalah, " + namaMatkul
+                                + " akan disimpan saat online", Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        // Dibatalkan berarti matkul ini dihapus dari list sebelum sempat terkirim.
+                        if (!(t instanceof CancellationException)){
+                            Toast.makeText(appContext, "Gagal Menyimpan " + namaMatkul, Toast.LENGTH_SHORT).show();
+                        }
                     }
                 });
+
+        etNamaMatkul.setText("");
+        etNamaMatkul.requestFocus();
     }
 }
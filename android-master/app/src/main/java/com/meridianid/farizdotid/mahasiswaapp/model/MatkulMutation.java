@@ -0,0 +1,76 @@
+package com.meridianid.farizdotid.mahasiswaapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+public class MatkulMutation{
+
+	public static final String OP_ADD = "add";
+	public static final String OP_DELETE = "delete";
+
+	@SerializedName("op")
+	private String op;
+
+	@SerializedName("client_id")
+	private String clientId;
+
+	@SerializedName("id")
+	private String id;
+
+	@SerializedName("nama_dosen")
+	private String namaDosen;
+
+	@SerializedName("matkul")
+	private String matkul;
+
+	public void setOp(String op){
+		this.op = op;
+	}
+
+	public String getOp(){
+		return op;
+	}
+
+	public void setClientId(String clientId){
+		this.clientId = clientId;
+	}
+
+	public String getClientId(){
+		return clientId;
+	}
+
+	public void setId(String id){
+		this.id = id;
+	}
+
+	public String getId(){
+		return id;
+	}
+
+	public void setNamaDosen(String namaDosen){
+		this.namaDosen = namaDosen;
+	}
+
+	public String getNamaDosen(){
+		return namaDosen;
+	}
+
+	public void setMatkul(String matkul){
+		this.matkul = matkul;
+	}
+
+	public String getMatkul(){
+		return matkul;
+	}
+
+	@Override
+ 	public String toString(){
+		return 
+			"MatkulMutation{" + 
+			"op = '" + op + '\'' + 
+			",client_id = '" + clientId + '\'' + 
+			",id = '" + id + '\'' + 
+			",nama_dosen = '" + namaDosen + '\'' + 
+			",matkul = '" + matkul + '\'' + 
+			"}";
+		}
+}
\ No newline at end of file
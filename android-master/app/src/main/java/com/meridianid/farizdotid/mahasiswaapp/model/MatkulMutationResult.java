@@ -0,0 +1,61 @@
+package com.meridianid.farizdotid.mahasiswaapp.model;
+
+import com.google.gson.annotations.SerializedName;
+
+public class MatkulMutationResult{
+
+	@SerializedName("client_id")
+	private String clientId;
+
+	@SerializedName("id")
+	private String id;
+
+	@SerializedName("error")
+	private boolean error;
+
+	@SerializedName("message")
+	private String message;
+
+	public void setClientId(String clientId){
+		this.clientId = clientId;
+	}
+
+	public String getClientId(){
+		return clientId;
+	}
+
+	public void setId(String id){
+		this.id = id;
+	}
+
+	public String getId(){
+		return id;
+	}
+
+	public void setError(boolean error){
+		this.error = error;
+	}
+
+	public boolean isError(){
+		return error;
+	}
+
+	public void setMessage(String message){
+		this.message = message;
+	}
+
+	public String getMessage(){
+		return message;
+	}
+
+	@Override
+ 	public String toString(){
+		return 
+			"MatkulMutationResult{" + 
+			"client_id = '" + clientId + '\'' + 
+			",id = '" + id + '\'' + 
+			",error = '" + error + '\'' + 
+			",message = '" + message + '\'' + 
+			"}";
+		}
+}
\ No newline at end of file
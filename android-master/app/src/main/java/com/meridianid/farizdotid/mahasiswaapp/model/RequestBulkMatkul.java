@@ -0,0 +1,26 @@
+package com.meridianid.farizdotid.mahasiswaapp.model;
+
+import java.util.List;
+import com.google.gson.annotations.SerializedName;
+
+public class RequestBulkMatkul{
+
+	@SerializedName("operations")
+	private List<MatkulMutation> operations;
+
+	public void setOperations(List<MatkulMutation> operations){
+		this.operations = operations;
+	}
+
+	public List<MatkulMutation> getOperations(){
+		return operations;
+	}
+
+	@Override
+ 	public String toString(){
+		return 
+			"RequestBulkMatkul{" + 
+			"operations = '" + operations + '\'' + 
+			"}";
+		}
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.meridianid.farizdotid.mahasiswaapp.model;
+
+import java.util.List;
+import com.google.gson.annotations.SerializedName;
+
+public class ResponseBulkMatkul{
+
+	@SerializedName("results")
+	private List<MatkulMutationResult> results;
+
+	@SerializedName("error")
+	private boolean error;
+
+	@SerializedName("message")
+	private String message;
+
+	public void setResults(List<MatkulMutationResult> results){
+		this.results = results;
+	}
+
+	public List<MatkulMutationResult> getResults(){
+		return results;
+	}
+
+	public void setError(boolean error){
+		this.error = error;
+	}
+
+	public boolean isError(){
+		return error;
+	}
+
+	public void setMessage(String message){
+		this.message = message;
+	}
+
+	public String getMessage(){
+		return message;
+	}
+
+	@Override
+ 	public String toString(){
+		return 
+			"ResponseBulkMatkul{" + 
+			"results = '" + results + '\'' + 
+			",error = '" + error + '\'' + 
+			",message = '" + message + '\'' + 
+			"}";
+		}
+}
\ No newline at end of file
@@ -14,6 +14,9 @@ public class ResponseDosen{
 	@SerializedName("message")
 	private String message;
 
+	@SerializedName("next_cursor")
+	private String nextCursor;
+
 	public void setSemuadosen(List<SemuadosenItem> semuadosen){
 		this.semuadosen = semuadosen;
 	}
@@ -38,6 +41,14 @@ public class ResponseDosen{
 		return message;
 	}
 
+	public void setNextCursor(String nextCursor){
+		this.nextCursor = nextCursor;
+	}
+
+	public String getNextCursor(){
+		return nextCursor;
+	}
+
 	@Override
  	public String toString(){
 		return 
@@ -45,6 +56,7 @@ public class ResponseDosen{
 			"semuadosen = '" + semuadosen + '\'' + 
 			",error = '" + error + '\'' + 
 			",message = '" + message + '\'' + 
+			",next_cursor = '" + nextCursor + '\'' + 
 			"}";
 		}
 }
\ No newline at end of file
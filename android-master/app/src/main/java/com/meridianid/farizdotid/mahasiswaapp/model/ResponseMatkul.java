@@ -14,6 +14,12 @@ public class ResponseMatkul{
 	@SerializedName("message")
 	private String message;
 
+	@SerializedName("next_cursor")
+	private String nextCursor;
+
+	@SerializedName("version")
+	private long version;
+
 	public void setSemuamatkul(List<SemuamatkulItem> semuamatkul){
 		this.semuamatkul = semuamatkul;
 	}
@@ -38,6 +44,22 @@ public class ResponseMatkul{
 		return message;
 	}
 
+	public void setNextCursor(String nextCursor){
+		this.nextCursor = nextCursor;
+	}
+
+	public String getNextCursor(){
+		return nextCursor;
+	}
+
+	public void setVersion(long version){
+		this.version = version;
+	}
+
+	public long getVersion(){
+		return version;
+	}
+
 	@Override
  	public String toString(){
 		return 
@@ -45,6 +67,8 @@ public class ResponseMatkul{
 			"semuamatkul = '" + semuamatkul + '\'' + 
 			",error = '" + error + '\'' + 
 			",message = '" + message + '\'' + 
+			",next_cursor = '" + nextCursor + '\'' + 
+			",version = '" + version + '\'' + 
 			"}";
 		}
 }
\ No newline at end of file
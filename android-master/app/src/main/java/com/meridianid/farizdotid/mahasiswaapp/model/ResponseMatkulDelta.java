@@ -0,0 +1,86 @@
+package com.meridianid.farizdotid.mahasiswaapp.model;
+
+import java.util.List;
+import com.google.gson.annotations.SerializedName;
+
+public class ResponseMatkulDelta{
+
+	@SerializedName("version")
+	private long version;
+
+	@SerializedName("upserts")
+	private List<SemuamatkulItem> upserts;
+
+	@SerializedName("deleted")
+	private List<String> deleted;
+
+	@SerializedName("full_resync")
+	private boolean fullResync;
+
+	@SerializedName("error")
+	private boolean error;
+
+	@SerializedName("message")
+	private String message;
+
+	public void setVersion(long version){
+		this.version = version;
+	}
+
+	public long getVersion(){
+		return version;
+	}
+
+	public void setUpserts(List<SemuamatkulItem> upserts){
+		this.upserts = upserts;
+	}
+
+	public List<SemuamatkulItem> getUpserts(){
+		return upserts;
+	}
+
+	public void setDeleted(List<String> deleted){
+		this.deleted = deleted;
+	}
+
+	public List<String> getDeleted(){
+		return deleted;
+	}
+
+	public void setFullResync(boolean fullResync){
+		this.fullResync = fullResync;
+	}
+
+	public boolean isFullResync(){
+		return fullResync;
+	}
+
+	public void setError(boolean error){
+		this.error = error;
+	}
+
+	public boolean isError(){
+		return error;
+	}
+
+	public void setMessage(String message){
+		this.message = message;
+	}
+
+	public String getMessage(){
+		return message;
+	}
+
+	@Override
+ 	public String toString(){
+		return 
+			"ResponseMatkulDelta{" + 
+			"version = '" + version + '\'' + 
+			",upserts = '" + upserts + '\'' + 
+			",deleted = '" + deleted + '\'' + 
+			",full_resync = '" + fullResync + '\'' + 
+			",error = '" + error + '\'' + 
+			",message = '" + message + '\'' + 
+			"}";
+		}
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.meridianid.farizdotid.mahasiswaapp.model;
 
 import com.google.gson.annotations.SerializedName;
 
+// Dari endpoint list dengan fields=..., field yang tidak diminta bernilai null.
 public class SemuadosenItem{
 
 	@SerializedName("nama")
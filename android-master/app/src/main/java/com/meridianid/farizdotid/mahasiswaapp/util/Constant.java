@@ -12,4 +12,8 @@ public class Constant {
     public static final String KEY_ID_MATKUL = "keyIdMatkul";
     public static final String KEY_NAMA_DOSEN = "keyNamaDosen";
     public static final String KEY_MATKUL = "keyMatkul";
+
+    // Key SpeculativeFetcher untuk list yang dimuat lebih awal dari MainActivity.
+    public static final String SPECULATIVE_DOSEN = "speculativeDosen";
+    public static final String SPECULATIVE_MATKUL_PAGE = "speculativeMatkulPage";
 }
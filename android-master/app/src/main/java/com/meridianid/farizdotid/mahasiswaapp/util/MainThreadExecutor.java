@@ -0,0 +1,25 @@
+package com.meridianid.farizdotid.mahasiswaapp.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor yang menjalankan tugas di main thread, dipakai untuk callback dari thread background.
+ */
+public class MainThreadExecutor implements Executor {
+
+    private static final MainThreadExecutor INSTANCE = new MainThreadExecutor();
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    public static MainThreadExecutor getInstance(){
+        return INSTANCE;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        handler.post(command);
+    }
+}
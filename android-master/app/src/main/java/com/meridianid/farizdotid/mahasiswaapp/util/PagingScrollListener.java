@@ -0,0 +1,41 @@
+package com.meridianid.farizdotid.mahasiswaapp.util;
+
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * Memicu pemuatan halaman berikutnya (atau sebelumnya) saat posisi scroll tinggal
+ * prefetchDistance item dari ujung list.
+ */
+public class PagingScrollListener extends RecyclerView.OnScrollListener {
+
+    public interface Callback {
+        void onLoadNext();
+
+        void onLoadPrevious();
+    }
+
+    private final LinearLayoutManager layoutManager;
+    private final int prefetchDistance;
+    private final Callback callback;
+
+    public PagingScrollListener(LinearLayoutManager layoutManager, int prefetchDistance, Callback callback) {
+        this.layoutManager = layoutManager;
+        this.prefetchDistance = prefetchDistance;
+        this.callback = callback;
+    }
+
+    @Override
+    public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+        int itemCount = layoutManager.getItemCount();
+        if (itemCount == 0) {
+            return;
+        }
+
+        if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= itemCount - 1 - prefetchDistance) {
+            callback.onLoadNext();
+        } else if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= prefetchDistance) {
+            callback.onLoadPrevious();
+        }
+    }
+}
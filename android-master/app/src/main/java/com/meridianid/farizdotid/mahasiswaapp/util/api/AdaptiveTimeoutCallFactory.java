@@ -0,0 +1,78 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * Call.Factory untuk Retrofit yang memilih timeout setiap request dari kualitas jaringan saat request
+ * dibuat. OkHttp 3.4 belum punya timeout per call, jadi setiap kelas kualitas memakai turunan dari
+ * client yang sama (newBuilder), yang tetap berbagi connection pool, dispatcher dan cache.
+ */
+public class AdaptiveTimeoutCallFactory implements Call.Factory {
+
+    private final OkHttpClient client;
+    private final NetworkQualityEstimator estimator;
+    private final Map<NetworkQualityEstimator.Quality, OkHttpClient> clients =
+            new EnumMap<>(NetworkQualityEstimator.Quality.class);
+
+    public AdaptiveTimeoutCallFactory(OkHttpClient client, NetworkQualityEstimator estimator) {
+        this.client = client;
+        this.estimator = estimator;
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        return clientFor(estimator.getQuality()).newCall(request);
+    }
+
+    // Sebelum ada sampel, timeout dari client asli yang dipakai.
+    public synchronized OkHttpClient clientFor(NetworkQualityEstimator.Quality quality){
+        if (quality == NetworkQualityEstimator.Quality.UNKNOWN){
+            return client;
+        }
+        OkHttpClient adapted = clients.get(quality);
+        if (adapted == null){
+            long connect = connectTimeoutMillis(quality);
+            long read = readTimeoutMillis(quality);
+            adapted = client.newBuilder()
+                    .connectTimeout(connect, TimeUnit.MILLISECONDS)
+                    .readTimeout(read, TimeUnit.MILLISECONDS)
+                    .writeTimeout(read, TimeUnit.MILLISECONDS)
+                    .build();
+            clients.put(quality, adapted);
+        }
+        return adapted;
+    }
+
+    static long connectTimeoutMillis(NetworkQualityEstimator.Quality quality){
+        switch (quality){
+            case POOR:
+                return TimeUnit.SECONDS.toMillis(30);
+            case MODERATE:
+                return TimeUnit.SECONDS.toMillis(20);
+            case GOOD:
+                return TimeUnit.SECONDS.toMillis(15);
+            default:
+                return TimeUnit.SECONDS.toMillis(10);
+        }
+    }
+
+    // Di jaringan cepat, server yang diam lebih dari beberapa detik lebih baik cepat dicoba ulang.
+    static long readTimeoutMillis(NetworkQualityEstimator.Quality quality){
+        switch (quality){
+            case POOR:
+                return TimeUnit.SECONDS.toMillis(60);
+            case MODERATE:
+                return TimeUnit.SECONDS.toMillis(30);
+            case GOOD:
+                return TimeUnit.SECONDS.toMillis(15);
+            default:
+                return TimeUnit.SECONDS.toMillis(8);
+        }
+    }
+}
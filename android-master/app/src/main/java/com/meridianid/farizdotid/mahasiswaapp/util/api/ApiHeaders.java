@@ -0,0 +1,31 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+/**
+ * Header internal yang dipasang lewat @Headers di BaseApiService untuk mengatur
+ * kebijakan per endpoint. Header ini dibuang sebelum request dikirim ke server.
+ */
+public final class ApiHeaders {
+
+    // Berapa detik response dianggap masih segar.
+    public static final String CACHE_TTL = "X-Cache-Ttl";
+    // Berapa detik response basi masih boleh ditampilkan sambil divalidasi ulang di background.
+    public static final String CACHE_SWR = "X-Cache-Swr";
+    // Body request boleh dikirim terkompresi gzip (untuk endpoint bulk yang body-nya besar).
+    public static final String GZIP_REQUEST = "X-Gzip-Request";
+    // Jalur prioritas di PriorityDispatcher: interactive, visible (default), prefetch atau sync.
+    public static final String PRIORITY = "X-Priority";
+
+    private ApiHeaders(){
+    }
+
+    static int parseSeconds(String value){
+        if (value == null){
+            return -1;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e){
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer berukuran tetap untuk record log jaringan. Thread OkHttp hanya menaruh record
+ * (tidak pernah menunggu I/O), satu thread background yang menulisnya ke Sink.
+ * Jika buffer penuh, record paling lama dibuang.
+ */
+public class AsyncLogWriter {
+
+    public interface Sink {
+        void write(String record);
+    }
+
+    private final String[] ring;
+    private final Sink sink;
+    private int head;
+    private int size;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public AsyncLogWriter(int capacity, Sink sink) {
+        if (capacity < 1){
+            throw new IllegalArgumentException("capacity harus lebih dari 0");
+        }
+        this.ring = new String[capacity];
+        this.sink = sink;
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drainLoop();
+            }
+        }, "network-log-writer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public void offer(String record){
+        synchronized (ring){
+            if (size == ring.length){
+                head = (head + 1) % ring.length;
+                size--;
+                droppedCount.incrementAndGet();
+            }
+            ring[(head + size) % ring.length] = record;
+            size++;
+            ring.notify();
+        }
+    }
+
+    public long getWrittenCount(){
+        return writtenCount.get();
+    }
+
+    public long getDroppedCount(){
+        return droppedCount.get();
+    }
+
+    private void drainLoop(){
+        List<String> batch = new ArrayList<>();
+        while (true){
+            synchronized (ring){
+                while (size == 0){
+                    try {
+                        ring.wait();
+                    } catch (InterruptedException e){
+                        return;
+                    }
+                }
+                while (size > 0){
+                    batch.add(ring[head]);
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    size--;
+                }
+            }
+            for (String record : batch){
+                sink.write(record);
+                writtenCount.incrementAndGet();
+            }
+            batch.clear();
+        }
+    }
+}
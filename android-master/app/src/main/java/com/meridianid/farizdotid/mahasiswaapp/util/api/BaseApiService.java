@@ -1,17 +1,27 @@
 package com.meridianid.farizdotid.mahasiswaapp.util.api;
 
+import com.meridianid.farizdotid.mahasiswaapp.model.RequestBulkMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseBulkMatkul;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosenDetail;
 import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkulDelta;
+
+import java.util.concurrent.CompletableFuture;
 
 import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.Body;
 import retrofit2.http.DELETE;
 import retrofit2.http.Field;
 import retrofit2.http.FormUrlEncoded;
 import retrofit2.http.GET;
+import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Created by fariz ramadhan.
@@ -21,32 +31,95 @@ import retrofit2.http.Path;
 public interface BaseApiService {
 
     // Fungsi ini untuk memanggil API http://10.0.2.2/mahasiswa/login.php
+    @Headers(ApiHeaders.PRIORITY + ": interactive")
     @FormUrlEncoded
     @POST("login.php")
     Call<ResponseBody> loginRequest(@Field("email") String email,
                                     @Field("password") String password);
 
     // Fungsi ini untuk memanggil API http://10.0.2.2/mahasiswa/register.php
+    @Headers(ApiHeaders.PRIORITY + ": interactive")
     @FormUrlEncoded
     @POST("register.php")
     Call<ResponseBody> registerRequest(@Field("nama") String nama,
                                        @Field("email") String email,
                                        @Field("password") String password);
 
+    // Daftar dosen jarang berubah: segar 5 menit, setelah itu data lama tetap tampil sambil divalidasi ulang.
+    // List besar diminta dalam format biner (BinaryWire), server boleh tetap menjawab JSON.
+    // fields memilih kolom item (lihat FieldProjection), null untuk semua kolom.
+    @Retry(hedge = true)
+    @Headers({ApiHeaders.CACHE_TTL + ": 300", ApiHeaders.CACHE_SWR + ": 3600", "Accept: " + BinaryWire.ACCEPT})
+    @GET("semuadosen")
+    Call<ResponseDosen> getSemuaDosen(@Query("fields") FieldProjection fields);
+
+    // Versi streaming dari getSemuaDosen, body dibaca bertahap dengan StreamingListDecoder.
+    @Retry
+    @Streaming
+    @Headers({ApiHeaders.CACHE_TTL + ": 300", ApiHeaders.CACHE_SWR + ": 3600"})
+    @GET("semuadosen")
+    Call<ResponseBody> getSemuaDosenStream(@Query("fields") FieldProjection fields);
+
+    // Versi CompletableFuture dari getSemuaDosen, untuk dijalankan bersamaan dengan request lain.
+    @Retry(hedge = true)
+    @Headers({ApiHeaders.CACHE_TTL + ": 300", ApiHeaders.CACHE_SWR + ": 3600", "Accept: " + BinaryWire.ACCEPT})
+    @GET("semuadosen")
+    CompletableFuture<ResponseDosen> semuaDosen(@Query("fields") FieldProjection fields);
+
+    // Sama dengan getSemuaDosen tapi lewat jalur prefetch, dipakai SpeculativeFetcher di MainActivity.
+    @Headers({ApiHeaders.CACHE_TTL + ": 300", ApiHeaders.CACHE_SWR + ": 3600", "Accept: " + BinaryWire.ACCEPT,
+            ApiHeaders.PRIORITY + ": prefetch"})
     @GET("semuadosen")
-    Call<ResponseDosen> getSemuaDosen();
+    CompletableFuture<Response<ResponseDosen>> prefetchSemuaDosen(@Query("fields") FieldProjection fields);
 
+    @Retry(hedge = true)
+    @Headers(ApiHeaders.CACHE_TTL + ": 300")
     @GET("dosen/{namadosen}")
     Call<ResponseDosenDetail> getDetailDosen(@Path("namadosen") String namadosen);
 
+    // Sama dengan getDetailDosen tapi lewat jalur prefetch, dipakai DosenDetailPrefetcher.
+    @Headers({ApiHeaders.CACHE_TTL + ": 300", ApiHeaders.PRIORITY + ": prefetch"})
+    @GET("dosen/{namadosen}")
+    Call<ResponseDosenDetail> prefetchDetailDosen(@Path("namadosen") String namadosen);
+
+    // Matkul berubah setelah tambah/hapus, jadi selalu divalidasi ulang (304 jika tidak berubah).
+    @Retry(hedge = true)
+    @Headers({ApiHeaders.CACHE_TTL + ": 0", "Accept: " + BinaryWire.ACCEPT})
+    @GET("matkul")
+    CompletableFuture<ResponseMatkul> semuaMatkul();
+
+    // Per halaman, dipakai CursorPager di MatkulActivity. cursor null untuk halaman pertama,
+    // next_cursor null berarti halaman terakhir.
+    @Retry(hedge = true)
+    @Headers({ApiHeaders.CACHE_TTL + ": 0", "Accept: " + BinaryWire.ACCEPT})
+    @GET("matkul")
+    Call<ResponseMatkul> getMatkulPage(@Query("cursor") String cursor, @Query("limit") int limit);
+
+    // Sama dengan getMatkulPage tapi lewat jalur prefetch, dipakai SpeculativeFetcher di MainActivity.
+    @Headers({ApiHeaders.CACHE_TTL + ": 0", "Accept: " + BinaryWire.ACCEPT, ApiHeaders.PRIORITY + ": prefetch"})
+    @GET("matkul")
+    CompletableFuture<Response<ResponseMatkul>> prefetchMatkulPage(@Query("cursor") String cursor, @Query("limit") int limit);
+
+    // Hanya perubahan sejak version (dari ResponseMatkul atau delta sebelumnya): upserts dan id yang dihapus.
+    // full_resync true berarti version terlalu lama dan list harus dimuat ulang.
+    @Retry(hedge = true)
+    @Headers(ApiHeaders.CACHE_TTL + ": 0")
     @GET("matkul")
-    Call<ResponseMatkul> getSemuaMatkul();
+    Call<ResponseMatkulDelta> getMatkulDelta(@Query("since") long version);
 
+    @Headers(ApiHeaders.PRIORITY + ": interactive")
     @FormUrlEncoded
     @POST("matkul")
     Call<ResponseBody> simpanMatkulRequest(@Field("nama_dosen") String namadosen,
                                            @Field("matkul") String namamatkul);
 
+    @Headers(ApiHeaders.PRIORITY + ": interactive")
     @DELETE("matkul/{idmatkul}")
     Call<ResponseBody> deteleMatkul(@Path("idmatkul") String idmatkul);
+
+    // Banyak tambah/hapus matkul dalam satu request, dikirim oleh MatkulBatcher.
+    // Hasil per operasi dicocokkan lewat client_id, body dikompresi gzip jika besar.
+    @Headers({ApiHeaders.GZIP_REQUEST + ": 1", ApiHeaders.PRIORITY + ": sync"})
+    @POST("matkul/batch")
+    Call<ResponseBulkMatkul> bulkMatkul(@Body RequestBulkMatkul request);
 }
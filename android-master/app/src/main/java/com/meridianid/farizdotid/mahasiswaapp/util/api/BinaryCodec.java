@@ -0,0 +1,14 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+
+/**
+ * Menulis dan membaca satu model dalam format {@link BinaryWire}. Urutan field adalah bagian dari
+ * format, jadi perubahan urutan harus menaikkan {@link BinaryWire#VERSION}.
+ */
+public interface BinaryCodec<T> {
+
+    void write(T value, BinaryWire.Writer writer) throws IOException;
+
+    T read(BinaryWire.Reader reader) throws IOException;
+}
@@ -0,0 +1,98 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codec {@link BinaryWire} untuk response list dosen dan matkul. Urutan: error, message, next_cursor,
+ * (version untuk matkul), jumlah item, lalu field setiap item.
+ */
+public final class BinaryCodecs {
+
+    public static final BinaryCodec<ResponseMatkul> MATKUL = new BinaryCodec<ResponseMatkul>() {
+        @Override
+        public void write(ResponseMatkul value, BinaryWire.Writer writer) throws IOException {
+            writer.writeBoolean(value.isError());
+            writer.writeString(value.getMessage());
+            writer.writeString(value.getNextCursor());
+            writer.writeVarLong(value.getVersion());
+            List<SemuamatkulItem> items = value.getSemuamatkul();
+            writer.writeVarLong(items == null ? 0 : items.size());
+            if (items == null){
+                return;
+            }
+            for (SemuamatkulItem item : items){
+                writer.writeString(item.getId());
+                writer.writeString(item.getNamaDosen());
+                writer.writeString(item.getMatkul());
+            }
+        }
+
+        @Override
+        public ResponseMatkul read(BinaryWire.Reader reader) throws IOException {
+            ResponseMatkul value = new ResponseMatkul();
+            value.setError(reader.readBoolean());
+            value.setMessage(reader.readString());
+            value.setNextCursor(reader.readString());
+            value.setVersion(reader.readVarLong());
+            int count = reader.readVarInt();
+            List<SemuamatkulItem> items = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++){
+                SemuamatkulItem item = new SemuamatkulItem();
+                item.setId(reader.readString());
+                item.setNamaDosen(reader.readString());
+                item.setMatkul(reader.readString());
+                items.add(item);
+            }
+            value.setSemuamatkul(items);
+            return value;
+        }
+    };
+
+    public static final BinaryCodec<ResponseDosen> DOSEN = new BinaryCodec<ResponseDosen>() {
+        @Override
+        public void write(ResponseDosen value, BinaryWire.Writer writer) throws IOException {
+            writer.writeBoolean(value.isError());
+            writer.writeString(value.getMessage());
+            writer.writeString(value.getNextCursor());
+            List<SemuadosenItem> items = value.getSemuadosen();
+            writer.writeVarLong(items == null ? 0 : items.size());
+            if (items == null){
+                return;
+            }
+            for (SemuadosenItem item : items){
+                writer.writeString(item.getId());
+                writer.writeString(item.getNama());
+                writer.writeString(item.getMatkul());
+            }
+        }
+
+        @Override
+        public ResponseDosen read(BinaryWire.Reader reader) throws IOException {
+            ResponseDosen value = new ResponseDosen();
+            value.setError(reader.readBoolean());
+            value.setMessage(reader.readString());
+            value.setNextCursor(reader.readString());
+            int count = reader.readVarInt();
+            List<SemuadosenItem> items = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++){
+                SemuadosenItem item = new SemuadosenItem();
+                item.setId(reader.readString());
+                item.setNama(reader.readString());
+                item.setMatkul(reader.readString());
+                items.add(item);
+            }
+            value.setSemuadosen(items);
+            return value;
+        }
+    };
+
+    private BinaryCodecs(){
+    }
+}
@@ -0,0 +1,84 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Converter untuk model yang punya {@link BinaryCodec}. Body dengan Content-Type {@link BinaryWire#CONTENT_TYPE}
+ * di-decode dengan codec, body lain (server lama atau error page) diteruskan ke converter berikutnya,
+ * biasanya Gson. Harus ditambahkan sebelum GsonConverterFactory.
+ */
+public class BinaryConverterFactory extends Converter.Factory {
+
+    private final Map<Type, BinaryCodec<?>> codecs = new ConcurrentHashMap<>();
+    private final AtomicLong binaryCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+
+    // Dengan codec untuk ResponseMatkul dan ResponseDosen.
+    public static BinaryConverterFactory create(){
+        BinaryConverterFactory factory = new BinaryConverterFactory();
+        factory.register(ResponseMatkul.class, BinaryCodecs.MATKUL);
+        factory.register(ResponseDosen.class, BinaryCodecs.DOSEN);
+        return factory;
+    }
+
+    public <T> void register(Class<T> type, BinaryCodec<T> codec){
+        codecs.put(type, codec);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        BinaryCodec<?> codec = codecs.get(type);
+        if (codec == null){
+            return null;
+        }
+        return new BinaryResponseConverter<>(codec, retrofit.nextResponseBodyConverter(this, type, annotations));
+    }
+
+    // Response yang di-decode dari format biner.
+    public long getBinaryCount(){
+        return binaryCount.get();
+    }
+
+    // Response yang tetap JSON walaupun format biner diminta.
+    public long getFallbackCount(){
+        return fallbackCount.get();
+    }
+
+    private final class BinaryResponseConverter<T> implements Converter<ResponseBody, Object> {
+
+        private final BinaryCodec<T> codec;
+        private final Converter<ResponseBody, ?> fallback;
+
+        BinaryResponseConverter(BinaryCodec<T> codec, Converter<ResponseBody, ?> fallback) {
+            this.codec = codec;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Object convert(ResponseBody body) throws IOException {
+            if (!BinaryWire.isBinary(body.contentType())){
+                fallbackCount.incrementAndGet();
+                return fallback.convert(body);
+            }
+            try {
+                T value = BinaryWire.decode(codec, body.source());
+                binaryCount.incrementAndGet();
+                return value;
+            } finally {
+                body.close();
+            }
+        }
+    }
+}
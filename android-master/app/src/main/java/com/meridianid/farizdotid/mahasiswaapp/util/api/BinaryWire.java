@@ -0,0 +1,150 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Format biner ringkas untuk response list yang besar, alternatif dari JSON. Angka ditulis sebagai
+ * varint (LEB128) dan string sebagai tag varint: 0 = null, 1 = string baru (panjang UTF-8 lalu byte-nya,
+ * disimpan ke tabel), n >= 2 = string ke-(n - 2) dari tabel. Nama dosen yang berulang di setiap matkul
+ * jadi cukup dikirim sekali. Isi tiap model ditentukan {@link BinaryCodec}-nya.
+ *
+ * Client meminta format ini lewat header Accept, server boleh tetap menjawab JSON.
+ */
+public final class BinaryWire {
+
+    public static final String CONTENT_TYPE = "application/x-mahasiswa-bin";
+    public static final MediaType MEDIA_TYPE = MediaType.parse(CONTENT_TYPE);
+    // Dipasang lewat @Headers di BaseApiService, JSON tetap diterima sebagai fallback.
+    public static final String ACCEPT = CONTENT_TYPE + ", application/json;q=0.9";
+    public static final int VERSION = 1;
+    // Batas tabel string supaya memori decoder tetap terbatas untuk response yang sangat besar.
+    static final int MAX_STRING_TABLE = 4096;
+
+    private BinaryWire(){
+    }
+
+    // Satu response lengkap: versi format lalu isi model.
+    public static <T> void encode(BinaryCodec<T> codec, T value, BufferedSink sink) throws IOException {
+        Writer writer = new Writer(sink);
+        writer.writeVarLong(VERSION);
+        codec.write(value, writer);
+    }
+
+    public static <T> T decode(BinaryCodec<T> codec, BufferedSource source) throws IOException {
+        Reader reader = new Reader(source);
+        long version = reader.readVarLong();
+        if (version != VERSION){
+            throw new ProtocolException("Versi format biner tidak didukung: " + version);
+        }
+        return codec.read(reader);
+    }
+
+    public static boolean isBinary(MediaType contentType){
+        return contentType != null && MEDIA_TYPE.type().equals(contentType.type())
+                && MEDIA_TYPE.subtype().equals(contentType.subtype());
+    }
+
+    public static final class Writer {
+
+        private final BufferedSink sink;
+        private final Map<String, Integer> table = new HashMap<>();
+
+        public Writer(BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        public void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0){
+                sink.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            sink.writeByte((int) value);
+        }
+
+        public void writeBoolean(boolean value) throws IOException {
+            sink.writeByte(value ? 1 : 0);
+        }
+
+        public void writeString(String value) throws IOException {
+            if (value == null){
+                writeVarLong(0);
+                return;
+            }
+            Integer index = table.get(value);
+            if (index != null){
+                writeVarLong(index + 2);
+                return;
+            }
+            if (table.size() < MAX_STRING_TABLE){
+                table.put(value, table.size());
+            }
+            ByteString utf8 = ByteString.encodeUtf8(value);
+            writeVarLong(1);
+            writeVarLong(utf8.size());
+            sink.write(utf8);
+        }
+    }
+
+    public static final class Reader {
+
+        private final BufferedSource source;
+        private final List<String> table = new ArrayList<>();
+
+        public Reader(BufferedSource source) {
+            this.source = source;
+        }
+
+        public long readVarLong() throws IOException {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7){
+                byte b = source.readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0){
+                    return result;
+                }
+            }
+            throw new ProtocolException("Varint terlalu panjang");
+        }
+
+        public int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE){
+                throw new ProtocolException("Angka di luar batas int: " + value);
+            }
+            return (int) value;
+        }
+
+        public boolean readBoolean() throws IOException {
+            return source.readByte() != 0;
+        }
+
+        public String readString() throws IOException {
+            long tag = readVarLong();
+            if (tag == 0){
+                return null;
+            }
+            if (tag == 1){
+                String value = source.readUtf8(readVarLong());
+                if (table.size() < MAX_STRING_TABLE){
+                    table.add(value);
+                }
+                return value;
+            }
+            long index = tag - 2;
+            if (index >= table.size()){
+                throw new ProtocolException("Referensi string tidak dikenal: " + index);
+            }
+            return table.get((int) index);
+        }
+    }
+}
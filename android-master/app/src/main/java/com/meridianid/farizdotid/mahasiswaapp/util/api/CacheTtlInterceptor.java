@@ -0,0 +1,49 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network interceptor yang menerapkan TTL dari header {@link ApiHeaders#CACHE_TTL} ke response,
+ * sehingga OkHttp bisa menyimpannya di cache dan memvalidasi ulang dengan ETag/Last-Modified.
+ */
+public class CacheTtlInterceptor implements Interceptor {
+
+    private final AtomicLong notModifiedCount = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        int ttl = ApiHeaders.parseSeconds(request.header(ApiHeaders.CACHE_TTL));
+
+        Response response = chain.proceed(request.newBuilder()
+                .removeHeader(ApiHeaders.CACHE_TTL)
+                .removeHeader(ApiHeaders.CACHE_SWR)
+                .build());
+
+        if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED){
+            notModifiedCount.incrementAndGet();
+        } else if (!response.isSuccessful()){
+            return response;
+        }
+        if (ttl < 0){
+            return response;
+        }
+
+        // Kebijakan endpoint menggantikan header cache dari server, validator (ETag/Last-Modified) tetap dipakai.
+        return response.newBuilder()
+                .header("Cache-Control", "public, max-age=" + ttl)
+                .removeHeader("Pragma")
+                .removeHeader("Expires")
+                .build();
+    }
+
+    public long getNotModifiedCount(){
+        return notModifiedCount.get();
+    }
+}
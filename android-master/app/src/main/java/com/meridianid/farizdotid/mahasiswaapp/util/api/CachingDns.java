@@ -0,0 +1,390 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Dns;
+
+/**
+ * Dns dengan cache di memori di depan resolver sistem. Hasil lookup dipakai selama ttlMillis; setelah
+ * itu lookup baru dikirim, dan jika resolver gagal atau tidak menjawab dalam stallMillis, alamat lama
+ * (sampai maxStaleMillis) dipakai sementara lookup tetap berjalan di background dan mengisi cache.
+ * Lookup yang bersamaan untuk host yang sama digabung.
+ *
+ * Untuk host yang didaftarkan lewat {@link #raceOn}, jika hasilnya berisi IPv4 dan IPv6 koneksi TCP ke
+ * keduanya dibalap di background (IPv6 diberi start lebih dulu), paling sering sekali per
+ * RACE_INTERVAL_MILLIS. Lookup tidak menunggu balapan: keluarga yang menang ditaruh di depan mulai
+ * lookup berikutnya. Alamat diselang-seling antar keluarga, jadi jika alamat pertama gagal OkHttp
+ * langsung mencoba keluarga lain, bukan alamat lain yang sama-sama rusak.
+ */
+public class CachingDns implements Dns {
+
+    interface Clock {
+        long millis();
+    }
+
+    interface Connector {
+        void connect(InetSocketAddress address, int timeoutMillis) throws IOException;
+    }
+
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    public static final long DEFAULT_MAX_STALE_MILLIS = TimeUnit.DAYS.toMillis(1);
+    public static final long DEFAULT_STALL_MILLIS = 1000;
+    public static final long DEFAULT_LOOKUP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    // Connection Attempt Delay dari RFC 8305, dan batas seluruh balapan.
+    static final long RACE_DELAY_MILLIS = 250;
+    static final long RACE_TIMEOUT_MILLIS = 2000;
+    // Balapan diulang paling sering sekali per interval ini, misalnya setelah pindah jaringan.
+    static final long RACE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final Dns delegate;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final long stallMillis;
+    private final long lookupTimeoutMillis;
+    private final Clock clock;
+    private final Connector connector;
+    private final ExecutorService executor;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, FutureTask<List<InetAddress>>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> racePorts = new ConcurrentHashMap<>();
+    // Keluarga pemenang balapan terakhir per host, true untuk IPv6.
+    private final ConcurrentHashMap<String, Boolean> preferIpv6 = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> racedAt = new ConcurrentHashMap<>();
+
+    private final LatencyTracker lookupLatency = new LatencyTracker();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong ipv4WinCount = new AtomicLong();
+    private final AtomicLong ipv6WinCount = new AtomicLong();
+
+    public CachingDns(Dns delegate) {
+        this(delegate, DEFAULT_TTL_MILLIS, DEFAULT_MAX_STALE_MILLIS, DEFAULT_STALL_MILLIS,
+                DEFAULT_LOOKUP_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param ttlMillis           lama hasil lookup dipakai tanpa bertanya ke resolver
+     * @param maxStaleMillis      lama setelah ttl hasil lama masih boleh dipakai jika resolver gagal
+     * @param stallMillis         lama menunggu resolver sebelum memakai hasil lama
+     * @param lookupTimeoutMillis lama menunggu resolver jika tidak ada hasil lama
+     */
+    public CachingDns(Dns delegate, long ttlMillis, long maxStaleMillis, long stallMillis,
+                      long lookupTimeoutMillis) {
+        this(delegate, ttlMillis, maxStaleMillis, stallMillis, lookupTimeoutMillis, new Clock() {
+            @Override
+            public long millis() {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+            }
+        }, new Connector() {
+            @Override
+            public void connect(InetSocketAddress address, int timeoutMillis) throws IOException {
+                Socket socket = new Socket();
+                try {
+                    socket.connect(address, timeoutMillis);
+                } finally {
+                    socket.close();
+                }
+            }
+        });
+    }
+
+    CachingDns(Dns delegate, long ttlMillis, long maxStaleMillis, long stallMillis, long lookupTimeoutMillis,
+               Clock clock, Connector connector) {
+        if (ttlMillis < 0 || maxStaleMillis < 0 || stallMillis < 0 || lookupTimeoutMillis < 1){
+            throw new IllegalArgumentException("Konfigurasi cache DNS tidak valid");
+        }
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        this.stallMillis = stallMillis;
+        this.lookupTimeoutMillis = lookupTimeoutMillis;
+        this.clock = clock;
+        this.connector = connector;
+        // Lookup yang macet tidak boleh menahan lookup host lain atau balapan koneksi.
+        this.executor = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dns-lookup");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    // Host yang alamat IPv4 dan IPv6-nya dibalap di port ini, biasanya host dari base url.
+    public void raceOn(String hostname, int port){
+        racePorts.put(hostname, port);
+    }
+
+    @Override
+    public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+        long now = clock.millis();
+        Entry entry = entries.get(hostname);
+        if (entry != null && now - entry.resolvedAt < ttlMillis){
+            hitCount.incrementAndGet();
+            return entry.addresses;
+        }
+        missCount.incrementAndGet();
+        boolean staleUsable = entry != null && now - entry.resolvedAt < ttlMillis + maxStaleMillis;
+
+        FutureTask<List<InetAddress>> pending = resolve(hostname);
+        try {
+            return pending.get(staleUsable ? stallMillis : lookupTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e){
+            if (staleUsable){
+                return stale(entry);
+            }
+            throw new UnknownHostException("Resolver tidak menjawab untuk " + hostname);
+        } catch (ExecutionException e){
+            if (staleUsable){
+                return stale(entry);
+            }
+            if (e.getCause() instanceof UnknownHostException){
+                throw (UnknownHostException) e.getCause();
+            }
+            UnknownHostException failure = new UnknownHostException("Lookup gagal untuk " + hostname);
+            failure.initCause(e.getCause());
+            throw failure;
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            if (staleUsable){
+                return stale(entry);
+            }
+            throw new UnknownHostException("Lookup dibatalkan untuk " + hostname);
+        }
+    }
+
+    // Persentil waktu jawab resolver (tanpa balapan koneksi), -1 jika belum ada lookup.
+    public long getLookupMillis(double percentile){
+        return lookupLatency.percentile(percentile);
+    }
+
+    public int getLookupCount(){
+        return lookupLatency.getSampleCount();
+    }
+
+    public long getHitCount(){
+        return hitCount.get();
+    }
+
+    public long getMissCount(){
+        return missCount.get();
+    }
+
+    // Lookup yang dijawab dengan alamat lama karena resolver gagal atau terlalu lama.
+    public long getStaleCount(){
+        return staleCount.get();
+    }
+
+    public long getFailureCount(){
+        return failureCount.get();
+    }
+
+    public long getIpv4WinCount(){
+        return ipv4WinCount.get();
+    }
+
+    public long getIpv6WinCount(){
+        return ipv6WinCount.get();
+    }
+
+    @Override
+    public String toString(){
+        return "dns p50 " + getLookupMillis(50) + " ms p95 " + getLookupMillis(95) + " ms, hit " + getHitCount()
+                + " miss " + getMissCount() + " basi " + getStaleCount() + " gagal " + getFailureCount()
+                + ", menang IPv4 " + getIpv4WinCount() + " IPv6 " + getIpv6WinCount();
+    }
+
+    private List<InetAddress> stale(Entry entry){
+        staleCount.incrementAndGet();
+        return entry.addresses;
+    }
+
+    private FutureTask<List<InetAddress>> resolve(final String hostname){
+        FutureTask<List<InetAddress>> task = new FutureTask<>(new Callable<List<InetAddress>>() {
+            @Override
+            public List<InetAddress> call() throws Exception {
+                try {
+                    long start = clock.millis();
+                    List<InetAddress> addresses;
+                    try {
+                        addresses = delegate.lookup(hostname);
+                    } catch (UnknownHostException e){
+                        failureCount.incrementAndGet();
+                        throw e;
+                    }
+                    lookupLatency.record(clock.millis() - start);
+                    List<InetAddress> ordered = Collections.unmodifiableList(order(hostname, addresses));
+                    entries.put(hostname, new Entry(ordered, clock.millis()));
+                    raceInBackground(hostname, addresses);
+                    return ordered;
+                } finally {
+                    inFlight.remove(hostname);
+                }
+            }
+        });
+        FutureTask<List<InetAddress>> existing = inFlight.putIfAbsent(hostname, task);
+        if (existing != null){
+            return existing;
+        }
+        executor.execute(task);
+        return task;
+    }
+
+    private List<InetAddress> order(String hostname, List<InetAddress> addresses){
+        List<InetAddress> ipv6 = new ArrayList<>();
+        List<InetAddress> ipv4 = new ArrayList<>();
+        for (InetAddress address : addresses){
+            (address instanceof Inet6Address ? ipv6 : ipv4).add(address);
+        }
+        if (ipv6.isEmpty() || ipv4.isEmpty()){
+            return addresses;
+        }
+
+        Boolean ipv6First = preferIpv6.get(hostname);
+        if (ipv6First == null){
+            ipv6First = addresses.get(0) instanceof Inet6Address;
+        }
+
+        List<InetAddress> first = ipv6First ? ipv6 : ipv4;
+        List<InetAddress> second = ipv6First ? ipv4 : ipv6;
+        List<InetAddress> interleaved = new ArrayList<>(addresses.size());
+        for (int i = 0; i < Math.max(first.size(), second.size()); i++){
+            if (i < first.size()){
+                interleaved.add(first.get(i));
+            }
+            if (i < second.size()){
+                interleaved.add(second.get(i));
+            }
+        }
+        return interleaved;
+    }
+
+    // Hasil balapan juga langsung diterapkan ke alamat di cache, jadi lookup berikutnya sudah memakainya.
+    private void raceInBackground(final String hostname, List<InetAddress> addresses){
+        final Integer port = racePorts.get(hostname);
+        final InetAddress ipv6 = firstOf(addresses, true);
+        final InetAddress ipv4 = firstOf(addresses, false);
+        if (port == null || ipv6 == null || ipv4 == null){
+            return;
+        }
+        long now = clock.millis();
+        Long last = racedAt.get(hostname);
+        if (last != null && now - last < RACE_INTERVAL_MILLIS){
+            return;
+        }
+        boolean claimed = last == null ? racedAt.putIfAbsent(hostname, now) == null
+                : racedAt.replace(hostname, last, now);
+        if (!claimed){
+            return;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                InetAddress winner = race(ipv6, ipv4, port);
+                if (winner == null){
+                    return;
+                }
+                boolean ipv6First = winner instanceof Inet6Address;
+                (ipv6First ? ipv6WinCount : ipv4WinCount).incrementAndGet();
+                preferIpv6.put(hostname, ipv6First);
+                Entry entry = entries.get(hostname);
+                if (entry != null){
+                    entries.replace(hostname, entry, new Entry(
+                            Collections.unmodifiableList(order(hostname, entry.addresses)), entry.resolvedAt));
+                }
+            }
+        });
+    }
+
+    private static InetAddress firstOf(List<InetAddress> addresses, boolean ipv6){
+        for (InetAddress address : addresses){
+            if (address instanceof Inet6Address == ipv6){
+                return address;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Happy eyeballs sederhana: IPv6 dicoba dulu, IPv4 menyusul setelah RACE_DELAY_MILLIS atau segera
+     * setelah IPv6 gagal. Mengembalikan alamat yang tersambung lebih dulu, null jika keduanya gagal.
+     * Socket percobaan langsung ditutup; biayanya satu handshake TCP per RACE_INTERVAL_MILLIS.
+     */
+    private InetAddress race(InetAddress ipv6, InetAddress ipv4, int port){
+        BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+        long deadline = clock.millis() + RACE_TIMEOUT_MILLIS;
+        try {
+            attempt(ipv6, port, results);
+            Object first = results.poll(RACE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            if (first instanceof InetAddress){
+                return (InetAddress) first;
+            }
+            attempt(ipv4, port, results);
+            int remaining = first == null ? 2 : 1;
+            while (remaining > 0){
+                long wait = deadline - clock.millis();
+                Object result = wait > 0 ? results.poll(wait, TimeUnit.MILLISECONDS) : null;
+                if (result == null){
+                    return null;
+                }
+                if (result instanceof InetAddress){
+                    return (InetAddress) result;
+                }
+                remaining--;
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    // Hasilnya alamat jika tersambung, exception jika gagal.
+    private void attempt(final InetAddress address, final int port, final BlockingQueue<Object> results){
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    connector.connect(new InetSocketAddress(address, port), (int) RACE_TIMEOUT_MILLIS);
+                    results.add(address);
+                } catch (IOException e){
+                    results.add(e);
+                }
+            }
+        });
+    }
+
+    private static final class Entry {
+        final List<InetAddress> addresses;
+        final long resolvedAt;
+
+        Entry(List<InetAddress> addresses, long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Mengumpulkan Call dari BaseApiService milik satu layar. Saat layar dihancurkan {@link #cancel()}
+ * membatalkan semua call yang masih berjalan dan melepas callback-nya, jadi callback yang datang
+ * terlambat tidak lagi menyentuh Activity (dan Activity-nya tidak tertahan di memori oleh dispatcher).
+ */
+public class CallScope {
+
+    private static final AtomicLong totalCancelledCount = new AtomicLong();
+    private static final AtomicLong totalDroppedCallbackCount = new AtomicLong();
+
+    private final Set<Call<?>> calls = new LinkedHashSet<>();
+    private final Set<ScopedCallback<?>> callbacks = new LinkedHashSet<>();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong droppedCallbackCount = new AtomicLong();
+    private volatile boolean cancelled;
+
+    // Pengganti call.enqueue(callback). Jika scope sudah dibatalkan, call langsung dibatalkan tanpa dikirim.
+    public <T> Call<T> enqueue(Call<T> call, Callback<T> callback){
+        ScopedCallback<T> scoped = new ScopedCallback<>(call, callback);
+        synchronized (this){
+            if (!cancelled){
+                calls.add(call);
+                callbacks.add(scoped);
+                call.enqueue(scoped);
+                return call;
+            }
+        }
+        call.cancel();
+        scoped.release();
+        cancelledCount.incrementAndGet();
+        totalCancelledCount.incrementAndGet();
+        return call;
+    }
+
+    /**
+     * Mendaftarkan call yang dijalankan di tempat lain (misalnya lewat {@link StreamingListDecoder})
+     * supaya ikut dibatalkan. Hasilnya tetap dikirim lewat jalur pemanggil, bungkus executor-nya
+     * dengan {@link #wrap(Executor)} supaya ikut dibuang. Pemanggil melepasnya saat selesai lewat
+     * {@link #untrackOnFinish(Call)}, selain itu cancel() ikut menghitung call yang sudah selesai.
+     */
+    public <T> Call<T> track(Call<T> call){
+        synchronized (this){
+            if (!cancelled){
+                calls.add(call);
+                return call;
+            }
+        }
+        call.cancel();
+        cancelledCount.incrementAndGet();
+        totalCancelledCount.incrementAndGet();
+        return call;
+    }
+
+    // Hook selesai untuk call dari track(), misalnya onFinished di StreamingListDecoder.load.
+    public Runnable untrackOnFinish(final Call<?> call){
+        return new Runnable() {
+            @Override
+            public void run() {
+                synchronized (CallScope.this){
+                    calls.remove(call);
+                }
+            }
+        };
+    }
+
+    // Executor yang membuang tugas setelah scope dibatalkan, untuk listener yang tidak lewat Callback Retrofit.
+    public Executor wrap(final Executor executor){
+        return new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                if (drop()){
+                    return;
+                }
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!drop()){
+                            command.run();
+                        }
+                    }
+                });
+            }
+        };
+    }
+
+    // Dipanggil dari onDestroy. Hanya call yang masih berjalan yang dihitung sebagai dibatalkan.
+    public void cancel(){
+        List<Call<?>> running;
+        List<ScopedCallback<?>> pending;
+        synchronized (this){
+            if (cancelled){
+                return;
+            }
+            cancelled = true;
+            running = new ArrayList<>(calls);
+            pending = new ArrayList<>(callbacks);
+            calls.clear();
+            callbacks.clear();
+        }
+        for (Call<?> call : running){
+            if (!call.isCanceled()){
+                call.cancel();
+                cancelledCount.incrementAndGet();
+                totalCancelledCount.incrementAndGet();
+            }
+        }
+        for (ScopedCallback<?> callback : pending){
+            callback.release();
+        }
+    }
+
+    public boolean isCancelled(){
+        return cancelled;
+    }
+
+    public synchronized int getActiveCount(){
+        return calls.size();
+    }
+
+    public long getCancelledCount(){
+        return cancelledCount.get();
+    }
+
+    // Callback dan tugas yang datang setelah scope dibatalkan lalu dibuang.
+    public long getDroppedCallbackCount(){
+        return droppedCallbackCount.get();
+    }
+
+    public static long getTotalCancelledCount(){
+        return totalCancelledCount.get();
+    }
+
+    public static long getTotalDroppedCallbackCount(){
+        return totalDroppedCallbackCount.get();
+    }
+
+    private boolean drop(){
+        if (!cancelled){
+            return false;
+        }
+        droppedCallbackCount.incrementAndGet();
+        totalDroppedCallbackCount.incrementAndGet();
+        return true;
+    }
+
+    private synchronized void finish(ScopedCallback<?> callback){
+        calls.remove(callback.call);
+        callbacks.remove(callback);
+    }
+
+    private final class ScopedCallback<T> implements Callback<T> {
+
+        // Call yang didaftarkan, bisa berbeda dari call yang diterima callback jika dibungkus call adapter.
+        final Call<T> call;
+        private volatile Callback<T> delegate;
+
+        ScopedCallback(Call<T> call, Callback<T> delegate) {
+            this.call = call;
+            this.delegate = delegate;
+        }
+
+        // Melepas referensi ke callback asli (dan Activity yang dipegangnya).
+        void release(){
+            delegate = null;
+        }
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            finish(this);
+            Callback<T> callback = delegate;
+            if (drop() || callback == null){
+                return;
+            }
+            callback.onResponse(call, response);
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            finish(this);
+            Callback<T> callback = delegate;
+            if (drop() || callback == null){
+                return;
+            }
+            callback.onFailure(call, t);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Circuit breaker per endpoint (nama dari {@link TransferStats#endpointOf}). Setiap endpoint
+ * menyimpan hasil dan latensi request terakhir; jika error rate atau p95 latensi melewati batas,
+ * circuit terbuka dan request berikutnya tidak dikirim ke server: GET dijawab dari cache walaupun
+ * sudah basi, selain itu langsung gagal dengan {@link CircuitOpenException}. Setelah openMillis,
+ * beberapa request percobaan (half-open) dikirim; jika semuanya berhasil dan cukup cepat circuit
+ * tertutup lagi, jika tidak circuit terbuka lagi.
+ *
+ * Yang dihitung gagal hanya timeout, koneksi/DNS gagal dan status 5xx/408/429. Call yang dibatalkan
+ * aplikasi sendiri (hedge yang kalah, prefetch yang keluar layar, CallScope) tidak dihitung.
+ *
+ * Dipasang sebagai interceptor aplikasi setelah EndpointRegistry, jadi revalidasi background dari
+ * StaleWhileRevalidateInterceptor juga ikut tertahan.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public interface Listener {
+        void onStateChanged(String endpoint, State from, State to);
+    }
+
+    interface Clock {
+        long millis();
+    }
+
+    public static final int DEFAULT_WINDOW = 20;
+    public static final int DEFAULT_MIN_CALLS = 10;
+    public static final double DEFAULT_MAX_ERROR_RATE = 0.5;
+    public static final long DEFAULT_LATENCY_SLO_MILLIS = 3000;
+    public static final long DEFAULT_OPEN_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    public static final int DEFAULT_HALF_OPEN_CALLS = 2;
+
+    // Cache boleh basi berapa pun selama circuit terbuka, lebih baik daripada menunggu timeout.
+    private static final CacheControl CACHED_ONLY = new CacheControl.Builder()
+            .onlyIfCached()
+            .maxStale(Integer.MAX_VALUE, TimeUnit.SECONDS)
+            .build();
+
+    private final String basePath;
+    private final int window;
+    private final int minCalls;
+    private final double maxErrorRate;
+    private final long latencySloMillis;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Breaker> breakers = new ConcurrentHashMap<>();
+    private volatile Listener listener;
+
+    private final AtomicLong openedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong cachedCount = new AtomicLong();
+
+    public CircuitBreakerInterceptor(String basePath) {
+        this(basePath, DEFAULT_WINDOW, DEFAULT_MIN_CALLS, DEFAULT_MAX_ERROR_RATE, DEFAULT_LATENCY_SLO_MILLIS,
+                DEFAULT_OPEN_MILLIS, DEFAULT_HALF_OPEN_CALLS);
+    }
+
+    /**
+     * @param window           jumlah request terakhir per endpoint yang dihitung
+     * @param minCalls         jumlah request minimal sebelum circuit boleh terbuka
+     * @param maxErrorRate     error rate (0..1) yang membuka circuit
+     * @param latencySloMillis p95 latensi di atas ini juga membuka circuit
+     * @param openMillis       lama circuit terbuka sebelum percobaan half-open
+     * @param halfOpenCalls    jumlah request percobaan yang harus berhasil untuk menutup circuit
+     */
+    public CircuitBreakerInterceptor(String basePath, int window, int minCalls, double maxErrorRate,
+                                     long latencySloMillis, long openMillis, int halfOpenCalls) {
+        this(basePath, window, minCalls, maxErrorRate, latencySloMillis, openMillis, halfOpenCalls, new Clock() {
+            @Override
+            public long millis() {
+                return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+            }
+        });
+    }
+
+    CircuitBreakerInterceptor(String basePath, int window, int minCalls, double maxErrorRate,
+                              long latencySloMillis, long openMillis, int halfOpenCalls, Clock clock) {
+        if (window < 1 || minCalls < 1 || minCalls > window || maxErrorRate <= 0 || maxErrorRate > 1
+                || latencySloMillis < 1 || openMillis < 0 || halfOpenCalls < 1){
+            throw new IllegalArgumentException("Konfigurasi circuit breaker tidak valid");
+        }
+        this.basePath = basePath;
+        this.window = window;
+        this.minCalls = minCalls;
+        this.maxErrorRate = maxErrorRate;
+        this.latencySloMillis = latencySloMillis;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+    }
+
+    public void setListener(Listener listener){
+        this.listener = listener;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = TransferStats.endpointOf(request, basePath);
+        Breaker breaker = breakerFor(endpoint);
+
+        if (!breaker.tryAcquire()){
+            return rejected(chain, request, endpoint);
+        }
+        long start = clock.millis();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e){
+            if (isNetworkFailure(e)){
+                breaker.record(false, clock.millis() - start);
+            } else {
+                // Termasuk "Canceled"/"Socket closed" dari call yang dibatalkan aplikasi sendiri.
+                breaker.release();
+            }
+            throw e;
+        }
+        // Response dari cache tidak mengatakan apa-apa tentang kondisi server.
+        if (response.networkResponse() == null && response.cacheResponse() != null){
+            breaker.release();
+        } else {
+            breaker.record(!isServerError(response.code()), clock.millis() - start);
+        }
+        return response;
+    }
+
+    public State getState(String endpoint){
+        Breaker breaker = breakers.get(endpoint);
+        return breaker == null ? State.CLOSED : breaker.currentState();
+    }
+
+    // Berapa kali circuit endpoint ini berpindah state, untuk diagnosa.
+    public long getTransitionCount(String endpoint){
+        Breaker breaker = breakers.get(endpoint);
+        return breaker == null ? 0 : breaker.transitions.get();
+    }
+
+    public long getOpenedCount(){
+        return openedCount.get();
+    }
+
+    // Request yang langsung gagal karena circuit terbuka.
+    public long getRejectedCount(){
+        return rejectedCount.get();
+    }
+
+    // Request yang dijawab dari cache karena circuit terbuka.
+    public long getCachedCount(){
+        return cachedCount.get();
+    }
+
+    static boolean isServerError(int code){
+        return code >= 500 || code == 408 || code == 429;
+    }
+
+    // Hanya kegagalan yang menunjukkan server atau jalurnya bermasalah, bukan pembatalan.
+    static boolean isNetworkFailure(IOException e){
+        return e instanceof SocketTimeoutException || e instanceof ConnectException
+                || e instanceof NoRouteToHostException || e instanceof UnknownHostException;
+    }
+
+    private Response rejected(Chain chain, Request request, String endpoint) throws IOException {
+        if ("GET".equals(request.method())){
+            Response cached = chain.proceed(request.newBuilder().cacheControl(CACHED_ONLY).build());
+            // OkHttp membalas 504 jika only-if-cached tidak bisa dipenuhi.
+            if (cached.code() != 504){
+                cachedCount.incrementAndGet();
+                return cached;
+            }
+            cached.close();
+        }
+        rejectedCount.incrementAndGet();
+        throw new CircuitOpenException(endpoint);
+    }
+
+    private Breaker breakerFor(String endpoint){
+        Breaker breaker = breakers.get(endpoint);
+        if (breaker == null){
+            breaker = new Breaker(endpoint);
+            Breaker existing = breakers.putIfAbsent(endpoint, breaker);
+            if (existing != null){
+                breaker = existing;
+            }
+        }
+        return breaker;
+    }
+
+    private void notifyChanged(String endpoint, State from, State to){
+        Listener current = listener;
+        if (current != null){
+            current.onStateChanged(endpoint, from, to);
+        }
+    }
+
+    private final class Breaker {
+
+        final String endpoint;
+        final AtomicLong transitions = new AtomicLong();
+
+        // Semua field di bawah dijaga oleh lock this.
+        private final boolean[] failures = new boolean[window];
+        private final LatencyTracker latency = new LatencyTracker(window);
+        private int next;
+        private int count;
+        private int failureCount;
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int trialsStarted;
+        private int trialsSucceeded;
+
+        Breaker(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized State currentState(){
+            return state;
+        }
+
+        // false jika request tidak boleh dikirim ke server.
+        boolean tryAcquire(){
+            State from;
+            synchronized (this){
+                if (state == State.CLOSED){
+                    return true;
+                }
+                if (state == State.HALF_OPEN){
+                    if (trialsStarted >= halfOpenCalls){
+                        return false;
+                    }
+                    trialsStarted++;
+                    return true;
+                }
+                if (clock.millis() - openedAt < openMillis){
+                    return false;
+                }
+                from = state;
+                state = State.HALF_OPEN;
+                trialsStarted = 1;
+                trialsSucceeded = 0;
+            }
+            transitioned(from, State.HALF_OPEN);
+            return true;
+        }
+
+        // Percobaan half-open yang ternyata dijawab cache dikembalikan supaya request lain bisa mencoba.
+        synchronized void release(){
+            if (state == State.HALF_OPEN && trialsStarted > 0){
+                trialsStarted--;
+            }
+        }
+
+        void record(boolean success, long millis){
+            boolean slow = millis > latencySloMillis;
+            State from;
+            State to;
+            synchronized (this){
+                from = state;
+                if (state == State.HALF_OPEN){
+                    if (!success || slow){
+                        to = open();
+                    } else if (++trialsSucceeded >= halfOpenCalls){
+                        reset();
+                        to = State.CLOSED;
+                    } else {
+                        return;
+                    }
+                } else if (state == State.CLOSED){
+                    add(!success, millis);
+                    if (count < minCalls || (failureCount < maxErrorRate * count
+                            && latency.percentile(95) <= latencySloMillis)){
+                        return;
+                    }
+                    to = open();
+                } else {
+                    // Request yang sudah berjalan sebelum circuit terbuka.
+                    return;
+                }
+                state = to;
+            }
+            transitioned(from, to);
+        }
+
+        // Harus dipanggil dengan lock.
+        private State open(){
+            openedAt = clock.millis();
+            openedCount.incrementAndGet();
+            return State.OPEN;
+        }
+
+        // Harus dipanggil dengan lock. Jendela dikosongkan supaya kegagalan lama tidak langsung membuka lagi.
+        private void reset(){
+            next = 0;
+            count = 0;
+            failureCount = 0;
+            latency.clear();
+        }
+
+        // Harus dipanggil dengan lock.
+        private void add(boolean failure, long millis){
+            if (count == window){
+                if (failures[next]){
+                    failureCount--;
+                }
+            } else {
+                count++;
+            }
+            failures[next] = failure;
+            if (failure){
+                failureCount++;
+            }
+            next = (next + 1) % window;
+            latency.record(millis);
+        }
+
+        private void transitioned(State from, State to){
+            transitions.incrementAndGet();
+            notifyChanged(endpoint, from, to);
+        }
+    }
+}
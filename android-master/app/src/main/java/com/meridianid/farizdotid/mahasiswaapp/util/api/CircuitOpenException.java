@@ -0,0 +1,23 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+
+/**
+ * Dikirim ke callback kegagalan jika circuit breaker endpoint sedang terbuka dan tidak ada
+ * response di cache, jadi request tidak dikirim sama sekali.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+
+    public CircuitOpenException(String endpoint) {
+        super("Circuit terbuka untuk " + endpoint);
+        this.endpoint = endpoint;
+    }
+
+    public String endpoint(){
+        return endpoint;
+    }
+}
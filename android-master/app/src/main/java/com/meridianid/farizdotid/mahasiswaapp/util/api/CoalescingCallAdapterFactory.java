@@ -0,0 +1,216 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+/**
+ * Menggabungkan request GET yang identik dan sedang berjalan bersamaan (misalnya getSemuaDosen
+ * dari DosenActivity dan TambahMatkulActivity) menjadi satu panggilan jaringan. Semua pemanggil
+ * menerima objek response yang sama, jadi isinya jangan diubah. Endpoint @Streaming tidak digabung
+ * karena body-nya hanya bisa dibaca satu kali.
+ *
+ * Request dari jalur prioritas berbeda ({@link ApiHeaders#PRIORITY}) tidak digabung: klik pengguna tidak
+ * boleh menumpang prefetch yang bisa dibuang PriorityDispatcher.
+ */
+public class CoalescingCallAdapterFactory extends CallAdapter.Factory {
+
+    private final Map<String, InFlight<?>> inFlight = new HashMap<>();
+    private final AtomicLong networkCount = new AtomicLong();
+    private final AtomicLong coalescedCount = new AtomicLong();
+
+    @Override
+    public CallAdapter<?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class || !isCoalescable(annotations)){
+            return null;
+        }
+        final CallAdapter<?> delegate = retrofit.nextCallAdapter(this, returnType, annotations);
+        return new CallAdapter<Call<?>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <R> Call<?> adapt(Call<R> call) {
+                return new CoalescingCall<>((Call<R>) delegate.adapt(call));
+            }
+        };
+    }
+
+    public long getNetworkCount(){
+        return networkCount.get();
+    }
+
+    public long getCoalescedCount(){
+        return coalescedCount.get();
+    }
+
+    private static boolean isCoalescable(Annotation[] annotations){
+        boolean get = false;
+        for (Annotation annotation : annotations){
+            if (annotation instanceof Streaming){
+                return false;
+            }
+            if (annotation instanceof GET){
+                get = true;
+            }
+        }
+        return get;
+    }
+
+    private static String keyOf(Request request){
+        return request.method() + " " + request.url() + " "
+                + PriorityDispatcher.parseLane(request.header(ApiHeaders.PRIORITY));
+    }
+
+    private static final class InFlight<T> {
+        final Call<T> call;
+        // Setiap pemanggil menerima hasil lewat CoalescingCall-nya sendiri.
+        final List<CoalescingCall<T>> waiters = new ArrayList<>();
+
+        InFlight(Call<T> call) {
+            this.call = call;
+        }
+    }
+
+    private final class CoalescingCall<T> implements Call<T> {
+
+        private final Call<T> delegate;
+        private Callback<T> callback;
+        private boolean executed;
+        private volatile boolean canceled;
+
+        CoalescingCall(Call<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            synchronized (this){
+                if (executed) throw new IllegalStateException("Already executed.");
+                executed = true;
+            }
+            return delegate.execute();
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void enqueue(Callback<T> callback) {
+            synchronized (this){
+                if (executed) throw new IllegalStateException("Already executed.");
+                executed = true;
+                this.callback = callback;
+            }
+
+            final String key = keyOf(delegate.request());
+            final InFlight<T> flight;
+            synchronized (inFlight){
+                InFlight<T> existing = (InFlight<T>) inFlight.get(key);
+                if (existing != null){
+                    existing.waiters.add(this);
+                    coalescedCount.incrementAndGet();
+                    return;
+                }
+                flight = new InFlight<>(delegate);
+                flight.waiters.add(this);
+                inFlight.put(key, flight);
+            }
+
+            networkCount.incrementAndGet();
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    for (CoalescingCall<T> waiter : finish(key, flight)){
+                        waiter.callback.onResponse(waiter, response);
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    for (CoalescingCall<T> waiter : finish(key, flight)){
+                        waiter.callback.onFailure(waiter, t);
+                    }
+                }
+            });
+        }
+
+        private List<CoalescingCall<T>> finish(String key, InFlight<T> flight){
+            synchronized (inFlight){
+                if (inFlight.get(key) == flight){
+                    inFlight.remove(key);
+                }
+                List<CoalescingCall<T>> waiters = new ArrayList<>(flight.waiters);
+                flight.waiters.clear();
+                return waiters;
+            }
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        /**
+         * Hanya melepas pemanggil ini, yang langsung menerima onFailure seperti Call biasa yang dibatalkan.
+         * Request jaringan dibatalkan jika tidak ada yang menunggu lagi.
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        public void cancel() {
+            canceled = true;
+            Callback<T> mine;
+            synchronized (this){
+                mine = callback;
+            }
+            if (mine == null){
+                delegate.cancel();
+                return;
+            }
+
+            String key = keyOf(delegate.request());
+            synchronized (inFlight){
+                InFlight<T> flight = (InFlight<T>) inFlight.get(key);
+                if (flight == null || !flight.waiters.remove(this)){
+                    // Sudah selesai, hasilnya sedang dikirim lewat callback.
+                    return;
+                }
+                if (flight.waiters.isEmpty()){
+                    inFlight.remove(key);
+                    flight.call.cancel();
+                }
+            }
+            mine.onFailure(this, new IOException("Canceled"));
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegate.isCanceled();
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new CoalescingCall<>(delegate.clone());
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+    }
+}
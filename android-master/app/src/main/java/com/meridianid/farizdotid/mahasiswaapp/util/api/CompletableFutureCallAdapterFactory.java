@@ -0,0 +1,193 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Membolehkan method BaseApiService mengembalikan CompletableFuture, supaya beberapa request bisa
+ * dijalankan bersamaan lalu digabung (thenCombine, allOf) tanpa callback bersarang.
+ *
+ * CompletableFuture&lt;T&gt; berisi body dan gagal dengan {@link HttpException} untuk status selain 2xx,
+ * CompletableFuture&lt;Response&lt;T&gt;&gt; berisi response apa adanya. Future diselesaikan lewat
+ * callbackExecutor (main thread di aplikasi), jadi tahap lanjutan yang tidak async juga berjalan di
+ * sana. cancel() pada future membatalkan Call di bawahnya.
+ *
+ * Harus dipasang sebelum factory lain: call di bawahnya dibuat lewat factory berikutnya sebagai
+ * Call biasa, jadi {@link Retry} dan penggabungan request tetap berlaku.
+ */
+public class CompletableFutureCallAdapterFactory extends CallAdapter.Factory {
+
+    private volatile Executor callbackExecutor;
+
+    public CompletableFutureCallAdapterFactory() {
+        this(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+    }
+
+    public CompletableFutureCallAdapterFactory(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    // Diatur dari MahasiswaApp, karena main thread executor butuh Android.
+    public void setCallbackExecutor(Executor callbackExecutor){
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public CallAdapter<?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (getRawType(returnType) != CompletableFuture.class){
+            return null;
+        }
+        if (!(returnType instanceof ParameterizedType)){
+            throw new IllegalStateException("CompletableFuture harus diberi tipe, misalnya CompletableFuture<ResponseDosen>");
+        }
+        Type innerType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        final boolean wantsResponse = getRawType(innerType) == Response.class;
+        if (wantsResponse && !(innerType instanceof ParameterizedType)){
+            throw new IllegalStateException("Response harus diberi tipe, misalnya Response<ResponseDosen>");
+        }
+        Type bodyType = wantsResponse ? getParameterUpperBound(0, (ParameterizedType) innerType) : innerType;
+        final CallAdapter<?> delegate = retrofit.nextCallAdapter(this, new CallType(bodyType), annotations);
+        return new CallAdapter<CompletableFuture<?>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <R> CompletableFuture<?> adapt(Call<R> call) {
+                Call<R> adapted = (Call<R>) delegate.adapt(call);
+                if (wantsResponse){
+                    CallFuture<Response<R>> future = new CallFuture<>(adapted);
+                    enqueueForResponse(adapted, future);
+                    return future;
+                }
+                CallFuture<R> future = new CallFuture<>(adapted);
+                enqueueForBody(adapted, future);
+                return future;
+            }
+        };
+    }
+
+    private <R> void enqueueForResponse(Call<R> call, final CallFuture<Response<R>> future){
+        call.enqueue(new Callback<R>() {
+            @Override
+            public void onResponse(Call<R> call, Response<R> response) {
+                complete(future, response, null);
+            }
+
+            @Override
+            public void onFailure(Call<R> call, Throwable t) {
+                complete(future, null, t);
+            }
+        });
+    }
+
+    private <R> void enqueueForBody(Call<R> call, final CallFuture<R> future){
+        call.enqueue(new Callback<R>() {
+            @Override
+            public void onResponse(Call<R> call, Response<R> response) {
+                if (response.isSuccessful()){
+                    complete(future, response.body(), null);
+                } else {
+                    complete(future, null, new HttpException(response.code(), response.message()));
+                }
+            }
+
+            @Override
+            public void onFailure(Call<R> call, Throwable t) {
+                complete(future, null, t);
+            }
+        });
+    }
+
+    private <V> void complete(final CompletableFuture<V> future, final V value, final Throwable error){
+        // Future yang sudah dibatalkan tidak perlu dijadwalkan ke main thread.
+        if (future.isDone()){
+            return;
+        }
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (error != null){
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(value);
+                }
+            }
+        });
+    }
+
+    private static final class CallFuture<V> extends CompletableFuture<V> {
+
+        private final Call<?> call;
+
+        CallFuture(Call<?> call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            call.cancel();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    // Call<T> untuk meminta adapter berikutnya di Retrofit.
+    private static final class CallType implements ParameterizedType {
+
+        private final Type bodyType;
+
+        CallType(Type bodyType) {
+            this.bodyType = bodyType;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[]{bodyType};
+        }
+
+        @Override
+        public Type getRawType() {
+            return Call.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ParameterizedType
+                    && ((ParameterizedType) other).getRawType() == Call.class
+                    && ((ParameterizedType) other).getOwnerType() == null
+                    && Arrays.equals(getActualTypeArguments(), ((ParameterizedType) other).getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            return bodyType.hashCode() ^ Call.class.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "retrofit2.Call<" + bodyType + ">";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.brotli.dec.BrotliInputStream;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Menawarkan "br, gzip" ke server dan mendekompresi sendiri response-nya (gzip transparan bawaan
+ * OkHttp otomatis mati karena Accept-Encoding sudah diisi). Body request dari endpoint yang memakai
+ * header {@link ApiHeaders#GZIP_REQUEST} dikompresi gzip jika ukurannya melewati batas.
+ */
+public class CompressionInterceptor implements Interceptor {
+
+    public static final long DEFAULT_MIN_GZIP_REQUEST_BYTES = 1024;
+
+    private final TransferStats stats;
+    private final String basePath;
+    private final long minGzipRequestBytes;
+
+    public CompressionInterceptor(TransferStats stats, String basePath) {
+        this(stats, basePath, DEFAULT_MIN_GZIP_REQUEST_BYTES);
+    }
+
+    public CompressionInterceptor(TransferStats stats, String basePath, long minGzipRequestBytes) {
+        this.stats = stats;
+        this.basePath = basePath;
+        this.minGzipRequestBytes = minGzipRequestBytes;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        final String endpoint = TransferStats.endpointOf(request, basePath);
+
+        Request.Builder builder = request.newBuilder();
+        if (request.header("Accept-Encoding") == null){
+            builder.header("Accept-Encoding", "br, gzip");
+        }
+        if (request.header(ApiHeaders.GZIP_REQUEST) != null){
+            builder.removeHeader(ApiHeaders.GZIP_REQUEST);
+            RequestBody body = request.body();
+            if (body != null && request.header("Content-Encoding") == null
+                    && body.contentLength() >= minGzipRequestBytes){
+                builder.header("Content-Encoding", "gzip")
+                        .method(request.method(), gzip(body));
+            }
+        }
+
+        Response response = chain.proceed(builder.build());
+        ResponseBody body = response.body();
+        if (body == null || !hasBody(request, response)){
+            return response;
+        }
+
+        String encoding = response.header("Content-Encoding");
+        Source decoded;
+        if ("gzip".equalsIgnoreCase(encoding)){
+            decoded = new GzipSource(body.source());
+        } else if ("br".equalsIgnoreCase(encoding)){
+            decoded = Okio.source(new BrotliInputStream(body.byteStream()));
+        } else if (encoding == null || "identity".equalsIgnoreCase(encoding)){
+            decoded = body.source();
+        } else {
+            return response;
+        }
+
+        CountingSource counting = new CountingSource(decoded) {
+            @Override
+            protected void onComplete(long bytes) {
+                stats.recordDecoded(endpoint, bytes);
+            }
+        };
+        Response.Builder decodedResponse = response.newBuilder();
+        long contentLength = body.contentLength();
+        if (encoding != null){
+            decodedResponse.removeHeader("Content-Encoding").removeHeader("Content-Length");
+            contentLength = -1L;
+        }
+        return decodedResponse
+                .body(ResponseBody.create(body.contentType(), contentLength, Okio.buffer(counting)))
+                .build();
+    }
+
+    private static boolean hasBody(Request request, Response response){
+        int code = response.code();
+        return !"HEAD".equals(request.method()) && code != 204 && code != 304
+                && (code >= 200 || code < 100);
+    }
+
+    private static RequestBody gzip(final RequestBody body){
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
+                body.writeTo(gzipSink);
+                gzipSink.close();
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Connection;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Meresolve host dan membuka satu koneksi ke base url di background (saat proses mulai atau
+ * LoginActivity tampil), supaya request pertama dari layar berikutnya tinggal memakai koneksi
+ * yang sudah ada di pool.
+ *
+ * Dipasang sebagai network interceptor untuk mencatat koneksi hasil warmup dan memeriksa apakah
+ * request nyata pertama memakainya. Jika ya, waktu DNS + connect dari warmup dihitung sebagai hemat.
+ */
+public class ConnectionWarmer implements Interceptor {
+
+    public interface Listener {
+        void onFirstRequest(boolean reused, long savedMillis);
+    }
+
+    private static final Object WARMUP_TAG = new Object();
+
+    private final HttpUrl baseUrl;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile OkHttpClient client;
+    private volatile Listener listener;
+
+    private volatile long startNanos;
+    private volatile long dnsMillis = -1;
+    private volatile long connectMillis = -1;
+    private volatile Connection warmConnection;
+    private volatile boolean awaitingFirstRequest;
+    private volatile boolean firstRequestReused;
+    private volatile long savedMillis = -1;
+
+    public ConnectionWarmer(HttpUrl baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public void setClient(OkHttpClient client){
+        this.client = client;
+    }
+
+    public void setListener(Listener listener){
+        this.listener = listener;
+    }
+
+    /**
+     * Mulai warmup di thread background. Tidak melakukan apa-apa jika warmup masih berjalan atau
+     * pool sudah punya koneksi idle.
+     */
+    public void warmUp(){
+        final OkHttpClient client = this.client;
+        if (client == null || client.connectionPool().idleConnectionCount() > 0
+                || !running.compareAndSet(false, true)){
+            return;
+        }
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    startNanos = System.nanoTime();
+                    client.dns().lookup(baseUrl.host());
+                    dnsMillis = elapsedMillis(startNanos);
+
+                    // HEAD tidak punya body, jadi koneksi langsung kembali ke pool setelah close.
+                    Request request = new Request.Builder()
+                            .url(baseUrl)
+                            .head()
+                            .tag(WARMUP_TAG)
+                            .build();
+                    client.newCall(request).execute().close();
+                } catch (IOException e){
+                    // Warmup hanya optimasi, request nyata tetap bisa membuka koneksi sendiri.
+                } finally {
+                    running.set(false);
+                }
+            }
+        }, "connection-warmer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.tag() == WARMUP_TAG){
+            // Network interceptor baru dipanggil setelah koneksi terbentuk.
+            connectMillis = elapsedMillis(startNanos) - dnsMillis;
+            warmConnection = chain.connection();
+            awaitingFirstRequest = true;
+        } else if (awaitingFirstRequest){
+            reportFirstRequest(chain.connection());
+        }
+        return chain.proceed(request);
+    }
+
+    private synchronized void reportFirstRequest(Connection connection){
+        if (!awaitingFirstRequest){
+            return;
+        }
+        awaitingFirstRequest = false;
+        firstRequestReused = connection != null && connection == warmConnection;
+        savedMillis = firstRequestReused ? dnsMillis + connectMillis : 0;
+        warmConnection = null;
+
+        Listener listener = this.listener;
+        if (listener != null){
+            listener.onFirstRequest(firstRequestReused, savedMillis);
+        }
+    }
+
+    public long getDnsMillis(){
+        return dnsMillis;
+    }
+
+    public long getConnectMillis(){
+        return connectMillis;
+    }
+
+    public boolean isFirstRequestReused(){
+        return firstRequestReused;
+    }
+
+    /** Perkiraan latensi request pertama yang dihemat, -1 jika belum ada request setelah warmup. */
+    public long getSavedMillis(){
+        return savedMillis;
+    }
+
+    private static long elapsedMillis(long startNanos){
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
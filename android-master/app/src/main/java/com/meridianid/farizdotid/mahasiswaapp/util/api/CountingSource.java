@@ -0,0 +1,53 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Source;
+
+/**
+ * Source yang melaporkan jumlah byte yang sudah dibaca saat selesai atau ditutup.
+ * {@link #isExhausted()} membedakan body yang dibaca habis dari yang ditinggalkan di tengah jalan.
+ */
+abstract class CountingSource extends ForwardingSource {
+
+    private long count;
+    private boolean reported;
+    private boolean exhausted;
+
+    CountingSource(Source delegate) {
+        super(delegate);
+    }
+
+    protected abstract void onComplete(long bytes);
+
+    @Override
+    public long read(Buffer sink, long byteCount) throws IOException {
+        long read = super.read(sink, byteCount);
+        if (read == -1){
+            exhausted = true;
+            report();
+        } else {
+            count += read;
+        }
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        report();
+        super.close();
+    }
+
+    protected boolean isExhausted(){
+        return exhausted;
+    }
+
+    private void report(){
+        if (!reported){
+            reported = true;
+            onComplete(count);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Memuat list per halaman dengan cursor/limit dan menjaga paling banyak maxPages halaman di memori.
+ * Halaman paling jauh dari posisi scroll dibuang, cursor-nya disimpan supaya bisa dimuat lagi.
+ * Semua method dipanggil dari main thread, sama seperti callback Retrofit.
+ *
+ * @param <R> tipe response dari endpoint, misalnya ResponseMatkul
+ * @param <T> tipe item di dalam response
+ */
+public abstract class CursorPager<R, T> {
+
+    public interface Listener {
+        void onItemsInserted(int position, int count);
+
+        void onItemsRemoved(int position, int count);
+
+        void onPageError(boolean empty, String message);
+
+        void onFailure(Throwable t, boolean httpError);
+    }
+
+    private static final class Page {
+        final String cursor;
+        int size;
+
+        Page(String cursor, int size) {
+            this.cursor = cursor;
+            this.size = size;
+        }
+    }
+
+    private final List<T> items;
+    private final int pageSize;
+    private final int maxPages;
+    private final Listener listener;
+
+    private final Deque<Page> pages = new ArrayDeque<>();
+    // Cursor halaman di atas jendela yang sudah dibuang, yang terdekat ada di akhir.
+    // LinkedList karena cursor halaman pertama adalah null.
+    private final Deque<String> droppedBefore = new LinkedList<>();
+    private String nextCursor;
+    private boolean endReached;
+    private Call<R> pending;
+
+    private int loadedPageCount;
+    private long lastLatencyMillis;
+    private long totalLatencyMillis;
+
+    protected CursorPager(List<T> items, int pageSize, int maxPages, Listener listener) {
+        if (pageSize < 1 || maxPages < 2){
+            throw new IllegalArgumentException("pageSize minimal 1 dan maxPages minimal 2");
+        }
+        this.items = items;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.listener = listener;
+    }
+
+    protected abstract Call<R> createCall(String cursor, int limit);
+
+    protected abstract boolean isError(R response);
+
+    protected abstract String messageOf(R response);
+
+    protected abstract List<T> itemsOf(R response);
+
+    protected abstract String nextCursorOf(R response);
+
+    // Halaman pertama, cursor null.
+    public void loadFirst(){
+        loadAfter(null);
+    }
+
+    public void loadNext(){
+        if (pending != null || endReached || pages.isEmpty()){
+            return;
+        }
+        loadAfter(nextCursor);
+    }
+
+    public void loadPrevious(){
+        if (pending != null || droppedBefore.isEmpty()){
+            return;
+        }
+        final String cursor = droppedBefore.peekLast();
+        load(cursor, new PageHandler() {
+            @Override
+            public void onPage(R body, List<T> pageItems) {
+                droppedBefore.pollLast();
+                items.addAll(0, pageItems);
+                pages.addFirst(new Page(cursor, pageItems.size()));
+                listener.onItemsInserted(0, pageItems.size());
+
+                if (pages.size() > maxPages){
+                    Page last = pages.pollLast();
+                    int start = items.size() - last.size;
+                    items.subList(start, items.size()).clear();
+                    nextCursor = last.cursor;
+                    endReached = false;
+                    listener.onItemsRemoved(start, last.size);
+                }
+            }
+        });
+    }
+
+    public boolean hasPrevious(){
+        return !droppedBefore.isEmpty();
+    }
+
+    /**
+     * Dipanggil setelah item di posisi ini dihapus dari list di luar pager (misalnya oleh
+     * DeltaMerger), supaya ukuran halaman tetap cocok dengan isi list.
+     */
+    public void onItemRemoved(int position){
+        int start = 0;
+        for (Page page : pages){
+            if (position < start + page.size){
+                page.size--;
+                return;
+            }
+            start += page.size;
+        }
+    }
+
+    // Item disisipkan di posisi ini dari luar pager, dihitung sebagai bagian dari halaman di posisi itu.
+    public void onItemInserted(int position){
+        int start = 0;
+        for (Page page : pages){
+            if (position <= start + page.size){
+                page.size++;
+                return;
+            }
+            start += page.size;
+        }
+    }
+
+    // Item baru ditambahkan di akhir list, dihitung sebagai bagian dari halaman terakhir.
+    public void onItemsAppended(int count){
+        Page last = pages.peekLast();
+        if (last != null){
+            last.size += count;
+        }
+    }
+
+    // Membuang semua halaman dan item, setelah ini panggil loadFirst lagi.
+    public void reset(){
+        cancel();
+        int size = items.size();
+        items.clear();
+        pages.clear();
+        droppedBefore.clear();
+        nextCursor = null;
+        endReached = false;
+        if (size > 0){
+            listener.onItemsRemoved(0, size);
+        }
+    }
+
+    public boolean isLoading(){
+        return pending != null;
+    }
+
+    public boolean isEndReached(){
+        return endReached;
+    }
+
+    public void cancel(){
+        if (pending != null){
+            pending.cancel();
+            pending = null;
+        }
+    }
+
+    public int getLoadedPageCount(){
+        return loadedPageCount;
+    }
+
+    public long getLastPageLatencyMillis(){
+        return lastLatencyMillis;
+    }
+
+    public long getAveragePageLatencyMillis(){
+        return loadedPageCount == 0 ? 0 : totalLatencyMillis / loadedPageCount;
+    }
+
+    private void loadAfter(final String cursor){
+        load(cursor, new PageHandler() {
+            @Override
+            public void onPage(R body, List<T> pageItems) {
+                String next = nextCursorOf(body);
+                endReached = next == null || next.isEmpty() || pageItems.isEmpty();
+                nextCursor = next;
+
+                int start = items.size();
+                items.addAll(pageItems);
+                pages.addLast(new Page(cursor, pageItems.size()));
+                listener.onItemsInserted(start, pageItems.size());
+
+                if (pages.size() > maxPages){
+                    Page first = pages.pollFirst();
+                    items.subList(0, first.size).clear();
+                    droppedBefore.addLast(first.cursor);
+                    listener.onItemsRemoved(0, first.size);
+                }
+            }
+        });
+    }
+
+    private abstract class PageHandler {
+        abstract void onPage(R body, List<T> pageItems);
+    }
+
+    private void load(String cursor, final PageHandler handler){
+        final long startedAt = System.currentTimeMillis();
+        final Call<R> call = createCall(cursor, pageSize);
+        pending = call;
+        call.enqueue(new Callback<R>() {
+            @Override
+            public void onResponse(Call<R> c, Response<R> response) {
+                if (pending != call){
+                    return;
+                }
+                pending = null;
+                recordLatency(startedAt);
+
+                if (!response.isSuccessful()){
+                    listener.onFailure(new HttpException(response.code(), response.message()), true);
+                    return;
+                }
+                R body = response.body();
+                if (isError(body)){
+                    endReached = true;
+                    listener.onPageError(items.isEmpty(), messageOf(body));
+                    return;
+                }
+                List<T> pageItems = itemsOf(body);
+                handler.onPage(body, pageItems == null ? new ArrayList<T>() : pageItems);
+            }
+
+            @Override
+            public void onFailure(Call<R> c, Throwable t) {
+                if (pending != call){
+                    return;
+                }
+                pending = null;
+                listener.onFailure(t, false);
+            }
+        });
+    }
+
+    private void recordLatency(long startedAt){
+        lastLatencyMillis = System.currentTimeMillis() - startedAt;
+        totalLatencyMillis += lastLatencyMillis;
+        loadedPageCount++;
+    }
+}
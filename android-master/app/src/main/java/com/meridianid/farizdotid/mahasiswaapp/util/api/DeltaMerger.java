@@ -0,0 +1,85 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Menerapkan perubahan dari endpoint delta (insert/update dan tombstone) ke list yang sedang
+ * ditampilkan, tanpa memuat ulang seluruh katalog. Setiap perubahan dilaporkan per posisi supaya
+ * adapter bisa memakai notifyItemChanged/Removed/Inserted.
+ *
+ * @param <T> tipe item, id-nya diambil lewat {@link #idOf(Object)}
+ */
+public abstract class DeltaMerger<T> {
+
+    public interface Listener {
+        void onItemChanged(int position);
+
+        void onItemRemoved(int position);
+
+        void onItemsInserted(int position, int count);
+    }
+
+    protected abstract String idOf(T item);
+
+    /**
+     * @param appendInserts item baru ditambahkan di akhir list hanya jika list sudah memuat halaman
+     *                      terakhir, selain itu item baru akan ikut termuat saat paging
+     * @return jumlah perubahan yang diterapkan
+     */
+    public int apply(List<T> items, List<T> upserts, List<String> deletedIds,
+                     boolean appendInserts, Listener listener){
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < items.size(); i++){
+            positions.put(idOf(items.get(i)), i);
+        }
+
+        Set<String> deleted = deletedIds == null ? Collections.<String>emptySet() : new HashSet<>(deletedIds);
+        int changes = 0;
+        List<T> inserts = new ArrayList<>();
+        if (upserts != null){
+            for (T item : upserts){
+                String id = idOf(item);
+                if (deleted.contains(id)){
+                    continue;
+                }
+                Integer position = positions.get(id);
+                if (position != null){
+                    items.set(position, item);
+                    listener.onItemChanged(position);
+                    changes++;
+                } else {
+                    inserts.add(item);
+                }
+            }
+        }
+
+        // Hapus dari posisi terbesar supaya posisi yang lain tidak bergeser.
+        List<Integer> removed = new ArrayList<>();
+        for (String id : deleted){
+            Integer position = positions.get(id);
+            if (position != null){
+                removed.add(position);
+            }
+        }
+        Collections.sort(removed, Collections.<Integer>reverseOrder());
+        for (int position : removed){
+            items.remove(position);
+            listener.onItemRemoved(position);
+            changes++;
+        }
+
+        if (appendInserts && !inserts.isEmpty()){
+            int start = items.size();
+            items.addAll(inserts);
+            listener.onItemsInserted(start, inserts.size());
+            changes += inserts.size();
+        }
+        return changes;
+    }
+}
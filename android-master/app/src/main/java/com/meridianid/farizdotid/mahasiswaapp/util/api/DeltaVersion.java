@@ -0,0 +1,57 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+/**
+ * Version katalog yang dipakai sebagai parameter since untuk endpoint delta (lihat {@link DeltaMerger}).
+ * Server yang belum mendukung delta tidak mengirim version (terbaca 0), jadi version <= 0 berarti
+ * delta tidak didukung dan list harus dimuat ulang dari halaman pertama.
+ */
+public class DeltaVersion {
+
+    public enum Action {
+        // Halaman pertama belum dimuat, belum ada yang perlu disinkronkan.
+        NONE,
+        DELTA,
+        RELOAD
+    }
+
+    private static final long UNKNOWN = -1;
+    private static final long UNSUPPORTED = 0;
+
+    private long version = UNKNOWN;
+
+    // Dari halaman pertama. Halaman berikutnya tidak mengubah version yang sudah ada.
+    public void onFirstPage(long serverVersion){
+        if (version == UNKNOWN){
+            version = serverVersion > 0 ? serverVersion : UNSUPPORTED;
+        }
+    }
+
+    public Action next(){
+        if (version == UNKNOWN){
+            return Action.NONE;
+        }
+        return version == UNSUPPORTED ? Action.RELOAD : Action.DELTA;
+    }
+
+    // Parameter since untuk request delta, hanya berarti jika next() DELTA.
+    public long get(){
+        return version;
+    }
+
+    /**
+     * @return true jika list harus dimuat ulang: server meminta full resync, atau tidak mengirim version
+     */
+    public boolean onDelta(long serverVersion, boolean fullResync){
+        if (fullResync || serverVersion <= 0){
+            reset();
+            return true;
+        }
+        version = serverVersion;
+        return false;
+    }
+
+    // Sebelum memuat ulang, version diambil lagi dari halaman pertama yang baru.
+    public void reset(){
+        version = UNKNOWN;
+    }
+}
@@ -0,0 +1,39 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosenDetail;
+
+import retrofit2.Call;
+
+/**
+ * Prefetch getDetailDosen untuk dosen yang sedang terlihat di DosenActivity, key-nya nama dosen.
+ */
+public class DosenDetailPrefetcher extends ViewportPrefetcher<ResponseDosenDetail> {
+
+    private final BaseApiService apiService;
+
+    public DosenDetailPrefetcher(BaseApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    public DosenDetailPrefetcher(BaseApiService apiService, int lookahead, int maxInFlight, int maxQueued,
+                                 int cacheSize) {
+        super(lookahead, maxInFlight, maxQueued, cacheSize);
+        this.apiService = apiService;
+    }
+
+    // Prefetch lewat jalur prefetch supaya tidak menghalangi request lain, klik tetap lewat jalur biasa.
+    @Override
+    protected Call<ResponseDosenDetail> createCall(String namaDosen) {
+        return apiService.prefetchDetailDosen(namaDosen);
+    }
+
+    @Override
+    protected Call<ResponseDosenDetail> createLoadCall(String namaDosen) {
+        return apiService.getDetailDosen(namaDosen);
+    }
+
+    @Override
+    protected boolean isCacheable(ResponseDosenDetail detail) {
+        return detail != null && !detail.isError();
+    }
+}
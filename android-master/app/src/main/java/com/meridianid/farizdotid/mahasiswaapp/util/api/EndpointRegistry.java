@@ -0,0 +1,180 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Daftar backend (lokal, staging, produksi, mirror kampus) untuk satu base url Retrofit. Retrofit tetap
+ * dibuat dengan base url default; interceptor ini menulis ulang scheme, host, port dan awalan path
+ * setiap request ke backend yang sedang aktif, jadi pindah backend tidak perlu membangun ulang
+ * Retrofit dan semua backend memakai connection pool yang sama.
+ *
+ * Dipasang sebagai interceptor aplikasi pertama supaya cache, log dan statistik melihat url tujuan.
+ * Nama endpoint di TransferStats hanya sama antar backend jika path dasarnya sama.
+ */
+public class EndpointRegistry implements Interceptor {
+
+    public static final String DEFAULT_NAME = "default";
+
+    // Request probe dari selectNearest harus ke backend yang diukur, bukan ke backend aktif.
+    private static final Object PROBE_TAG = new Object();
+
+    private final HttpUrl defaultBaseUrl;
+    private final Map<String, HttpUrl> endpoints = new LinkedHashMap<>();
+    private final Map<String, Long> probeMillis = new ConcurrentHashMap<>();
+    private volatile String activeName = DEFAULT_NAME;
+    private volatile HttpUrl activeBaseUrl;
+
+    private final AtomicLong rewriteCount = new AtomicLong();
+
+    public EndpointRegistry(HttpUrl defaultBaseUrl) {
+        this.defaultBaseUrl = checkBaseUrl(defaultBaseUrl);
+        this.activeBaseUrl = defaultBaseUrl;
+        endpoints.put(DEFAULT_NAME, defaultBaseUrl);
+    }
+
+    public synchronized void register(String name, String baseUrl){
+        endpoints.put(name, checkBaseUrl(HttpUrl.parse(baseUrl)));
+    }
+
+    /**
+     * Mendaftarkan beberapa backend dari satu string "nama=url;nama=url", misalnya dari BuildConfig.
+     * Bagian yang kosong diabaikan.
+     */
+    public synchronized void registerAll(String spec){
+        if (spec == null){
+            return;
+        }
+        for (String part : spec.split(";")){
+            String entry = part.trim();
+            if (entry.isEmpty()){
+                continue;
+            }
+            int equals = entry.indexOf('=');
+            if (equals <= 0){
+                throw new IllegalArgumentException("Format mirror harus nama=url: " + entry);
+            }
+            register(entry.substring(0, equals).trim(), entry.substring(equals + 1).trim());
+        }
+    }
+
+    // Berlaku untuk request berikutnya, request yang sedang berjalan tetap ke backend lama.
+    public synchronized void select(String name){
+        HttpUrl baseUrl = endpoints.get(name);
+        if (baseUrl == null){
+            throw new IllegalArgumentException("Backend tidak terdaftar: " + name);
+        }
+        activeName = name;
+        activeBaseUrl = baseUrl;
+    }
+
+    public String getActiveName(){
+        return activeName;
+    }
+
+    public HttpUrl getActiveBaseUrl(){
+        return activeBaseUrl;
+    }
+
+    public synchronized List<String> getNames(){
+        return new ArrayList<>(endpoints.keySet());
+    }
+
+    /**
+     * Mengirim HEAD ke setiap backend lalu memilih yang paling cepat menjawab. Memblokir, jadi
+     * panggil dari thread background. Backend yang gagal dilewati; jika semua gagal, pilihan tidak berubah.
+     *
+     * @return nama backend yang aktif setelah probe
+     */
+    public String selectNearest(Call.Factory callFactory){
+        Map<String, HttpUrl> candidates;
+        synchronized (this){
+            candidates = new LinkedHashMap<>(endpoints);
+        }
+        String nearest = null;
+        long best = Long.MAX_VALUE;
+        for (Map.Entry<String, HttpUrl> entry : candidates.entrySet()){
+            long startNanos = System.nanoTime();
+            try {
+                callFactory.newCall(new Request.Builder()
+                        .url(entry.getValue())
+                        .head()
+                        .tag(PROBE_TAG)
+                        .build()).execute().close();
+            } catch (IOException e){
+                probeMillis.remove(entry.getKey());
+                continue;
+            }
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            probeMillis.put(entry.getKey(), millis);
+            if (millis < best){
+                best = millis;
+                nearest = entry.getKey();
+            }
+        }
+        if (nearest != null){
+            select(nearest);
+        }
+        return activeName;
+    }
+
+    // Waktu HEAD dari selectNearest terakhir, -1 jika belum pernah atau gagal.
+    public long getProbeMillis(String name){
+        Long millis = probeMillis.get(name);
+        return millis == null ? -1 : millis;
+    }
+
+    public long getRewriteCount(){
+        return rewriteCount.get();
+    }
+
+    // Url di bawah base url default dipindah ke backend aktif, url lain (misalnya sudah absolut) dibiarkan.
+    public HttpUrl rewrite(HttpUrl url){
+        HttpUrl active = activeBaseUrl;
+        if (active == defaultBaseUrl || !url.scheme().equals(defaultBaseUrl.scheme())
+                || !url.host().equals(defaultBaseUrl.host()) || url.port() != defaultBaseUrl.port()
+                || !url.encodedPath().startsWith(defaultBaseUrl.encodedPath())){
+            return url;
+        }
+        String relativePath = url.encodedPath().substring(defaultBaseUrl.encodedPath().length());
+        return url.newBuilder()
+                .scheme(active.scheme())
+                .host(active.host())
+                .port(active.port())
+                .encodedPath(active.encodedPath() + relativePath)
+                .build();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.tag() == PROBE_TAG){
+            return chain.proceed(request);
+        }
+        HttpUrl url = rewrite(request.url());
+        if (url == request.url()){
+            return chain.proceed(request);
+        }
+        rewriteCount.incrementAndGet();
+        return chain.proceed(request.newBuilder().url(url).build());
+    }
+
+    private static HttpUrl checkBaseUrl(HttpUrl baseUrl){
+        if (baseUrl == null || !baseUrl.encodedPath().endsWith("/")){
+            throw new IllegalArgumentException("Base url harus valid dan diakhiri '/': " + baseUrl);
+        }
+        return baseUrl;
+    }
+}
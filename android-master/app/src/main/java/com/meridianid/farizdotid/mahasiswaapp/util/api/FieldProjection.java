@@ -0,0 +1,59 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Kolom yang diminta sebuah layar dari endpoint list, dikirim sebagai query fields=nama,matkul.
+ * Field item yang tidak diminta bernilai null, jadi layar hanya boleh membaca field di projection-nya.
+ * Parameter null berarti semua field (server lama yang tidak mengenal fields juga mengirim semuanya).
+ *
+ * Setiap projection punya URL sendiri, jadi cache dan penggabungan request hanya berlaku antar
+ * layar dengan projection yang sama.
+ */
+public final class FieldProjection {
+
+    // DosenAdapter hanya menampilkan nama dan matkul, detail dosen dicari dari nama.
+    public static final FieldProjection DOSEN_LIST = new FieldProjection("DosenActivity", "nama", "matkul");
+    // Spinner di TambahMatkulActivity hanya butuh nama.
+    public static final FieldProjection DOSEN_NAMA = new FieldProjection("TambahMatkulActivity", "nama");
+
+    private final String screen;
+    private final List<String> fields;
+    private final String query;
+
+    public FieldProjection(String screen, String... fields) {
+        if (fields.length == 0){
+            throw new IllegalArgumentException("Projection minimal satu field");
+        }
+        this.screen = screen;
+        this.fields = Collections.unmodifiableList(Arrays.asList(fields));
+        StringBuilder query = new StringBuilder();
+        for (String field : fields){
+            if (query.length() > 0){
+                query.append(',');
+            }
+            query.append(field);
+        }
+        this.query = query.toString();
+    }
+
+    public String getScreen(){
+        return screen;
+    }
+
+    public List<String> getFields(){
+        return fields;
+    }
+
+    public boolean includes(String field){
+        return fields.contains(field);
+    }
+
+    // Nilai query fields, dipakai Retrofit untuk @Query.
+    @Override
+    public String toString(){
+        return query;
+    }
+}
@@ -0,0 +1,23 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+
+/**
+ * Dikirim ke callback kegagalan jika server membalas dengan status selain 2xx,
+ * supaya layar bisa membedakannya dari masalah koneksi.
+ */
+public class HttpException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int code;
+
+    public HttpException(int code, String message) {
+        super("HTTP " + code + " " + message);
+        this.code = code;
+    }
+
+    public int code(){
+        return code;
+    }
+}
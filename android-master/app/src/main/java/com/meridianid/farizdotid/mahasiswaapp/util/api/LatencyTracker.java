@@ -0,0 +1,51 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.Arrays;
+
+/**
+ * Menyimpan sejumlah sampel latensi terakhir sebuah endpoint untuk menghitung persentil.
+ */
+public class LatencyTracker {
+
+    public static final int DEFAULT_WINDOW = 100;
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker() {
+        this(DEFAULT_WINDOW);
+    }
+
+    public LatencyTracker(int window) {
+        samples = new long[window];
+    }
+
+    public synchronized void record(long millis){
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        if (count < samples.length){
+            count++;
+        }
+    }
+
+    public synchronized void clear(){
+        next = 0;
+        count = 0;
+    }
+
+    public synchronized int getSampleCount(){
+        return count;
+    }
+
+    // Mengembalikan -1 jika belum ada sampel.
+    public synchronized long percentile(double percentile){
+        if (count == 0){
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
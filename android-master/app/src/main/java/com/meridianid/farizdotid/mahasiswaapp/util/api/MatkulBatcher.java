@@ -0,0 +1,81 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutation;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
+import com.meridianid.farizdotid.mahasiswaapp.model.RequestBulkMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseBulkMatkul;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+
+/**
+ * Tambah dan hapus matkul lewat endpoint bulk matkul/batch. Setiap mutasi diberi client_id
+ * supaya hasilnya bisa dikembalikan ke pemanggil yang benar.
+ */
+public class MatkulBatcher extends MutationBatcher<MatkulMutation, MatkulMutationResult, ResponseBulkMatkul> {
+
+    private final BaseApiService apiService;
+    private final AtomicLong nextClientId = new AtomicLong();
+
+    public MatkulBatcher(BaseApiService apiService) {
+        this(apiService, DEFAULT_WINDOW_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public MatkulBatcher(BaseApiService apiService, long windowMillis, int maxBatchSize) {
+        super(windowMillis, maxBatchSize);
+        this.apiService = apiService;
+    }
+
+    MatkulBatcher(BaseApiService apiService, ScheduledExecutorService scheduler,
+                  long windowMillis, int maxBatchSize) {
+        super(scheduler, windowMillis, maxBatchSize);
+        this.apiService = apiService;
+    }
+
+    public MatkulMutation simpan(String namaDosen, String matkul, Callback<MatkulMutationResult> callback){
+        MatkulMutation mutation = newMutation(MatkulMutation.OP_ADD);
+        mutation.setNamaDosen(namaDosen);
+        mutation.setMatkul(matkul);
+        add(mutation, callback);
+        return mutation;
+    }
+
+    public MatkulMutation hapus(String idMatkul, Callback<MatkulMutationResult> callback){
+        MatkulMutation mutation = newMutation(MatkulMutation.OP_DELETE);
+        mutation.setId(idMatkul);
+        add(mutation, callback);
+        return mutation;
+    }
+
+    @Override
+    protected Call<ResponseBulkMatkul> createCall(List<MatkulMutation> mutations) {
+        RequestBulkMatkul request = new RequestBulkMatkul();
+        request.setOperations(mutations);
+        return apiService.bulkMatkul(request);
+    }
+
+    @Override
+    protected String keyOf(MatkulMutation mutation) {
+        return mutation.getClientId();
+    }
+
+    @Override
+    protected List<MatkulMutationResult> resultsOf(ResponseBulkMatkul body) {
+        return body.getResults();
+    }
+
+    @Override
+    protected String keyOfResult(MatkulMutationResult result) {
+        return result.getClientId();
+    }
+
+    private MatkulMutation newMutation(String op){
+        MatkulMutation mutation = new MatkulMutation();
+        mutation.setOp(op);
+        mutation.setClientId(String.valueOf(nextClientId.incrementAndGet()));
+        return mutation;
+    }
+}
@@ -0,0 +1,555 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutation;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Antrian tambah/hapus matkul yang disimpan di file (append-only) sebelum dikirim, supaya tidak
+ * hilang saat koneksi putus atau aplikasi ditutup. Antrian dikirim berurutan lewat {@link MatkulBatcher}
+ * dan dicoba lagi dengan backoff sampai berhasil atau ditolak server.
+ *
+ * Format file satu baris per catatan:
+ * "A {json}" mutasi baru, "D clientId" mutasi selesai, "I clientId idServer" id hasil tambah.
+ *
+ * Matkul yang ditambah tapi belum terkirim punya id lokal ({@link #localIdOf(MatkulMutation)}).
+ * Menghapus id lokal itu membuang keduanya dari antrian tanpa pernah dikirim.
+ *
+ * Antrian di memori diubah langsung, sedangkan baca, tulis (dengan fsync) dan compact file berjalan
+ * berurutan di thread scheduler, jadi simpan/hapus dari main thread tidak menunggu disk.
+ */
+public class MatkulOutbox {
+
+    public interface Callback extends MutationBatcher.Callback<MatkulMutationResult> {
+        // Pengiriman pertama gagal karena jaringan, mutasi tetap di antrian dan dikirim nanti.
+        void onQueued();
+    }
+
+    /**
+     * Dipanggil untuk setiap mutasi yang selesai, termasuk hasil replay setelah aplikasi dibuka ulang.
+     * result terisi jika server menjawab (cek isError), error terisi jika ditolak atau dibatalkan.
+     */
+    public interface Listener {
+        void onSettled(MatkulMutation mutation, MatkulMutationResult result, Throwable error);
+    }
+
+    public static final String LOCAL_ID_PREFIX = "local-";
+    public static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 1000;
+    public static final long DEFAULT_MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int RESOLVED = 0;
+    private static final int WAIT = 1;
+    private static final int MOOT = 2;
+    private static final int COMPACT_THRESHOLD = 64;
+    private static final int RESULT = 0;
+    private static final int FAILURE = 1;
+    private static final int QUEUED = 2;
+
+    private static final class Entry {
+        final MatkulMutation mutation;
+        final Callback callback;
+        boolean queuedNotified;
+
+        Entry(MatkulMutation mutation, Callback callback) {
+            this.mutation = mutation;
+            this.callback = callback;
+        }
+    }
+
+    private final Gson gson = new Gson();
+    private final File file;
+    private final MatkulBatcher batcher;
+    private final Executor callbackExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Random random = new Random();
+
+    // Urutan kirim sama dengan urutan masuk.
+    private final LinkedHashMap<String, Entry> pending = new LinkedHashMap<>();
+    // Id server dari tambah yang sudah terkirim, untuk hapus yang masih memakai id lokal.
+    private final Map<String, String> resolvedIds = new HashMap<>();
+    private final List<Entry> inFlight = new ArrayList<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private int inFlightRemaining;
+    private boolean inFlightNetworkFailure;
+    private int failedAttempts;
+    private ScheduledFuture<?> scheduledReplay;
+    private int doneSinceCompact;
+    // Replay sebelum file selesai dibaca ditunda sampai load selesai.
+    private boolean loaded;
+    private boolean replayAfterLoad;
+
+    private long sentCount;
+    private long compactedCount;
+
+    /**
+     * @param callbackExecutor tempat semua Callback dipanggil, di Android biasanya MainThreadExecutor
+     */
+    public MatkulOutbox(File file, MatkulBatcher batcher, Executor callbackExecutor) {
+        this(file, batcher, callbackExecutor, Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "matkul-outbox");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), DEFAULT_INITIAL_BACKOFF_MILLIS, DEFAULT_MAX_BACKOFF_MILLIS);
+    }
+
+    MatkulOutbox(File file, MatkulBatcher batcher, Executor callbackExecutor, ScheduledExecutorService scheduler,
+                 long initialBackoffMillis, long maxBackoffMillis) {
+        this.file = file;
+        this.batcher = batcher;
+        this.callbackExecutor = callbackExecutor;
+        this.scheduler = scheduler;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                load();
+            }
+        });
+    }
+
+    public static String localIdOf(MatkulMutation add){
+        return LOCAL_ID_PREFIX + add.getClientId();
+    }
+
+    public MatkulMutation simpan(String namaDosen, String matkul, Callback callback){
+        MatkulMutation mutation = newMutation(MatkulMutation.OP_ADD);
+        mutation.setNamaDosen(namaDosen);
+        mutation.setMatkul(matkul);
+        enqueue(mutation, callback);
+        return mutation;
+    }
+
+    public MatkulMutation hapus(String idMatkul, Callback callback){
+        MatkulMutation mutation = newMutation(MatkulMutation.OP_DELETE);
+        mutation.setId(idMatkul);
+
+        Entry cancelled = null;
+        synchronized (this){
+            String addClientId = idMatkul.startsWith(LOCAL_ID_PREFIX)
+                    ? idMatkul.substring(LOCAL_ID_PREFIX.length()) : null;
+            Entry add = addClientId == null ? null : pending.get(addClientId);
+            if (add != null && !inFlight.contains(add)){
+                // Tambah lalu hapus sebelum terkirim: keduanya tidak perlu sampai ke server.
+                pending.remove(addClientId);
+                appendDone(addClientId);
+                compactedCount += 2;
+                cancelled = add;
+            }
+        }
+        if (cancelled != null){
+            deliver(cancelled, FAILURE, null, new CancellationException("Matkul dihapus sebelum terkirim"));
+            deliver(new Entry(mutation, callback), RESULT, successOf(mutation), null);
+            return mutation;
+        }
+
+        enqueue(mutation, callback);
+        return mutation;
+    }
+
+    /**
+     * Mengirim antrian sekarang, misalnya saat jaringan kembali tersedia. Backoff yang sedang
+     * berjalan dibatalkan.
+     */
+    public void replay(){
+        List<Entry> batch = new ArrayList<>();
+        List<Entry> moot = new ArrayList<>();
+        collectBatch(batch, moot);
+        for (Entry entry : moot){
+            deliver(entry, RESULT, successOf(entry.mutation), null);
+        }
+        if (batch.isEmpty()){
+            return;
+        }
+
+        for (final Entry entry : batch){
+            batcher.add(entry.mutation, new MutationBatcher.Callback<MatkulMutationResult>() {
+                @Override
+                public void onResult(MatkulMutationResult result) {
+                    onEntryDone(entry, result, null);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    onEntryDone(entry, null, t);
+                }
+            });
+        }
+        batcher.flush();
+    }
+
+    public void addListener(Listener listener){
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener){
+        listeners.remove(listener);
+    }
+
+    public synchronized int getPendingCount(){
+        return pending.size();
+    }
+
+    public synchronized List<MatkulMutation> getPendingMutations(){
+        List<MatkulMutation> mutations = new ArrayList<>();
+        for (Entry entry : pending.values()){
+            mutations.add(entry.mutation);
+        }
+        return mutations;
+    }
+
+    public synchronized long getSentCount(){
+        return sentCount;
+    }
+
+    // Jumlah mutasi yang dibuang berpasangan (tambah lalu hapus) tanpa dikirim.
+    public synchronized long getCompactedCount(){
+        return compactedCount;
+    }
+
+    // Menunggu semua baca/tulis file yang sudah diantrekan selesai, untuk test.
+    void awaitDisk() throws Exception {
+        scheduler.submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get();
+    }
+
+    // Mengambil mutasi terdepan untuk dikirim, berhenti di hapus yang id server-nya belum ada.
+    private synchronized void collectBatch(List<Entry> batch, List<Entry> moot){
+        if (scheduledReplay != null){
+            scheduledReplay.cancel(false);
+            scheduledReplay = null;
+        }
+        if (!loaded){
+            replayAfterLoad = true;
+            return;
+        }
+        if (!inFlight.isEmpty()){
+            return;
+        }
+        for (Entry entry : new ArrayList<>(pending.values())){
+            if (batch.size() >= MutationBatcher.DEFAULT_MAX_BATCH_SIZE){
+                break;
+            }
+            int state = resolveId(entry.mutation);
+            if (state == WAIT){
+                break;
+            }
+            if (state == MOOT){
+                // Tambahnya ditolak server, tidak ada yang perlu dihapus.
+                pending.remove(entry.mutation.getClientId());
+                appendDone(entry.mutation.getClientId());
+                moot.add(entry);
+                continue;
+            }
+            batch.add(entry);
+        }
+        if (!batch.isEmpty()){
+            inFlight.addAll(batch);
+            inFlightRemaining = batch.size();
+            inFlightNetworkFailure = false;
+        }
+    }
+
+    private void enqueue(MatkulMutation mutation, Callback callback){
+        synchronized (this){
+            pending.put(mutation.getClientId(), new Entry(mutation, callback));
+            append("A " + gson.toJson(mutation));
+        }
+        replay();
+    }
+
+    private void onEntryDone(Entry entry, MatkulMutationResult result, Throwable error){
+        boolean permanent = result != null || !isRetryable(error);
+        boolean notifyQueued = false;
+        boolean batchFinished;
+        boolean networkFailure;
+        synchronized (this){
+            if (permanent){
+                String clientId = entry.mutation.getClientId();
+                pending.remove(clientId);
+                if (result != null && !result.isError() && MatkulMutation.OP_ADD.equals(entry.mutation.getOp())
+                        && result.getId() != null){
+                    resolvedIds.put(clientId, result.getId());
+                    append("I " + clientId + " " + result.getId());
+                }
+                appendDone(clientId);
+                sentCount++;
+            } else {
+                inFlightNetworkFailure = true;
+                notifyQueued = !entry.queuedNotified;
+                entry.queuedNotified = true;
+            }
+
+            inFlightRemaining--;
+            batchFinished = inFlightRemaining == 0;
+            networkFailure = inFlightNetworkFailure;
+            if (batchFinished){
+                inFlight.clear();
+                failedAttempts = networkFailure ? failedAttempts + 1 : 0;
+            }
+        }
+
+        if (result != null){
+            deliver(entry, RESULT, result, null);
+        } else if (permanent){
+            deliver(entry, FAILURE, null, error);
+        } else if (notifyQueued){
+            deliver(entry, QUEUED, null, null);
+        }
+
+        if (batchFinished){
+            if (networkFailure){
+                scheduleReplay();
+            } else {
+                replay();
+            }
+        }
+    }
+
+    private void deliver(final Entry entry, final int type,
+                         final MatkulMutationResult result, final Throwable error){
+        final Callback callback = entry.callback;
+        if (callback == null && (type == QUEUED || listeners.isEmpty())){
+            return;
+        }
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (type != QUEUED){
+                    for (Listener listener : listeners){
+                        listener.onSettled(entry.mutation, result, error);
+                    }
+                }
+                if (callback == null){
+                    return;
+                }
+                if (type == RESULT){
+                    callback.onResult(result);
+                } else if (type == FAILURE){
+                    callback.onFailure(error);
+                } else {
+                    callback.onQueued();
+                }
+            }
+        });
+    }
+
+    private static boolean isRetryable(Throwable error){
+        if (error instanceof HttpException){
+            int code = ((HttpException) error).code();
+            return code >= 500 || code == 408 || code == 429;
+        }
+        return error instanceof IOException;
+    }
+
+    private synchronized void scheduleReplay(){
+        if (scheduledReplay != null || pending.isEmpty()){
+            return;
+        }
+        long exponential = initialBackoffMillis << Math.min(failedAttempts - 1, 20);
+        long capped = Math.max(1, Math.min(maxBackoffMillis, exponential));
+        long half = capped / 2;
+        long delay = half + (long) (random.nextDouble() * (capped - half));
+        scheduledReplay = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (MatkulOutbox.this){
+                    scheduledReplay = null;
+                }
+                replay();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Mengganti id lokal dengan id server. WAIT jika tambahnya belum selesai, MOOT jika tambahnya gagal.
+    private int resolveId(MatkulMutation mutation){
+        String id = mutation.getId();
+        if (!MatkulMutation.OP_DELETE.equals(mutation.getOp()) || id == null || !id.startsWith(LOCAL_ID_PREFIX)){
+            return RESOLVED;
+        }
+        String addClientId = id.substring(LOCAL_ID_PREFIX.length());
+        String serverId = resolvedIds.get(addClientId);
+        if (serverId == null){
+            return pending.containsKey(addClientId) ? WAIT : MOOT;
+        }
+        mutation.setId(serverId);
+        return RESOLVED;
+    }
+
+    private MatkulMutation newMutation(String op){
+        MatkulMutation mutation = new MatkulMutation();
+        mutation.setOp(op);
+        mutation.setClientId(UUID.randomUUID().toString());
+        return mutation;
+    }
+
+    private static MatkulMutationResult successOf(MatkulMutation mutation){
+        MatkulMutationResult result = new MatkulMutationResult();
+        result.setClientId(mutation.getClientId());
+        result.setId(mutation.getId());
+        return result;
+    }
+
+    private void appendDone(String clientId){
+        append("D " + clientId);
+        if (++doneSinceCompact >= COMPACT_THRESHOLD){
+            compact();
+        }
+    }
+
+    // Berjalan di scheduler sebelum tulisan apa pun, mutasi dari file ditaruh di depan yang baru masuk.
+    private void load(){
+        LinkedHashMap<String, Entry> restored = new LinkedHashMap<>();
+        Map<String, String> restoredIds = new HashMap<>();
+        boolean exists = file.exists();
+        if (exists){
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), UTF_8));
+                try {
+                    String line;
+                    while ((line = reader.readLine()) != null){
+                        if (line.startsWith("A ")){
+                            MatkulMutation mutation = gson.fromJson(line.substring(2), MatkulMutation.class);
+                            restored.put(mutation.getClientId(), new Entry(mutation, null));
+                        } else if (line.startsWith("D ")){
+                            restored.remove(line.substring(2));
+                        } else if (line.startsWith("I ")){
+                            String[] parts = line.split(" ");
+                            if (parts.length == 3){
+                                restoredIds.put(parts[1], parts[2]);
+                            }
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException | RuntimeException e){
+                // Baris terakhir bisa terpotong jika aplikasi mati saat menulis, sisanya tetap dipakai.
+            }
+        }
+        boolean replayNow;
+        synchronized (this){
+            restored.putAll(pending);
+            pending.clear();
+            pending.putAll(restored);
+            resolvedIds.putAll(restoredIds);
+            if (exists){
+                compact();
+            }
+            loaded = true;
+            replayNow = replayAfterLoad;
+        }
+        if (replayNow){
+            replay();
+        }
+    }
+
+    // Harus dipanggil dengan lock. Menulis ulang file hanya dengan mutasi yang masih menunggu dan id
+    // server yang masih dirujuk; isinya diambil sekarang, file ditulis di scheduler.
+    private void compact(){
+        doneSinceCompact = 0;
+        // Di memori semua id server tetap disimpan, layar yang masih memegang id lokal bisa menghapusnya.
+        Map<String, String> referenced = new HashMap<>();
+        for (Entry entry : pending.values()){
+            String id = entry.mutation.getId();
+            if (id != null && id.startsWith(LOCAL_ID_PREFIX)){
+                String clientId = id.substring(LOCAL_ID_PREFIX.length());
+                if (resolvedIds.containsKey(clientId)){
+                    referenced.put(clientId, resolvedIds.get(clientId));
+                }
+            }
+        }
+
+        final StringBuilder records = new StringBuilder();
+        for (Map.Entry<String, String> resolved : referenced.entrySet()){
+            records.append("I ").append(resolved.getKey()).append(' ').append(resolved.getValue()).append('\n');
+        }
+        for (Entry entry : pending.values()){
+            records.append("A ").append(gson.toJson(entry.mutation)).append('\n');
+        }
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                rewrite(records.toString());
+            }
+        });
+    }
+
+    // Harus dipanggil dengan lock supaya urutan tulisan di scheduler sama dengan urutan perubahan antrian.
+    private void append(final String record){
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                write(record + "\n");
+            }
+        });
+    }
+
+    private void rewrite(String records){
+        File temp = new File(file.getPath() + ".tmp");
+        try {
+            FileOutputStream out = new FileOutputStream(temp);
+            try {
+                Writer writer = new OutputStreamWriter(out, UTF_8);
+                writer.write(records);
+                writer.flush();
+                out.getFD().sync();
+            } finally {
+                out.close();
+            }
+            if (!temp.renameTo(file)){
+                temp.delete();
+            }
+        } catch (IOException e){
+            temp.delete();
+        }
+    }
+
+    private void write(String record){
+        try {
+            FileOutputStream out = new FileOutputStream(file, true);
+            try {
+                out.write(record.getBytes(UTF_8));
+                out.getFD().sync();
+            } finally {
+                out.close();
+            }
+        } catch (IOException e){
+            // Tetap dikirim dari memori, hanya tidak bertahan jika aplikasi ditutup.
+        }
+    }
+}
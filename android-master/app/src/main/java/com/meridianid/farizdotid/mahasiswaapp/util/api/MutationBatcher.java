@@ -0,0 +1,172 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Mengumpulkan mutasi selama windowMillis (atau sampai maxBatchSize) lalu mengirimnya sebagai satu
+ * request bulk. Hasil per item dicocokkan kembali ke pemanggilnya lewat key masing-masing mutasi.
+ *
+ * @param <M> tipe mutasi yang dikirim
+ * @param <R> tipe hasil per mutasi di dalam response
+ * @param <B> tipe body response dari endpoint bulk
+ */
+public abstract class MutationBatcher<M, R, B> {
+
+    public interface Callback<R> {
+        void onResult(R result);
+
+        void onFailure(Throwable t);
+    }
+
+    public static final long DEFAULT_WINDOW_MILLIS = 300;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+
+    private static final class Pending<M, R> {
+        final M mutation;
+        final Callback<R> callback;
+
+        Pending(M mutation, Callback<R> callback) {
+            this.mutation = mutation;
+            this.callback = callback;
+        }
+    }
+
+    private final ScheduledExecutorService scheduler;
+    private final long windowMillis;
+    private final int maxBatchSize;
+
+    private List<Pending<M, R>> pending = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong mutationCount = new AtomicLong();
+
+    protected MutationBatcher(long windowMillis, int maxBatchSize) {
+        this(Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "mutation-batcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }), windowMillis, maxBatchSize);
+    }
+
+    MutationBatcher(ScheduledExecutorService scheduler, long windowMillis, int maxBatchSize) {
+        if (windowMillis < 0 || maxBatchSize < 1){
+            throw new IllegalArgumentException("windowMillis minimal 0 dan maxBatchSize minimal 1");
+        }
+        this.scheduler = scheduler;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    protected abstract Call<B> createCall(List<M> mutations);
+
+    protected abstract String keyOf(M mutation);
+
+    protected abstract List<R> resultsOf(B body);
+
+    protected abstract String keyOfResult(R result);
+
+    public void add(M mutation, Callback<R> callback){
+        boolean flushNow;
+        synchronized (this){
+            pending.add(new Pending<>(mutation, callback));
+            flushNow = pending.size() >= maxBatchSize;
+            if (!flushNow && scheduledFlush == null){
+                scheduledFlush = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (flushNow){
+            flush();
+        }
+    }
+
+    // Mengirim semua mutasi yang sedang menunggu tanpa menunggu window habis.
+    public void flush(){
+        final List<Pending<M, R>> batch;
+        synchronized (this){
+            if (scheduledFlush != null){
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (pending.isEmpty()){
+                return;
+            }
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+
+        List<M> mutations = new ArrayList<>(batch.size());
+        for (Pending<M, R> item : batch){
+            mutations.add(item.mutation);
+        }
+        batchCount.incrementAndGet();
+        mutationCount.addAndGet(batch.size());
+
+        createCall(mutations).enqueue(new retrofit2.Callback<B>() {
+            @Override
+            public void onResponse(Call<B> call, Response<B> response) {
+                if (!response.isSuccessful()){
+                    failAll(batch, new HttpException(response.code(), response.message()));
+                    return;
+                }
+                List<R> results = resultsOf(response.body());
+                Map<String, R> byKey = new HashMap<>();
+                if (results != null){
+                    for (R result : results){
+                        byKey.put(keyOfResult(result), result);
+                    }
+                }
+                for (Pending<M, R> item : batch){
+                    R result = byKey.get(keyOf(item.mutation));
+                    if (result != null){
+                        item.callback.onResult(result);
+                    } else {
+                        // Server menjawab tapi tidak menyebut mutasi ini, dianggap ditolak (bukan gangguan jaringan).
+                        item.callback.onFailure(new HttpException(response.code(),
+                                "Tidak ada hasil untuk mutasi " + keyOf(item.mutation)));
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call<B> call, Throwable t) {
+                failAll(batch, t);
+            }
+        });
+    }
+
+    public long getBatchCount(){
+        return batchCount.get();
+    }
+
+    public long getMutationCount(){
+        return mutationCount.get();
+    }
+
+    private void failAll(List<Pending<M, R>> batch, Throwable t){
+        for (Pending<M, R> item : batch){
+            item.callback.onFailure(t);
+        }
+    }
+}
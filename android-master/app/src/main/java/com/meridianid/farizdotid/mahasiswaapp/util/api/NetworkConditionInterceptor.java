@@ -0,0 +1,181 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Network interceptor untuk pengujian yang mensimulasikan jaringan lambat: latency, jeda byte pertama,
+ * batas bandwidth dan kegagalan seperti paket hilang, per endpoint (lihat {@link TransferStats#endpointOf}).
+ * Semua angka acak berasal dari seed, endpoint dan urutan request di endpoint itu, jadi hasilnya sama
+ * setiap kali dijalankan walaupun request dari endpoint lain berjalan bersamaan.
+ */
+public class NetworkConditionInterceptor implements Interceptor {
+
+    // Pengganti Thread.sleep supaya test bisa mencatat jeda tanpa benar-benar menunggu.
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedIOException;
+    }
+
+    private static final Sleeper THREAD_SLEEPER = new Sleeper() {
+        @Override
+        public void sleep(long millis) throws InterruptedIOException {
+            if (millis <= 0){
+                return;
+            }
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Simulasi jaringan diinterupsi");
+            }
+        }
+    };
+
+    private final long seed;
+    private final String basePath;
+    private final Sleeper sleeper;
+    private volatile NetworkProfile defaultProfile;
+    private final Map<String, NetworkProfile> endpointProfiles = new ConcurrentHashMap<>();
+    private final Map<String, Long> sequences = new HashMap<>();
+
+    private final AtomicLong simulatedMillis = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    public NetworkConditionInterceptor(NetworkProfile defaultProfile, long seed, String basePath) {
+        this(defaultProfile, seed, basePath, THREAD_SLEEPER);
+    }
+
+    NetworkConditionInterceptor(NetworkProfile defaultProfile, long seed, String basePath, Sleeper sleeper) {
+        this.defaultProfile = defaultProfile;
+        this.seed = seed;
+        this.basePath = basePath;
+        this.sleeper = sleeper;
+    }
+
+    // null berarti endpoint tanpa profil sendiri tidak disimulasikan.
+    public void setDefaultProfile(NetworkProfile profile){
+        defaultProfile = profile;
+    }
+
+    // endpoint seperti "GET dosen/*", lihat TransferStats.endpointOf. null menghapus profil endpoint itu.
+    public void setProfile(String endpoint, NetworkProfile profile){
+        if (profile == null){
+            endpointProfiles.remove(endpoint);
+        } else {
+            endpointProfiles.put(endpoint, profile);
+        }
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = TransferStats.endpointOf(request, basePath);
+        NetworkProfile profile = endpointProfiles.get(endpoint);
+        if (profile == null){
+            profile = defaultProfile;
+        }
+        if (profile == null){
+            return chain.proceed(request);
+        }
+
+        Random random = new Random(seed * 31 + endpoint.hashCode() * 1000003L + nextSequence(endpoint));
+        long latency = latencyOf(profile, random);
+        // Setengah round trip sebelum request sampai, setengahnya lagi sebelum response kembali.
+        pause(latency / 2);
+        if (request.body() != null && profile.getUpBytesPerSecond() > 0){
+            long length = request.body().contentLength();
+            if (length > 0){
+                pause(length * 1000 / profile.getUpBytesPerSecond());
+            }
+        }
+        if (random.nextDouble() < profile.getFailureRate()){
+            failureCount.incrementAndGet();
+            throw new SocketTimeoutException("Simulasi " + profile.getName() + ": paket hilang untuk " + endpoint);
+        }
+
+        Response response = chain.proceed(request);
+        pause(latency - latency / 2 + profile.getFirstByteMillis());
+
+        ResponseBody body = response.body();
+        if (body == null || profile.getDownBytesPerSecond() == 0){
+            return response;
+        }
+        ThrottledSource throttled = new ThrottledSource(body, profile.getDownBytesPerSecond());
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(throttled)))
+                .build();
+    }
+
+    // Total jeda yang disuntikkan, termasuk jeda karena batas bandwidth.
+    public long getSimulatedMillis(){
+        return simulatedMillis.get();
+    }
+
+    public long getFailureCount(){
+        return failureCount.get();
+    }
+
+    private synchronized long nextSequence(String endpoint){
+        Long current = sequences.get(endpoint);
+        long next = current == null ? 0 : current + 1;
+        sequences.put(endpoint, next);
+        return next;
+    }
+
+    private static long latencyOf(NetworkProfile profile, Random random){
+        double factor = Math.exp(profile.getLatencySigma() * random.nextGaussian());
+        return Math.round(profile.getLatencyMillis() * factor);
+    }
+
+    private void pause(long millis) throws InterruptedIOException {
+        if (millis <= 0){
+            return;
+        }
+        simulatedMillis.addAndGet(millis);
+        sleeper.sleep(millis);
+    }
+
+    /**
+     * Membatasi kecepatan baca body: setelah setiap read, tunggu sampai total waktu sesuai dengan
+     * total byte yang sudah dibaca dibagi bandwidth.
+     */
+    private final class ThrottledSource extends ForwardingSource {
+
+        private final long bytesPerSecond;
+        private long totalBytes;
+        private long pausedMillis;
+
+        ThrottledSource(ResponseBody body, long bytesPerSecond) {
+            super(body.source());
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            // Dibaca per potongan 100 ms supaya konsumen menerima data bertahap seperti di jaringan asli.
+            long chunk = Math.max(1, bytesPerSecond / 10);
+            long read = super.read(sink, Math.min(byteCount, chunk));
+            if (read > 0){
+                totalBytes += read;
+                long due = totalBytes * 1000 / bytesPerSecond;
+                pause(due - pausedMillis);
+                pausedMillis = Math.max(pausedMillis, due);
+            }
+            return read;
+        }
+    }
+}
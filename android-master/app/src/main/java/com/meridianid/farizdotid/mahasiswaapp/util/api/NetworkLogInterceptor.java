@@ -0,0 +1,137 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Pengganti HttpLoggingInterceptor: hanya sebagian request yang dicatat (sampleRate), body dipotong
+ * sampai maxBodyBytes, dan penulisan log dilakukan AsyncLogWriter di thread lain.
+ * Level dan sampleRate diatur per build type dari MahasiswaApp.
+ */
+public class NetworkLogInterceptor implements Interceptor {
+
+    public enum Level {
+        NONE,
+        BASIC,
+        HEADERS,
+        BODY
+    }
+
+    public static final long DEFAULT_MAX_BODY_BYTES = 2048;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final Random random = new Random();
+
+    private volatile Level level = Level.NONE;
+    private volatile double sampleRate = 1.0;
+    private volatile long maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+    private volatile AsyncLogWriter writer;
+
+    public void setLevel(Level level){
+        this.level = level;
+    }
+
+    public void setSampleRate(double sampleRate){
+        this.sampleRate = sampleRate;
+    }
+
+    public void setMaxBodyBytes(long maxBodyBytes){
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    public void setWriter(AsyncLogWriter writer){
+        this.writer = writer;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Level level = this.level;
+        AsyncLogWriter writer = this.writer;
+        if (level == Level.NONE || writer == null || !sampled()){
+            return chain.proceed(request);
+        }
+
+        StringBuilder record = new StringBuilder();
+        record.append("--> ").append(request.method()).append(' ').append(request.url());
+        if (level.compareTo(Level.HEADERS) >= 0){
+            appendHeaders(record, request.headers());
+        }
+        if (level == Level.BODY && request.body() != null){
+            appendRequestBody(record, request.body());
+        }
+
+        long startNs = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e){
+            record.append("\n<-- GAGAL ").append(e);
+            writer.offer(record.toString());
+            throw e;
+        }
+        long tookMs = (System.nanoTime() - startNs) / 1000000L;
+
+        record.append("\n<-- ").append(response.code()).append(' ').append(response.message())
+                .append(" (").append(tookMs).append(" ms");
+        if (response.cacheResponse() != null && response.networkResponse() == null){
+            record.append(", cache");
+        }
+        record.append(')');
+        if (level.compareTo(Level.HEADERS) >= 0){
+            appendHeaders(record, response.headers());
+        }
+        if (level == Level.BODY){
+            // peekBody hanya menyalin awal body, body asli tetap utuh untuk converter. Satu byte lebih
+            // dari maxBodyBytes disalin untuk tahu apakah body memang lebih panjang dari yang dicatat.
+            long max = maxBodyBytes;
+            ResponseBody peeked = response.peekBody(max + 1);
+            byte[] bytes = peeked.bytes();
+            boolean truncated = bytes.length > max;
+            record.append('\n').append(new String(bytes, 0, truncated ? (int) max : bytes.length, UTF8));
+            if (truncated){
+                record.append("...");
+            }
+        }
+
+        writer.offer(record.toString());
+        return response;
+    }
+
+    private boolean sampled(){
+        double rate = sampleRate;
+        if (rate >= 1.0){
+            return true;
+        }
+        synchronized (random){
+            return random.nextDouble() < rate;
+        }
+    }
+
+    private void appendHeaders(StringBuilder record, Headers headers){
+        for (int i = 0; i < headers.size(); i++){
+            record.append('\n').append(headers.name(i)).append(": ").append(headers.value(i));
+        }
+    }
+
+    private void appendRequestBody(StringBuilder record, RequestBody body) throws IOException {
+        long length = body.contentLength();
+        if (length < 0 || length > maxBodyBytes){
+            record.append("\n(body ").append(length).append(" byte tidak dicatat)");
+            return;
+        }
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        record.append('\n').append(buffer.readString(UTF8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+/**
+ * Kondisi jaringan yang disimulasikan {@link NetworkConditionInterceptor}. Latency per request
+ * berdistribusi log-normal dengan median latencyMillis (sigma 0 berarti selalu tepat median),
+ * bandwidth dalam byte per detik (0 berarti tidak dibatasi).
+ */
+public final class NetworkProfile {
+
+    public static final NetworkProfile EDGE_2G =
+            new NetworkProfile("2G", 650, 0.35, 30 * 1024, 15 * 1024, 0.02, 300);
+    public static final NetworkProfile HSPA_3G =
+            new NetworkProfile("3G", 200, 0.3, 190 * 1024, 90 * 1024, 0.005, 100);
+    // Wi-Fi kampus: bandwidth cukup tapi latency naik-turun karena banyak pengguna.
+    public static final NetworkProfile CAMPUS_WIFI =
+            new NetworkProfile("Wi-Fi kampus", 40, 0.8, 1250 * 1024, 625 * 1024, 0.01, 30);
+
+    private final String name;
+    private final long latencyMillis;
+    private final double latencySigma;
+    private final long downBytesPerSecond;
+    private final long upBytesPerSecond;
+    private final double failureRate;
+    private final long firstByteMillis;
+
+    /**
+     * @param latencyMillis      median round trip sebelum request sampai ke server
+     * @param latencySigma       sebaran latency (sigma log-normal)
+     * @param downBytesPerSecond batas kecepatan body response
+     * @param upBytesPerSecond   batas kecepatan body request
+     * @param failureRate        peluang request gagal seperti paket hilang (0..1)
+     * @param firstByteMillis    jeda tambahan sebelum header response diterima
+     */
+    public NetworkProfile(String name, long latencyMillis, double latencySigma, long downBytesPerSecond,
+                          long upBytesPerSecond, double failureRate, long firstByteMillis) {
+        if (latencyMillis < 0 || latencySigma < 0 || downBytesPerSecond < 0 || upBytesPerSecond < 0
+                || failureRate < 0 || failureRate > 1 || firstByteMillis < 0){
+            throw new IllegalArgumentException("Profil jaringan tidak valid");
+        }
+        this.name = name;
+        this.latencyMillis = latencyMillis;
+        this.latencySigma = latencySigma;
+        this.downBytesPerSecond = downBytesPerSecond;
+        this.upBytesPerSecond = upBytesPerSecond;
+        this.failureRate = failureRate;
+        this.firstByteMillis = firstByteMillis;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    public long getLatencyMillis(){
+        return latencyMillis;
+    }
+
+    public double getLatencySigma(){
+        return latencySigma;
+    }
+
+    public long getDownBytesPerSecond(){
+        return downBytesPerSecond;
+    }
+
+    public long getUpBytesPerSecond(){
+        return upBytesPerSecond;
+    }
+
+    public double getFailureRate(){
+        return failureRate;
+    }
+
+    public long getFirstByteMillis(){
+        return firstByteMillis;
+    }
+
+    @Override
+    public String toString(){
+        return name;
+    }
+}
@@ -0,0 +1,231 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Network interceptor yang memperkirakan kualitas koneksi dari request yang benar-benar lewat jaringan:
+ * RTT dari waktu sampai header response diterima, bandwidth dari body yang cukup besar (waktu yang
+ * dihabiskan di read dibagi byte-nya). Keduanya dirata-rata eksponensial, lalu kualitas diambil dari
+ * yang terburuk di antara keduanya.
+ *
+ * Dipakai untuk timeout per request (lihat {@link RetrofitClient}), ukuran halaman list dan keputusan
+ * prefetch.
+ */
+public class NetworkQualityEstimator implements Interceptor {
+
+    public enum Quality {
+        UNKNOWN, POOR, MODERATE, GOOD, EXCELLENT
+    }
+
+    public interface Listener {
+        void onQualityChanged(Quality quality);
+    }
+
+    // Batas kbps dan RTT per kelas, kira-kira 2G, 3G, 4G/Wi-Fi dan kabel.
+    static final long POOR_MAX_KBPS = 150;
+    static final long MODERATE_MAX_KBPS = 550;
+    static final long GOOD_MAX_KBPS = 2000;
+    static final long POOR_MIN_RTT_MILLIS = 1000;
+    static final long MODERATE_MIN_RTT_MILLIS = 400;
+    static final long GOOD_MIN_RTT_MILLIS = 150;
+
+    // Body lebih kecil dari ini didominasi RTT, jadi tidak dipakai untuk bandwidth.
+    static final long MIN_BANDWIDTH_SAMPLE_BYTES = 8 * 1024;
+    private static final double SMOOTHING = 0.25;
+
+    private double rttMillis = -1;
+    private double kbps = -1;
+    private long rttSamples;
+    private long bandwidthSamples;
+    private Quality quality = Quality.UNKNOWN;
+    private volatile Listener listener;
+
+    public void setListener(Listener listener){
+        this.listener = listener;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        long startNanos = System.nanoTime();
+        Response response = chain.proceed(request);
+        addRttSample(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        ResponseBody body = response.body();
+        if (body == null){
+            return response;
+        }
+        BandwidthSource measured = new BandwidthSource(body);
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(measured)))
+                .build();
+    }
+
+    public void addRttSample(long millis){
+        Quality changed;
+        synchronized (this){
+            rttMillis = rttMillis < 0 ? millis : rttMillis + SMOOTHING * (millis - rttMillis);
+            rttSamples++;
+            changed = updateQuality();
+        }
+        notifyChanged(changed);
+    }
+
+    public void addBandwidthSample(long bytes, long nanos){
+        if (bytes < MIN_BANDWIDTH_SAMPLE_BYTES || nanos <= 0){
+            return;
+        }
+        double sample = bytes * 8.0 / 1000 / (nanos / 1e9);
+        Quality changed;
+        synchronized (this){
+            kbps = kbps < 0 ? sample : kbps + SMOOTHING * (sample - kbps);
+            bandwidthSamples++;
+            changed = updateQuality();
+        }
+        notifyChanged(changed);
+    }
+
+    public synchronized Quality getQuality(){
+        return quality;
+    }
+
+    // -1 jika belum ada sampel.
+    public synchronized long getRttMillis(){
+        return Math.round(rttMillis);
+    }
+
+    public synchronized long getBandwidthKbps(){
+        return Math.round(kbps);
+    }
+
+    public synchronized long getRttSampleCount(){
+        return rttSamples;
+    }
+
+    public synchronized long getBandwidthSampleCount(){
+        return bandwidthSamples;
+    }
+
+    /**
+     * Ukuran halaman untuk endpoint list: lebih kecil di jaringan lambat supaya halaman pertama cepat
+     * tampil, lebih besar di jaringan cepat supaya jumlah round trip berkurang.
+     */
+    public int pageSizeFor(int defaultSize){
+        switch (getQuality()){
+            case POOR:
+                return Math.max(10, defaultSize / 3);
+            case MODERATE:
+                return Math.max(10, defaultSize / 2);
+            case EXCELLENT:
+                return Math.min(100, defaultSize * 2);
+            default:
+                return defaultSize;
+        }
+    }
+
+    // Prefetch di jaringan lambat merebut bandwidth dari request yang sedang ditunggu pengguna.
+    public boolean shouldPrefetch(){
+        return getQuality() != Quality.POOR;
+    }
+
+    @Override
+    public synchronized String toString(){
+        return quality + " (rtt " + getRttMillis() + " ms dari " + rttSamples + ", "
+                + getBandwidthKbps() + " kbps dari " + bandwidthSamples + ")";
+    }
+
+    // Harus dipanggil dengan lock. Mengembalikan kualitas baru jika berubah, null jika tidak.
+    private Quality updateQuality(){
+        Quality byRtt = rttMillis < 0 ? Quality.UNKNOWN : classifyRtt(rttMillis);
+        Quality byBandwidth = kbps < 0 ? Quality.UNKNOWN : classifyKbps(kbps);
+        Quality updated;
+        if (byRtt == Quality.UNKNOWN){
+            updated = byBandwidth;
+        } else if (byBandwidth == Quality.UNKNOWN){
+            updated = byRtt;
+        } else {
+            updated = byRtt.ordinal() < byBandwidth.ordinal() ? byRtt : byBandwidth;
+        }
+        if (updated == quality){
+            return null;
+        }
+        quality = updated;
+        return updated;
+    }
+
+    private void notifyChanged(Quality changed){
+        Listener current = listener;
+        if (changed != null && current != null){
+            current.onQualityChanged(changed);
+        }
+    }
+
+    private static Quality classifyRtt(double millis){
+        if (millis >= POOR_MIN_RTT_MILLIS){
+            return Quality.POOR;
+        } else if (millis >= MODERATE_MIN_RTT_MILLIS){
+            return Quality.MODERATE;
+        } else if (millis >= GOOD_MIN_RTT_MILLIS){
+            return Quality.GOOD;
+        }
+        return Quality.EXCELLENT;
+    }
+
+    private static Quality classifyKbps(double kbps){
+        if (kbps < POOR_MAX_KBPS){
+            return Quality.POOR;
+        } else if (kbps < MODERATE_MAX_KBPS){
+            return Quality.MODERATE;
+        } else if (kbps < GOOD_MAX_KBPS){
+            return Quality.GOOD;
+        }
+        return Quality.EXCELLENT;
+    }
+
+    // Menjumlahkan waktu yang dihabiskan di dalam read, jadi jeda karena konsumen lambat tidak terhitung.
+    private final class BandwidthSource extends ForwardingSource {
+
+        private long bytes;
+        private long nanos;
+        private boolean reported;
+
+        BandwidthSource(ResponseBody body) {
+            super(body.source());
+        }
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            long start = System.nanoTime();
+            long read = super.read(sink, byteCount);
+            nanos += System.nanoTime() - start;
+            if (read == -1){
+                report();
+            } else {
+                bytes += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            report();
+            super.close();
+        }
+
+        private void report(){
+            if (!reported){
+                reported = true;
+                addBandwidthSample(bytes, nanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Call.Factory di depan dispatcher OkHttp yang membagi request async ke beberapa jalur prioritas.
+ * Dispatcher OkHttp hanya punya satu antrian FIFO, jadi di sini request ditahan per jalur dan baru
+ * diteruskan ke OkHttp saat ada slot: jalur yang lebih penting selalu didahulukan, setiap jalur punya
+ * batas sendiri, dan satu slot selalu disisakan untuk jalur {@link Lane#INTERACTIVE}.
+ *
+ * Jalur dipilih lewat header {@link ApiHeaders#PRIORITY} di BaseApiService (tanpa header berarti
+ * {@link Lane#VISIBLE}). Call sinkron (execute) tidak diantrikan karena sudah berjalan di thread pemanggil.
+ */
+public class PriorityDispatcher implements Call.Factory {
+
+    // Urutan enum adalah urutan prioritas.
+    public enum Lane {
+        // Aksi yang ditunggu pengguna: login, simpan, hapus.
+        INTERACTIVE,
+        // Isi layar yang sedang tampil.
+        VISIBLE,
+        // Tebakan untuk layar berikutnya, boleh dibuang.
+        PREFETCH,
+        // Sinkronisasi background, tidak dibuang tapi selalu paling belakang.
+        SYNC
+    }
+
+    private final Call.Factory delegate;
+
+    // Semua field di bawah dijaga oleh lock this.
+    private int maxRunning;
+    private final int[] running = new int[Lane.values().length];
+    private final List<ArrayDeque<PrioritizedCall>> queues = new ArrayList<>();
+
+    private final LatencyTracker[] queueWait = new LatencyTracker[Lane.values().length];
+    private final AtomicLong[] dispatchedCount = new AtomicLong[Lane.values().length];
+    private final AtomicLong preemptedCount = new AtomicLong();
+
+    public PriorityDispatcher(Call.Factory delegate, int maxRunning) {
+        if (maxRunning < 1){
+            throw new IllegalArgumentException("maxRunning minimal 1");
+        }
+        this.delegate = delegate;
+        this.maxRunning = maxRunning;
+        for (int i = 0; i < Lane.values().length; i++){
+            queues.add(new ArrayDeque<PrioritizedCall>());
+            queueWait[i] = new LatencyTracker();
+            dispatchedCount[i] = new AtomicLong();
+        }
+    }
+
+    // Sebaiknya sama dengan maxRequestsPerHost dispatcher OkHttp, supaya tidak ada antrian kedua di sana.
+    public void setMaxRunning(int maxRunning){
+        if (maxRunning < 1){
+            throw new IllegalArgumentException("maxRunning minimal 1");
+        }
+        List<Runnable> starts;
+        synchronized (this){
+            this.maxRunning = maxRunning;
+            starts = promote();
+        }
+        run(starts);
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        Lane lane = parseLane(request.header(ApiHeaders.PRIORITY));
+        Request stripped = request.newBuilder().removeHeader(ApiHeaders.PRIORITY).build();
+        return new PrioritizedCall(delegate.newCall(stripped), request, lane);
+    }
+
+    public synchronized int getRunningCount(Lane lane){
+        return running[lane.ordinal()];
+    }
+
+    public synchronized int getQueuedCount(Lane lane){
+        return queues.get(lane.ordinal()).size();
+    }
+
+    public long getDispatchedCount(Lane lane){
+        return dispatchedCount[lane.ordinal()].get();
+    }
+
+    // Lama request menunggu di jalur sebelum diteruskan ke OkHttp, -1 jika belum ada sampel.
+    public long getQueueWaitMillis(Lane lane, double percentile){
+        return queueWait[lane.ordinal()].percentile(percentile);
+    }
+
+    // Jumlah prefetch yang dibuang dari antrian karena ada aksi pengguna yang harus menunggu.
+    public long getPreemptedCount(){
+        return preemptedCount.get();
+    }
+
+    synchronized int limitFor(Lane lane){
+        switch (lane){
+            case INTERACTIVE:
+                return maxRunning;
+            case VISIBLE:
+                return Math.max(1, maxRunning - 1);
+            case PREFETCH:
+                return Math.max(1, maxRunning / 2);
+            default:
+                return 1;
+        }
+    }
+
+    static Lane parseLane(String value){
+        if (value == null){
+            return Lane.VISIBLE;
+        }
+        try {
+            return Lane.valueOf(value.trim().toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e){
+            return Lane.VISIBLE;
+        }
+    }
+
+    private void submit(PrioritizedCall call){
+        List<PrioritizedCall> preempted = new ArrayList<>();
+        List<Runnable> starts;
+        synchronized (this){
+            queues.get(call.lane.ordinal()).add(call);
+            if (call.lane == Lane.INTERACTIVE && !canStart(Lane.INTERACTIVE)){
+                ArrayDeque<PrioritizedCall> prefetch = queues.get(Lane.PREFETCH.ordinal());
+                preempted.addAll(prefetch);
+                prefetch.clear();
+            }
+            starts = promote();
+        }
+        for (PrioritizedCall dropped : preempted){
+            preemptedCount.incrementAndGet();
+            dropped.delegateCall.cancel();
+            dropped.fail(new IOException("Preempted"));
+        }
+        run(starts);
+    }
+
+    private void finished(PrioritizedCall call){
+        List<Runnable> starts;
+        synchronized (this){
+            running[call.lane.ordinal()]--;
+            starts = promote();
+        }
+        run(starts);
+    }
+
+    // Mengembalikan true jika call masih di antrian (belum diteruskan ke OkHttp).
+    private synchronized boolean removeQueued(PrioritizedCall call){
+        return queues.get(call.lane.ordinal()).remove(call);
+    }
+
+    // Harus dipanggil dengan lock.
+    private boolean canStart(Lane lane){
+        int total = 0;
+        for (int count : running){
+            total += count;
+        }
+        if (total >= maxRunning || running[lane.ordinal()] >= limitFor(lane)){
+            return false;
+        }
+        int background = total - running[Lane.INTERACTIVE.ordinal()];
+        return lane == Lane.INTERACTIVE || background < Math.max(1, maxRunning - 1);
+    }
+
+    // Harus dipanggil dengan lock. Call dijalankan oleh pemanggil setelah lock dilepas.
+    private List<Runnable> promote(){
+        List<Runnable> starts = new ArrayList<>();
+        long now = System.nanoTime();
+        for (Lane lane : Lane.values()){
+            ArrayDeque<PrioritizedCall> queue = queues.get(lane.ordinal());
+            while (!queue.isEmpty() && canStart(lane)){
+                final PrioritizedCall call = queue.poll();
+                running[lane.ordinal()]++;
+                dispatchedCount[lane.ordinal()].incrementAndGet();
+                queueWait[lane.ordinal()].record(TimeUnit.NANOSECONDS.toMillis(now - call.queuedNanos));
+                starts.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        call.start();
+                    }
+                });
+            }
+        }
+        return starts;
+    }
+
+    private static void run(List<Runnable> starts){
+        for (Runnable start : starts){
+            start.run();
+        }
+    }
+
+    private final class PrioritizedCall implements Call {
+
+        final Call delegateCall;
+        // Request asli dengan header prioritas, supaya lapisan Retrofit (coalescing) bisa membedakan jalur.
+        final Request request;
+        final Lane lane;
+        long queuedNanos;
+        private Callback callback;
+        private boolean executed;
+        private volatile boolean canceled;
+
+        PrioritizedCall(Call delegateCall, Request request, Lane lane) {
+            this.delegateCall = delegateCall;
+            this.request = request;
+            this.lane = lane;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response execute() throws IOException {
+            synchronized (this){
+                if (executed) throw new IllegalStateException("Already Executed");
+                executed = true;
+            }
+            return delegateCall.execute();
+        }
+
+        @Override
+        public void enqueue(Callback responseCallback) {
+            synchronized (this){
+                if (executed) throw new IllegalStateException("Already Executed");
+                executed = true;
+                callback = responseCallback;
+            }
+            queuedNanos = System.nanoTime();
+            submit(this);
+        }
+
+        void start(){
+            delegateCall.enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    try {
+                        callback.onFailure(PrioritizedCall.this, e);
+                    } finally {
+                        finished(PrioritizedCall.this);
+                    }
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) throws IOException {
+                    try {
+                        callback.onResponse(PrioritizedCall.this, response);
+                    } finally {
+                        finished(PrioritizedCall.this);
+                    }
+                }
+            });
+        }
+
+        void fail(IOException e){
+            callback.onFailure(this, e);
+        }
+
+        // Call yang masih di antrian langsung gagal seperti call OkHttp yang dibatalkan.
+        @Override
+        public void cancel() {
+            canceled = true;
+            delegateCall.cancel();
+            if (removeQueued(this)){
+                fail(new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled || delegateCall.isCanceled();
+        }
+    }
+}
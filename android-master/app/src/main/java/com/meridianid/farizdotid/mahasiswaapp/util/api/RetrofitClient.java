@@ -1,7 +1,17 @@
 package com.meridianid.farizdotid.mahasiswaapp.util.api;
 
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Dns;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
-import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -12,20 +22,274 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class RetrofitClient {
 
-    private static Retrofit retrofit = null;
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+    public static final long CACHE_SIZE_BYTES = 10 * 1024 * 1024;
+
+    // Satu Retrofit (dan satu OkHttpClient) untuk setiap base url.
+    private static final Map<String, Retrofit> retrofits = new HashMap<>();
+    private static final Map<String, OkHttpClient> clients = new HashMap<>();
+    private static final Map<String, ConnectionWarmer> warmers = new HashMap<>();
+    private static final Map<String, EndpointRegistry> endpointRegistries = new HashMap<>();
+    private static final Map<String, PriorityDispatcher> priorityDispatchers = new HashMap<>();
+    private static final Map<String, CircuitBreakerInterceptor> circuitBreakers = new HashMap<>();
+    // Validasi ulang harus lewat client backend-nya sendiri (cache, circuit breaker, dispatcher).
+    private static final Map<String, StaleWhileRevalidateInterceptor> staleWhileRevalidateInterceptors = new HashMap<>();
+
+    private static final AtomicLong hitCount = new AtomicLong();
+    private static final AtomicLong missCount = new AtomicLong();
 
-    public static Retrofit getClient(String baseUrl){
-        HttpLoggingInterceptor interceptor = new HttpLoggingInterceptor();
-        interceptor.setLevel(HttpLoggingInterceptor.Level.BODY);
-        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(interceptor).build();
+    private static int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+    private static long keepAliveMillis = DEFAULT_KEEP_ALIVE_MILLIS;
+    private static int maxRequests = DEFAULT_MAX_REQUESTS;
+    private static int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
 
-        if (retrofit == null){
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(baseUrl)
-                    .addConverterFactory(GsonConverterFactory.create())
-                    .client(client)
-                    .build();
+    // Cache disk dipakai bersama oleh semua backend, kuncinya url lengkap.
+    private static Cache cache = null;
+    private static final CacheTtlInterceptor cacheTtlInterceptor = new CacheTtlInterceptor();
+    private static final CompletableFutureCallAdapterFactory completableFutureCallAdapterFactory =
+            new CompletableFutureCallAdapterFactory();
+    private static final CoalescingCallAdapterFactory coalescingCallAdapterFactory =
+            new CoalescingCallAdapterFactory();
+    private static final RetryCallAdapterFactory retryCallAdapterFactory = new RetryCallAdapterFactory();
+    private static final BinaryConverterFactory binaryConverterFactory = BinaryConverterFactory.create();
+    // Level log mati sampai diatur per build type dari MahasiswaApp.
+    private static final NetworkLogInterceptor logInterceptor = new NetworkLogInterceptor();
+    private static final TransferStats transferStats = new TransferStats();
+    private static final NetworkQualityEstimator networkQualityEstimator = new NetworkQualityEstimator();
+    // Resolver sistem di jaringan kampus lambat dan kadang macet, jadi hasilnya di-cache untuk semua client.
+    private static final CachingDns dns = new CachingDns(Dns.SYSTEM);
+    // Hanya untuk pengujian performa, null di build biasa.
+    private static NetworkConditionInterceptor networkConditions = null;
+
+    public static synchronized Retrofit getClient(String baseUrl){
+        Retrofit retrofit = retrofits.get(baseUrl);
+        if (retrofit != null){
+            hitCount.incrementAndGet();
+            return retrofit;
         }
+
+        missCount.incrementAndGet();
+        dns.raceOn(HttpUrl.parse(baseUrl).host(), HttpUrl.parse(baseUrl).port());
+        ConnectionWarmer warmer = new ConnectionWarmer(HttpUrl.parse(baseUrl));
+        EndpointRegistry endpointRegistry = new EndpointRegistry(HttpUrl.parse(baseUrl));
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(HttpUrl.parse(baseUrl).encodedPath());
+        StaleWhileRevalidateInterceptor staleWhileRevalidate = new StaleWhileRevalidateInterceptor();
+        OkHttpClient client = buildOkHttpClient(baseUrl, warmer, endpointRegistry, circuitBreaker, staleWhileRevalidate);
+        warmer.setClient(client);
+        staleWhileRevalidate.setCallFactory(client);
+        // Timeout per request mengikuti kualitas jaringan terakhir, urutan kirim mengikuti jalur prioritas.
+        PriorityDispatcher priorityDispatcher = new PriorityDispatcher(
+                new AdaptiveTimeoutCallFactory(client, networkQualityEstimator), maxRequestsPerHost);
+        retrofit = new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                // Format biner untuk endpoint yang memintanya lewat Accept, selain itu JSON.
+                .addConverterFactory(binaryConverterFactory)
+                .addConverterFactory(GsonConverterFactory.create())
+                // Paling depan: CompletableFuture dibangun di atas Call dari factory berikutnya.
+                .addCallAdapterFactory(completableFutureCallAdapterFactory)
+                .addCallAdapterFactory(coalescingCallAdapterFactory)
+                .addCallAdapterFactory(retryCallAdapterFactory)
+                .callFactory(priorityDispatcher)
+                .build();
+        clients.put(baseUrl, client);
+        warmers.put(baseUrl, warmer);
+        endpointRegistries.put(baseUrl, endpointRegistry);
+        priorityDispatchers.put(baseUrl, priorityDispatcher);
+        circuitBreakers.put(baseUrl, circuitBreaker);
+        staleWhileRevalidateInterceptors.put(baseUrl, staleWhileRevalidate);
+        retrofits.put(baseUrl, retrofit);
         return retrofit;
     }
+
+    /**
+     * Mengatur ukuran connection pool dan batas dispatcher. Pool hanya berlaku untuk
+     * client yang dibuat setelah ini, batas dispatcher langsung diterapkan ke client yang sudah ada.
+     */
+    public static synchronized void configure(int maxIdle, long keepAlive, TimeUnit unit,
+                                              int maxTotalRequests, int maxPerHost){
+        if (maxIdle < 0 || keepAlive <= 0 || maxTotalRequests < 1 || maxPerHost < 1){
+            throw new IllegalArgumentException("Konfigurasi connection pool tidak valid");
+        }
+        maxIdleConnections = maxIdle;
+        keepAliveMillis = unit.toMillis(keepAlive);
+        maxRequests = maxTotalRequests;
+        maxRequestsPerHost = maxPerHost;
+
+        for (OkHttpClient client : clients.values()){
+            client.dispatcher().setMaxRequests(maxRequests);
+            client.dispatcher().setMaxRequestsPerHost(maxRequestsPerHost);
+        }
+        for (PriorityDispatcher priorityDispatcher : priorityDispatchers.values()){
+            priorityDispatcher.setMaxRunning(maxRequestsPerHost);
+        }
+    }
+
+    /**
+     * Mengaktifkan cache response di disk. Harus dipanggil sebelum getClient pertama,
+     * biasanya dari Application.onCreate.
+     */
+    public static synchronized void setCacheDirectory(File directory){
+        if (!clients.isEmpty()){
+            throw new IllegalStateException("Cache harus diatur sebelum client pertama dibuat");
+        }
+        cache = new Cache(directory, CACHE_SIZE_BYTES);
+    }
+
+    /**
+     * Memasang simulator kondisi jaringan (2G/3G/Wi-Fi kampus) di depan jaringan asli. Sama seperti
+     * cache, harus dipanggil sebelum client pertama dibuat.
+     */
+    public static synchronized void setNetworkConditions(NetworkConditionInterceptor interceptor){
+        if (!clients.isEmpty()){
+            throw new IllegalStateException("Simulasi jaringan harus diatur sebelum client pertama dibuat");
+        }
+        networkConditions = interceptor;
+    }
+
+    public static synchronized Cache getCache(){
+        return cache;
+    }
+
+    public static CacheTtlInterceptor getCacheTtlInterceptor(){
+        return cacheTtlInterceptor;
+    }
+
+    public static NetworkLogInterceptor getLogInterceptor(){
+        return logInterceptor;
+    }
+
+    public static TransferStats getTransferStats(){
+        return transferStats;
+    }
+
+    public static NetworkQualityEstimator getNetworkQualityEstimator(){
+        return networkQualityEstimator;
+    }
+
+    public static CachingDns getDns(){
+        return dns;
+    }
+
+    public static BinaryConverterFactory getBinaryConverterFactory(){
+        return binaryConverterFactory;
+    }
+
+    public static CompletableFutureCallAdapterFactory getCompletableFutureCallAdapterFactory(){
+        return completableFutureCallAdapterFactory;
+    }
+
+    public static CoalescingCallAdapterFactory getCoalescingCallAdapterFactory(){
+        return coalescingCallAdapterFactory;
+    }
+
+    public static RetryCallAdapterFactory getRetryCallAdapterFactory(){
+        return retryCallAdapterFactory;
+    }
+
+    /**
+     * Membuka koneksi ke baseUrl di background sebelum dipakai layar pertama.
+     * Hasilnya bisa dibaca dari ConnectionWarmer yang dikembalikan.
+     */
+    public static synchronized ConnectionWarmer warmUp(String baseUrl){
+        getClient(baseUrl);
+        ConnectionWarmer warmer = warmers.get(baseUrl);
+        warmer.warmUp();
+        return warmer;
+    }
+
+    public static synchronized ConnectionWarmer getConnectionWarmer(String baseUrl){
+        getClient(baseUrl);
+        return warmers.get(baseUrl);
+    }
+
+    /**
+     * Backend tujuan untuk semua service yang dibuat dari baseUrl ini. Bisa diganti kapan saja
+     * tanpa membuat Retrofit baru.
+     */
+    public static synchronized EndpointRegistry getEndpointRegistry(String baseUrl){
+        getClient(baseUrl);
+        return endpointRegistries.get(baseUrl);
+    }
+
+    // Jumlah request dan lama antrian per jalur prioritas, untuk diagnosa.
+    public static synchronized PriorityDispatcher getPriorityDispatcher(String baseUrl){
+        getClient(baseUrl);
+        return priorityDispatchers.get(baseUrl);
+    }
+
+    // State circuit breaker per endpoint dari baseUrl ini.
+    public static synchronized CircuitBreakerInterceptor getCircuitBreaker(String baseUrl){
+        getClient(baseUrl);
+        return circuitBreakers.get(baseUrl);
+    }
+
+    // Jumlah response basi yang dikembalikan dan validasi ulang di background untuk baseUrl ini.
+    public static synchronized StaleWhileRevalidateInterceptor getStaleWhileRevalidateInterceptor(String baseUrl){
+        getClient(baseUrl);
+        return staleWhileRevalidateInterceptors.get(baseUrl);
+    }
+
+    public static synchronized OkHttpClient getOkHttpClient(String baseUrl){
+        getClient(baseUrl);
+        return clients.get(baseUrl);
+    }
+
+    public static long getHitCount(){
+        return hitCount.get();
+    }
+
+    public static long getMissCount(){
+        return missCount.get();
+    }
+
+    public static synchronized int getConnectionCount(){
+        int count = 0;
+        for (OkHttpClient client : clients.values()){
+            count += client.connectionPool().connectionCount();
+        }
+        return count;
+    }
+
+    public static synchronized int getIdleConnectionCount(){
+        int count = 0;
+        for (OkHttpClient client : clients.values()){
+            count += client.connectionPool().idleConnectionCount();
+        }
+        return count;
+    }
+
+    private static OkHttpClient buildOkHttpClient(String baseUrl, ConnectionWarmer warmer,
+                                                  EndpointRegistry endpointRegistry,
+                                                  CircuitBreakerInterceptor circuitBreaker,
+                                                  StaleWhileRevalidateInterceptor staleWhileRevalidate){
+        HttpUrl base = HttpUrl.parse(baseUrl);
+        String basePath = base == null ? null : base.encodedPath();
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMillis, TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .dns(dns)
+                .cache(cache)
+                .addInterceptor(endpointRegistry)
+                .addInterceptor(circuitBreaker)
+                .addInterceptor(staleWhileRevalidate)
+                .addInterceptor(logInterceptor)
+                .addInterceptor(new CompressionInterceptor(transferStats, basePath))
+                .addNetworkInterceptor(warmer)
+                .addNetworkInterceptor(cacheTtlInterceptor)
+                .addNetworkInterceptor(new WireBytesInterceptor(transferStats, basePath))
+                .addNetworkInterceptor(networkQualityEstimator);
+        if (networkConditions != null){
+            // Paling dekat ke jaringan, jadi response dari cache tidak ikut diperlambat.
+            builder.addNetworkInterceptor(networkConditions);
+        }
+        return builder.build();
+    }
 }
@@ -0,0 +1,28 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Menandai endpoint idempotent di BaseApiService yang boleh diulang otomatis oleh
+ * {@link RetryCallAdapterFactory} saat koneksi gagal atau server membalas 408/429/5xx.
+ */
+@Documented
+@Target(METHOD)
+@Retention(RUNTIME)
+public @interface Retry {
+
+    // Jumlah percobaan total, termasuk yang pertama.
+    int maxAttempts() default 3;
+
+    long initialBackoffMillis() default 500;
+
+    long maxBackoffMillis() default 4000;
+
+    // Kirim request cadangan jika belum ada balasan setelah latensi p95 endpoint ini.
+    boolean hedge() default false;
+}
@@ -0,0 +1,360 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Mengulang call dari endpoint yang ditandai {@link Retry} dengan exponential backoff + jitter.
+ * Jika {@link Retry#hedge()} aktif, request cadangan dikirim setelah latensi p95 endpoint terlewati
+ * dan balasan pertama yang berhasil yang dipakai.
+ */
+public class RetryCallAdapterFactory extends CallAdapter.Factory {
+
+    // Hedging baru aktif setelah cukup sampel untuk menghitung p95.
+    static final int DEFAULT_HEDGE_MIN_SAMPLES = 20;
+
+    private final ScheduledExecutorService scheduler;
+    private final int hedgeMinSamples;
+    private final Random random = new Random();
+
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    public RetryCallAdapterFactory() {
+        this(newScheduler(), DEFAULT_HEDGE_MIN_SAMPLES);
+    }
+
+    RetryCallAdapterFactory(ScheduledExecutorService scheduler, int hedgeMinSamples) {
+        this.scheduler = scheduler;
+        this.hedgeMinSamples = hedgeMinSamples;
+    }
+
+    @Override
+    public CallAdapter<?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        final Retry retry = findRetry(annotations);
+        if (getRawType(returnType) != Call.class || retry == null){
+            return null;
+        }
+        final CallAdapter<?> delegate = retrofit.nextCallAdapter(this, returnType, annotations);
+        // Satu tracker per endpoint, karena get() dipanggil sekali untuk setiap method service.
+        final LatencyTracker tracker = new LatencyTracker();
+        return new CallAdapter<Call<?>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public <R> Call<?> adapt(Call<R> call) {
+                return new RetryingCall<>((Call<R>) delegate.adapt(call), retry, tracker);
+            }
+        };
+    }
+
+    public long getRetryCount(){
+        return retryCount.get();
+    }
+
+    public long getHedgeCount(){
+        return hedgeCount.get();
+    }
+
+    public long getHedgeWinCount(){
+        return hedgeWinCount.get();
+    }
+
+    static boolean isRetryable(Response<?> response){
+        int code = response.code();
+        return code == 408 || code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    long backoffMillis(Retry retry, int attempt){
+        long exponential = retry.initialBackoffMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.max(1, Math.min(retry.maxBackoffMillis(), exponential));
+        long half = capped / 2;
+        synchronized (random){
+            return half + (long) (random.nextDouble() * (capped - half));
+        }
+    }
+
+    private static Retry findRetry(Annotation[] annotations){
+        for (Annotation annotation : annotations){
+            if (annotation instanceof Retry){
+                return (Retry) annotation;
+            }
+        }
+        return null;
+    }
+
+    private static ScheduledExecutorService newScheduler(){
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "api-retry");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private final class RetryingCall<T> implements Call<T> {
+
+        private final Call<T> original;
+        private final Retry retry;
+        private final LatencyTracker tracker;
+
+        // Semua field di bawah dijaga oleh lock this.
+        private final List<Call<T>> active = new ArrayList<>();
+        private Callback<T> callback;
+        private boolean executed;
+        private boolean delivered;
+        private int attempt;
+        private Call<T> hedgeCall;
+        // Percobaan berikutnya yang sedang menunggu backoff.
+        private ScheduledFuture<?> pendingRetry;
+        private volatile boolean canceled;
+
+        RetryingCall(Call<T> original, Retry retry, LatencyTracker tracker) {
+            this.original = original;
+            this.retry = retry;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            synchronized (this){
+                if (executed) throw new IllegalStateException("Already executed.");
+                executed = true;
+            }
+            Call<T> call = original;
+            for (int n = 1; ; n++){
+                long startNs = System.nanoTime();
+                try {
+                    Response<T> response = call.execute();
+                    recordLatency(response, startNs);
+                    if (!isRetryable(response) || n >= retry.maxAttempts() || canceled){
+                        return response;
+                    }
+                } catch (IOException e){
+                    if (n >= retry.maxAttempts() || canceled || e instanceof CircuitOpenException){
+                        throw e;
+                    }
+                }
+                retryCount.incrementAndGet();
+                try {
+                    Thread.sleep(backoffMillis(retry, n));
+                } catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Retry interrupted", e);
+                }
+                if (canceled){
+                    throw new IOException("Canceled");
+                }
+                call = original.clone();
+            }
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            synchronized (this){
+                if (executed) throw new IllegalStateException("Already executed.");
+                executed = true;
+                this.callback = callback;
+            }
+            start(original);
+            scheduleHedge();
+        }
+
+        private void start(final Call<T> call){
+            synchronized (this){
+                if (delivered || canceled){
+                    return;
+                }
+                active.add(call);
+            }
+            final long startNs = System.nanoTime();
+            call.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> c, Response<T> response) {
+                    recordLatency(response, startNs);
+                    if (isRetryable(response)){
+                        attemptFailed(call, null, response);
+                    } else {
+                        deliver(call, response);
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> c, Throwable t) {
+                    attemptFailed(call, t, null);
+                }
+            });
+        }
+
+        // Hanya response yang sepenuhnya dari server; cache, stale-while-revalidate dan 304 jauh lebih
+        // cepat dan akan membuat batas hedge terlalu rendah.
+        private void recordLatency(Response<T> response, long startNs){
+            okhttp3.Response raw = response.raw();
+            if (raw.networkResponse() != null && raw.cacheResponse() == null){
+                tracker.record((System.nanoTime() - startNs) / 1000000L);
+            }
+        }
+
+        private void scheduleHedge(){
+            if (!retry.hedge() || tracker.getSampleCount() < hedgeMinSamples){
+                return;
+            }
+            long deadline = tracker.percentile(95);
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    Call<T> hedge;
+                    synchronized (RetryingCall.this){
+                        if (delivered || canceled || attempt > 0 || active.isEmpty()){
+                            return;
+                        }
+                        hedge = original.clone();
+                        hedgeCall = hedge;
+                    }
+                    hedgeCount.incrementAndGet();
+                    start(hedge);
+                }
+            }, deadline, TimeUnit.MILLISECONDS);
+        }
+
+        private void deliver(Call<T> winner, Response<T> response){
+            List<Call<T>> losers;
+            Callback<T> target;
+            synchronized (this){
+                if (delivered){
+                    return;
+                }
+                delivered = true;
+                if (winner == hedgeCall){
+                    hedgeWinCount.incrementAndGet();
+                }
+                active.remove(winner);
+                losers = new ArrayList<>(active);
+                active.clear();
+                target = callback;
+            }
+            for (Call<T> loser : losers){
+                loser.cancel();
+            }
+            target.onResponse(this, response);
+        }
+
+        private void attemptFailed(Call<T> call, Throwable t, Response<T> response){
+            final long delay;
+            Callback<T> target = null;
+            synchronized (this){
+                active.remove(call);
+                // Masih ada request lain (hedge) yang berjalan, tunggu hasilnya.
+                if (delivered || !active.isEmpty()){
+                    return;
+                }
+                // Circuit yang terbuka tidak akan tertutup dalam waktu backoff, jadi tidak perlu diulang.
+                if (canceled || t instanceof CircuitOpenException || attempt + 1 >= retry.maxAttempts()){
+                    delivered = true;
+                    target = callback;
+                    delay = 0;
+                } else {
+                    attempt++;
+                    delay = backoffMillis(retry, attempt);
+                }
+            }
+
+            if (target != null){
+                if (response != null){
+                    target.onResponse(this, response);
+                } else {
+                    target.onFailure(this, t);
+                }
+                return;
+            }
+
+            retryCount.incrementAndGet();
+            synchronized (this){
+                if (canceled){
+                    // cancel() sudah berjalan saat tidak ada request aktif dan sudah mengirim onFailure.
+                    return;
+                }
+                pendingRetry = scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        start(original.clone());
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        // Jika tidak ada request yang berjalan (misalnya sedang menunggu backoff), onFailure dikirim dari sini.
+        @Override
+        public void cancel() {
+            List<Call<T>> running;
+            ScheduledFuture<?> retryTask;
+            Callback<T> target = null;
+            synchronized (this){
+                canceled = true;
+                running = new ArrayList<>(active);
+                retryTask = pendingRetry;
+                pendingRetry = null;
+                if (callback != null && !delivered && active.isEmpty()){
+                    delivered = true;
+                    target = callback;
+                }
+            }
+            if (retryTask != null){
+                retryTask.cancel(false);
+            }
+            original.cancel();
+            for (Call<T> call : running){
+                call.cancel();
+            }
+            if (target != null){
+                target.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new RetryingCall<>(original.clone(), retry, tracker);
+        }
+
+        @Override
+        public Request request() {
+            return original.request();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Request yang dimulai lebih awal untuk layar yang kemungkinan dibuka berikutnya (misalnya list dosen
+ * dan matkul dari MainActivity). Layar tujuan mengambilnya dengan {@link #take(String)}: jika request
+ * masih berjalan layar tinggal menunggu sisanya, jika sudah selesai response-nya langsung dipakai.
+ *
+ * Request-nya berupa method BaseApiService yang mengembalikan CompletableFuture&lt;Response&lt;T&gt;&gt;
+ * (lihat {@link CompletableFutureCallAdapterFactory}), membatalkan future membatalkan Call di bawahnya.
+ *
+ * Response yang gagal atau lebih tua dari maxAgeMillis dianggap tidak ada, layar membuat request
+ * sendiri seperti biasa. Setiap entry hanya bisa diambil satu kali.
+ */
+public class SpeculativeFetcher {
+
+    public static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final class Entry<T> {
+        final CompletableFuture<Response<T>> result;
+        final long startedNanos;
+        volatile long completedNanos;
+
+        Entry(CompletableFuture<Response<T>> result) {
+            this.result = result;
+            this.startedNanos = System.nanoTime();
+        }
+
+        // Future bisa sudah selesai sebelum whenComplete sempat mencatat waktunya.
+        long completedNanos(){
+            long completed = completedNanos;
+            return completed != 0 ? completed : System.nanoTime();
+        }
+    }
+
+    private final long maxAgeMillis;
+    private final Map<String, Entry<?>> entries = new HashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong unusedCount = new AtomicLong();
+    private final AtomicLong savedMillis = new AtomicLong();
+
+    public SpeculativeFetcher() {
+        this(DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    public SpeculativeFetcher(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Memulai request untuk key ini, kecuali masih ada entry yang belum diambil dan masih segar: request
+     * hanya dibuat (dan dikirim) jika perlu. Future yang dikembalikan boleh dipakai pemanggil sendiri
+     * (misalnya untuk ringkasan), tapi jangan dibatalkan karena response-nya untuk layar berikutnya.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CompletableFuture<Response<T>> start(String key,
+                                                                 Supplier<CompletableFuture<Response<T>>> request){
+        Entry<?> existing = entries.get(key);
+        if (existing != null && isUsable(existing)){
+            return (CompletableFuture<Response<T>>) (CompletableFuture<?>) existing.result;
+        }
+        if (existing != null){
+            unusedCount.incrementAndGet();
+        }
+        final Entry<T> entry = new Entry<>(request.get());
+        entries.put(key, entry);
+        entry.result.whenComplete(new BiConsumer<Response<T>, Throwable>() {
+            @Override
+            public void accept(Response<T> response, Throwable error) {
+                entry.completedNanos = System.nanoTime();
+            }
+        });
+        return entry.result;
+    }
+
+    /**
+     * Call pengganti untuk layar tujuan, atau null jika tidak ada request yang bisa dipakai.
+     * Callback dijalankan di thread tempat future speculative diselesaikan, atau langsung saat
+     * enqueue jika response sudah ada. Call ini tidak bisa di-clone karena tidak ada request
+     * pengganti, pakai {@link #take(String, Call)} jika perlu.
+     */
+    public <T> Call<T> take(String key){
+        return handoff(key, null);
+    }
+
+    /**
+     * Seperti {@link #take(String)}, tapi tidak pernah null. fallback dipakai jika tidak ada request yang
+     * bisa dipakai, atau jika request speculative yang diambil ternyata gagal atau dijawab selain 2xx
+     * (misalnya dibuang PriorityDispatcher karena berjalan di jalur prefetch).
+     */
+    public <T> Call<T> take(String key, Call<T> fallback){
+        Call<T> handoff = handoff(key, fallback);
+        return handoff != null ? handoff : fallback;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Call<T> handoff(String key, Call<T> fallback){
+        Entry<T> entry;
+        synchronized (this){
+            entry = (Entry<T>) entries.remove(key);
+        }
+        if (entry == null || !isUsable(entry)){
+            if (entry != null){
+                unusedCount.incrementAndGet();
+            }
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        // Waktu yang sudah berjalan sebelum layar dibuka tidak perlu ditunggu lagi.
+        long end = entry.result.isDone() ? entry.completedNanos() : System.nanoTime();
+        savedMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(end - entry.startedNanos));
+        return new HandoffCall<>(entry, fallback);
+    }
+
+    // Membatalkan semua request yang belum diambil, misalnya saat logout.
+    public void cancelAll(){
+        Map<String, Entry<?>> dropped;
+        synchronized (this){
+            dropped = new HashMap<>(entries);
+            entries.clear();
+        }
+        for (Entry<?> entry : dropped.values()){
+            unusedCount.incrementAndGet();
+            entry.result.cancel(true);
+        }
+    }
+
+    public long getHitCount(){
+        return hitCount.get();
+    }
+
+    public long getMissCount(){
+        return missCount.get();
+    }
+
+    // Request speculative yang tidak pernah dipakai (kadaluarsa, gagal, atau dibatalkan).
+    public long getUnusedCount(){
+        return unusedCount.get();
+    }
+
+    public double getHitRate(){
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // Total waktu tunggu yang dihemat layar tujuan.
+    public long getSavedMillis(){
+        return savedMillis.get();
+    }
+
+    // Masih berjalan, atau sudah berhasil dan belum terlalu tua.
+    private boolean isUsable(Entry<?> entry){
+        if (!entry.result.isDone()){
+            return true;
+        }
+        if (entry.result.isCompletedExceptionally() || !entry.result.getNow(null).isSuccessful()){
+            return false;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.completedNanos()) <= maxAgeMillis;
+    }
+
+    private static final class HandoffCall<T> implements Call<T> {
+
+        private final Entry<T> entry;
+        // Boleh null, request pengganti jika request speculative tidak menghasilkan response 2xx.
+        private final Call<T> fallback;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+
+        HandoffCall(Entry<T> entry, Call<T> fallback) {
+            this.entry = entry;
+            this.fallback = fallback;
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            Response<T> response;
+            try {
+                response = entry.result.get();
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            } catch (CancellationException | ExecutionException e){
+                if (fallback != null && !canceled){
+                    return fallback.execute();
+                }
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+            return fallback != null && !response.isSuccessful() ? fallback.execute() : response;
+        }
+
+        @Override
+        public void enqueue(final Callback<T> callback) {
+            executed = true;
+            entry.result.whenComplete(new BiConsumer<Response<T>, Throwable>() {
+                @Override
+                public void accept(Response<T> response, Throwable error) {
+                    if (canceled){
+                        callback.onFailure(HandoffCall.this, new IOException("Canceled"));
+                    } else if (fallback != null && (error != null || !response.isSuccessful())){
+                        enqueueFallback(callback);
+                    } else if (error != null){
+                        callback.onFailure(HandoffCall.this, error);
+                    } else {
+                        callback.onResponse(HandoffCall.this, response);
+                    }
+                }
+            });
+        }
+
+        private void enqueueFallback(final Callback<T> callback){
+            fallback.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    callback.onResponse(HandoffCall.this, response);
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    callback.onFailure(HandoffCall.this, t);
+                }
+            });
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            entry.result.cancel(true);
+            if (fallback != null){
+                fallback.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        // Salinan adalah request baru ke server, bukan hasil speculative.
+        @Override
+        public Call<T> clone() {
+            if (fallback == null){
+                throw new UnsupportedOperationException("Call speculative tanpa fallback tidak bisa di-clone");
+            }
+            return fallback.clone();
+        }
+
+        @Override
+        public Request request() {
+            if (fallback == null){
+                throw new UnsupportedOperationException("Call speculative tanpa fallback tidak punya request");
+            }
+            return fallback.request();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSource;
+
+/**
+ * Interceptor aplikasi untuk endpoint yang punya header {@link ApiHeaders#CACHE_SWR}.
+ * Response basi dari cache langsung dikembalikan, lalu validasi ulang berjalan di background.
+ */
+public class StaleWhileRevalidateInterceptor implements Interceptor {
+
+    private final Set<String> revalidating = Collections.synchronizedSet(new HashSet<String>());
+    private final AtomicLong staleServedCount = new AtomicLong();
+    private final AtomicLong revalidationCount = new AtomicLong();
+
+    private volatile Call.Factory callFactory;
+
+    // Dipanggil setelah OkHttpClient selesai dibuat, dipakai untuk request validasi ulang.
+    public void setCallFactory(Call.Factory callFactory){
+        this.callFactory = callFactory;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        int swr = ApiHeaders.parseSeconds(request.header(ApiHeaders.CACHE_SWR));
+        if (swr <= 0 || !"GET".equals(request.method()) || request.header("Cache-Control") != null){
+            return chain.proceed(request);
+        }
+
+        Response response = chain.proceed(request.newBuilder()
+                .cacheControl(new CacheControl.Builder().maxStale(swr, TimeUnit.SECONDS).build())
+                .build());
+
+        if (isStale(response)){
+            staleServedCount.incrementAndGet();
+            revalidate(request);
+        }
+        return response;
+    }
+
+    private boolean isStale(Response response){
+        if (response.networkResponse() != null || response.cacheResponse() == null){
+            return false;
+        }
+        for (String warning : response.headers("Warning")){
+            if (warning.startsWith("110")){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void revalidate(Request request){
+        Call.Factory factory = callFactory;
+        final String key = request.url().toString();
+        if (factory == null || !revalidating.add(key)){
+            return;
+        }
+        revalidationCount.incrementAndGet();
+
+        // max-age=0 membuat OkHttp mengirim If-None-Match/If-Modified-Since dan memperbarui cache saat 304.
+        Request conditional = request.newBuilder()
+                .cacheControl(new CacheControl.Builder().maxAge(0, TimeUnit.SECONDS).build())
+                .build();
+        factory.newCall(conditional).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                revalidating.remove(key);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) throws IOException {
+                // Body harus dibaca habis supaya OkHttp menulis versi baru ke cache.
+                BufferedSource source = response.body().source();
+                try {
+                    Buffer sink = new Buffer();
+                    while (source.read(sink, 8192) != -1){
+                        sink.clear();
+                    }
+                } finally {
+                    response.body().close();
+                    revalidating.remove(key);
+                }
+            }
+        });
+    }
+
+    public long getStaleServedCount(){
+        return staleServedCount.get();
+    }
+
+    public long getRevalidationCount(){
+        return revalidationCount.get();
+    }
+}
@@ -0,0 +1,220 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Membaca response list (misalnya {"semuamatkul":[...],"error":false}) secara streaming dengan
+ * JsonReader dan mengirim item per potongan ke listener, tanpa menunggu seluruh body terunduh.
+ * Dipakai bersama endpoint @Streaming di BaseApiService.
+ *
+ * Lewat {@link #load}, potongan berikutnya baru dibaca setelah listener menerima potongan sebelumnya,
+ * jadi body yang cepat tidak menumpuk seluruh list sebagai antrian tugas di main thread.
+ */
+public class StreamingListDecoder<T> {
+
+    public interface Listener<T> {
+        void onItems(List<T> items);
+
+        void onComplete(boolean error, String message, int total);
+
+        void onFailure(Throwable t);
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 20;
+
+    private static final Gson gson = new Gson();
+    // Selama menunggu potongan sebelumnya diterima, call dicek apakah sudah dibatalkan sekali per interval ini.
+    private static final long GATE_POLL_MILLIS = 100;
+    private static final ExecutorService decodeExecutor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "list-decoder");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final TypeAdapter<T> itemAdapter;
+    private final String arrayField;
+    private final int chunkSize;
+    private final Executor callbackExecutor;
+
+    public StreamingListDecoder(Class<T> itemType, String arrayField, int chunkSize, Executor callbackExecutor) {
+        if (chunkSize < 1){
+            throw new IllegalArgumentException("chunkSize harus lebih dari 0");
+        }
+        this.itemAdapter = gson.getAdapter(itemType);
+        this.arrayField = arrayField;
+        this.chunkSize = chunkSize;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    // Menjalankan call di thread background lalu men-decode body-nya. Listener dipanggil lewat callbackExecutor.
+    public void load(final Call<ResponseBody> call, final Listener<T> listener){
+        load(call, listener, null);
+    }
+
+    /**
+     * Seperti {@link #load(Call, Listener)}, onFinished dijalankan di thread decode begitu call selesai
+     * (body habis dibaca atau gagal), sebelum onComplete/onFailure dikirim. Misalnya
+     * {@link CallScope#untrackOnFinish(Call)} supaya call yang sudah selesai tidak dihitung dibatalkan.
+     */
+    public void load(final Call<ResponseBody> call, final Listener<T> listener, final Runnable onFinished){
+        decodeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Response<ResponseBody> response = call.execute();
+                    if (!response.isSuccessful()){
+                        response.errorBody().close();
+                        throw new HttpException(response.code(), response.message());
+                    }
+                    decode(response.body(), listener, onFinished, new ChunkGate(call));
+                } catch (final Throwable t){
+                    finished(onFinished);
+                    if (call.isCanceled()){
+                        return;
+                    }
+                    callbackExecutor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onFailure(t);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    // Decode sinkron di thread pemanggil, hanya satu potongan item yang ditahan di memori selama parsing.
+    // Tidak menunggu listener, jadi callbackExecutor sebaiknya langsung menjalankan tugasnya.
+    public void decode(ResponseBody body, final Listener<T> listener) throws IOException {
+        decode(body, listener, null, null);
+    }
+
+    // gate null berarti potongan dikirim tanpa menunggu listener.
+    private void decode(ResponseBody body, final Listener<T> listener, Runnable onFinished,
+                        ChunkGate gate) throws IOException {
+        JsonReader reader = new JsonReader(body.charStream());
+        boolean error = false;
+        String message = null;
+        int total = 0;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()){
+                String name = reader.nextName();
+                if (name.equals(arrayField) && reader.peek() == JsonToken.BEGIN_ARRAY){
+                    total += readItems(reader, listener, gate);
+                } else if (name.equals("error") && reader.peek() == JsonToken.BOOLEAN){
+                    error = reader.nextBoolean();
+                } else if (name.equals("message") && reader.peek() == JsonToken.STRING){
+                    message = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } finally {
+            reader.close();
+        }
+        finished(onFinished);
+
+        final boolean finalError = error;
+        final String finalMessage = message;
+        final int finalTotal = total;
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                listener.onComplete(finalError, finalMessage, finalTotal);
+            }
+        });
+    }
+
+    private static void finished(Runnable onFinished){
+        if (onFinished != null){
+            onFinished.run();
+        }
+    }
+
+    private int readItems(JsonReader reader, Listener<T> listener, ChunkGate gate) throws IOException {
+        int count = 0;
+        List<T> chunk = new ArrayList<>(chunkSize);
+        reader.beginArray();
+        while (reader.hasNext()){
+            chunk.add(itemAdapter.read(reader));
+            count++;
+            if (chunk.size() == chunkSize){
+                emit(chunk, listener, gate);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        reader.endArray();
+        if (!chunk.isEmpty()){
+            emit(chunk, listener, gate);
+        }
+        return count;
+    }
+
+    private void emit(final List<T> chunk, final Listener<T> listener, final ChunkGate gate) throws IOException {
+        if (gate != null){
+            gate.awaitPrevious();
+        }
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    listener.onItems(chunk);
+                } finally {
+                    if (gate != null){
+                        gate.consumed.release();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Satu per load: hanya satu potongan yang menunggu di callbackExecutor. Tugas yang dibuang
+     * callbackExecutor (misalnya {@link CallScope#wrap}) tidak pernah melepas gate, jadi selama
+     * menunggu decoder berhenti begitu call-nya dibatalkan.
+     */
+    private static final class ChunkGate {
+        final Semaphore consumed = new Semaphore(1);
+        final Call<?> call;
+
+        ChunkGate(Call<?> call) {
+            this.call = call;
+        }
+
+        void awaitPrevious() throws IOException {
+            try {
+                while (!consumed.tryAcquire(GATE_POLL_MILLIS, TimeUnit.MILLISECONDS)){
+                    if (call.isCanceled()){
+                        throw new IOException("Canceled");
+                    }
+                }
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Decode dihentikan");
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+
+/**
+ * Mencatat byte yang lewat jaringan (wire) dan byte setelah didekompresi (decoded) per endpoint,
+ * untuk melihat penghematan bandwidth dari kompresi dan cache. Byte abandoned adalah sisa body
+ * yang tidak diunduh karena response-nya ditutup sebelum selesai dibaca.
+ */
+public class TransferStats {
+
+    private final Map<String, AtomicLong> wireBytes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> decodedBytes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> abandonedBytes = new ConcurrentHashMap<>();
+
+    /**
+     * Nama endpoint dari request, relatif terhadap basePath. Segmen setelah yang pertama dianggap
+     * parameter, jadi "dosen/Budi" dan "dosen/Ani" sama-sama menjadi "GET dosen/*".
+     */
+    public static String endpointOf(Request request, String basePath){
+        HttpUrl url = request.url();
+        String path = url.encodedPath();
+        if (basePath != null && path.startsWith(basePath)){
+            path = path.substring(basePath.length());
+        } else if (path.startsWith("/")){
+            path = path.substring(1);
+        }
+        int slash = path.indexOf('/');
+        if (slash >= 0 && slash < path.length() - 1){
+            path = path.substring(0, slash) + "/*";
+        }
+        return request.method() + " " + path;
+    }
+
+    public void recordWire(String endpoint, long bytes){
+        counter(wireBytes, endpoint).addAndGet(bytes);
+    }
+
+    public void recordDecoded(String endpoint, long bytes){
+        counter(decodedBytes, endpoint).addAndGet(bytes);
+    }
+
+    public void recordAbandoned(String endpoint, long bytes){
+        counter(abandonedBytes, endpoint).addAndGet(bytes);
+    }
+
+    public long getWireBytes(String endpoint){
+        AtomicLong counter = wireBytes.get(endpoint);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public long getDecodedBytes(String endpoint){
+        AtomicLong counter = decodedBytes.get(endpoint);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public long getAbandonedBytes(String endpoint){
+        AtomicLong counter = abandonedBytes.get(endpoint);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public long getTotalAbandonedBytes(){
+        long total = 0;
+        for (AtomicLong counter : abandonedBytes.values()){
+            total += counter.get();
+        }
+        return total;
+    }
+
+    public List<String> getEndpoints(){
+        List<String> endpoints = new ArrayList<>(decodedBytes.keySet());
+        for (String endpoint : wireBytes.keySet()){
+            if (!endpoints.contains(endpoint)){
+                endpoints.add(endpoint);
+            }
+        }
+        return endpoints;
+    }
+
+    private static AtomicLong counter(Map<String, AtomicLong> map, String endpoint){
+        AtomicLong counter = map.get(endpoint);
+        if (counter == null){
+            synchronized (map){
+                counter = map.get(endpoint);
+                if (counter == null){
+                    counter = new AtomicLong();
+                    map.put(endpoint, counter);
+                }
+            }
+        }
+        return counter;
+    }
+}
@@ -1,5 +1,8 @@
 package com.meridianid.farizdotid.mahasiswaapp.util.api;
 
+import java.io.File;
+import java.util.concurrent.Executor;
+
 /**
  * Created by fariz ramadhan.
  * website : www.farizdotid.com
@@ -10,8 +13,65 @@ public class UtilsApi {
     // 10.0.2.2 ini adalah localhost.
     public static final String BASE_URL_API = "http://10.0.2.2/mahasiswa/";
 
+    private static MatkulBatcher matkulBatcher;
+    private static MatkulOutbox matkulOutbox;
+    private static SpeculativeFetcher speculativeFetcher;
+
     // Mendeklarasikan Interface BaseApiService
     public static BaseApiService getAPIService(){
         return RetrofitClient.getClient(BASE_URL_API).create(BaseApiService.class);
     }
+
+    // Satu batcher untuk seluruh aplikasi supaya tambah/hapus dari beberapa layar ikut digabung
+    public static synchronized MatkulBatcher getMatkulBatcher(){
+        if (matkulBatcher == null){
+            matkulBatcher = new MatkulBatcher(getAPIService());
+        }
+        return matkulBatcher;
+    }
+
+    // Dipanggil sekali dari MahasiswaApp, antrian disimpan di filesDir supaya tidak dihapus seperti cache
+    public static synchronized MatkulOutbox initMatkulOutbox(File directory, Executor callbackExecutor){
+        if (matkulOutbox == null){
+            matkulOutbox = new MatkulOutbox(new File(directory, "matkul-outbox.log"), getMatkulBatcher(),
+                    callbackExecutor);
+        }
+        return matkulOutbox;
+    }
+
+    // Tambah/hapus matkul dari layar mana pun lewat antrian ini supaya tidak hilang saat offline
+    public static synchronized MatkulOutbox getMatkulOutbox(){
+        if (matkulOutbox == null){
+            throw new IllegalStateException("MatkulOutbox belum diinisialisasi");
+        }
+        return matkulOutbox;
+    }
+
+    // Request yang dimulai MainActivity lalu diserahkan ke DosenActivity/MatkulActivity
+    public static synchronized SpeculativeFetcher getSpeculativeFetcher(){
+        if (speculativeFetcher == null){
+            speculativeFetcher = new SpeculativeFetcher();
+        }
+        return speculativeFetcher;
+    }
+
+    // Pindah antara server lokal, staging, produksi atau mirror kampus tanpa membuat ulang service
+    public static EndpointRegistry getEndpointRegistry(){
+        return RetrofitClient.getEndpointRegistry(BASE_URL_API);
+    }
+
+    // Perkiraan kualitas jaringan dari request yang sudah lewat, untuk ukuran halaman dan prefetch
+    public static NetworkQualityEstimator getNetworkQuality(){
+        return RetrofitClient.getNetworkQualityEstimator();
+    }
+
+    // Circuit breaker per endpoint, untuk melihat endpoint mana yang sedang dihentikan sementara
+    public static CircuitBreakerInterceptor getCircuitBreaker(){
+        return RetrofitClient.getCircuitBreaker(BASE_URL_API);
+    }
+
+    // Membuka koneksi ke server lebih awal supaya request pertama lebih cepat
+    public static ConnectionWarmer warmUp(){
+        return RetrofitClient.warmUp(BASE_URL_API);
+    }
 }
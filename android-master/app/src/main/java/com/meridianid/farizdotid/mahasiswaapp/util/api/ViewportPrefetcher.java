@@ -0,0 +1,320 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Mengambil data per baris (misalnya detail dosen) untuk baris yang terlihat dan lookahead baris di
+ * sekitarnya, sebelum baris itu dibuka. Antriannya dibatasi dan diurutkan dari yang paling dekat ke
+ * layar; baris yang sudah di-scroll jauh dibuang dari antrian dan request-nya dibatalkan.
+ * Hasilnya disimpan di cache LRU kecil sehingga {@link #load} bisa langsung menjawab.
+ *
+ * @param <V> tipe body response per baris
+ */
+public abstract class ViewportPrefetcher<V> {
+
+    public interface Callback<V> {
+        void onResult(V value);
+
+        void onFailure(Throwable t);
+    }
+
+    public static final int DEFAULT_LOOKAHEAD = 5;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 2;
+    public static final int DEFAULT_MAX_QUEUED = 20;
+    public static final int DEFAULT_CACHE_SIZE = 50;
+
+    private static final class InFlight<V> {
+        final String key;
+        final Call<V> call;
+        // Dimulai dari createCall (prefetch), bukan createLoadCall.
+        final boolean prefetch;
+        // Pemanggil load() yang menunggu. Request dengan penunggu tidak ikut dibatalkan saat scroll.
+        final List<Callback<V>> waiters = new ArrayList<>();
+
+        InFlight(String key, Call<V> call, boolean prefetch) {
+            this.key = key;
+            this.call = call;
+            this.prefetch = prefetch;
+        }
+    }
+
+    // Urutan akses, entry yang paling lama tidak dibaca dibuang begitu ukurannya lewat maxSize.
+    private static final class LruCache<V> extends LinkedHashMap<String, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    private final int lookahead;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Map<String, V> cache;
+
+    private final Map<String, InFlight<V>> inFlight = new HashMap<>();
+    // Key yang menunggu giliran, urut dari prioritas tertinggi.
+    private final List<String> queue = new ArrayList<>();
+    private int lastFirst = -1;
+    private int lastLast = -1;
+    private int lastSize = -1;
+
+    private final AtomicLong prefetchCount = new AtomicLong();
+    private final AtomicLong cancelledCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    protected ViewportPrefetcher() {
+        this(DEFAULT_LOOKAHEAD, DEFAULT_MAX_IN_FLIGHT, DEFAULT_MAX_QUEUED, DEFAULT_CACHE_SIZE);
+    }
+
+    protected ViewportPrefetcher(int lookahead, int maxInFlight, int maxQueued, int cacheSize) {
+        if (lookahead < 0 || maxInFlight < 1 || maxQueued < 1 || cacheSize < 1){
+            throw new IllegalArgumentException("Konfigurasi prefetch tidak valid");
+        }
+        this.lookahead = lookahead;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.cache = new LruCache<>(cacheSize);
+    }
+
+    protected abstract Call<V> createCall(String key);
+
+    // Call untuk load() yang ditunggu pengguna, bisa dibedakan dari prefetch (misalnya jalur prioritasnya).
+    protected Call<V> createLoadCall(String key){
+        return createCall(key);
+    }
+
+    // Response error (misalnya dosen tidak ditemukan) tidak perlu disimpan.
+    protected boolean isCacheable(V value){
+        return value != null;
+    }
+
+    public synchronized V getCached(String key){
+        return cache.get(key);
+    }
+
+    /**
+     * Dipanggil saat baris yang terlihat berubah. keys adalah key semua baris sesuai urutan adapter,
+     * firstVisible dan lastVisible posisi dari LayoutManager.
+     */
+    public void onViewportChanged(List<String> keys, int firstVisible, int lastVisible){
+        List<InFlight<V>> cancelled = new ArrayList<>();
+        List<Runnable> starts;
+        synchronized (this){
+            if (firstVisible < 0 || lastVisible < firstVisible || keys.isEmpty()){
+                return;
+            }
+            if (firstVisible == lastFirst && lastVisible == lastLast && keys.size() == lastSize){
+                return;
+            }
+            lastFirst = firstVisible;
+            lastLast = lastVisible;
+            lastSize = keys.size();
+
+            List<String> wanted = wantedKeys(keys, firstVisible, lastVisible);
+            Set<String> wantedSet = new HashSet<>(wanted);
+            for (InFlight<V> flight : new ArrayList<>(inFlight.values())){
+                if (flight.waiters.isEmpty() && !wantedSet.contains(flight.key)){
+                    inFlight.remove(flight.key);
+                    cancelled.add(flight);
+                }
+            }
+
+            queue.clear();
+            for (String key : wanted){
+                if (!cache.containsKey(key) && !inFlight.containsKey(key)){
+                    queue.add(key);
+                }
+            }
+            starts = dispatch();
+        }
+        for (InFlight<V> flight : cancelled){
+            flight.call.cancel();
+            cancelledCount.incrementAndGet();
+        }
+        run(starts);
+    }
+
+    // Untuk membuka satu baris. Dari cache jika ada, menumpang request prefetch jika sedang berjalan.
+    public void load(String key, Callback<V> callback){
+        V cached;
+        Runnable start = null;
+        synchronized (this){
+            cached = cache.get(key);
+            if (cached == null){
+                missCount.incrementAndGet();
+                InFlight<V> flight = inFlight.get(key);
+                if (flight == null){
+                    queue.remove(key);
+                    flight = new InFlight<>(key, createLoadCall(key), false);
+                    inFlight.put(key, flight);
+                    start = starter(flight);
+                }
+                flight.waiters.add(callback);
+            } else {
+                hitCount.incrementAndGet();
+            }
+        }
+        if (cached != null){
+            callback.onResult(cached);
+        } else if (start != null){
+            start.run();
+        }
+    }
+
+    // Dipanggil dari onDestroy: antrian dikosongkan dan semua request dibatalkan.
+    public void cancelAll(){
+        List<InFlight<V>> running;
+        synchronized (this){
+            running = new ArrayList<>(inFlight.values());
+            inFlight.clear();
+            queue.clear();
+        }
+        for (InFlight<V> flight : running){
+            flight.call.cancel();
+            cancelledCount.incrementAndGet();
+        }
+    }
+
+    public synchronized int getQueuedCount(){
+        return queue.size();
+    }
+
+    public synchronized int getInFlightCount(){
+        return inFlight.size();
+    }
+
+    // Request jaringan yang dimulai oleh prefetch, bukan oleh load().
+    public long getPrefetchCount(){
+        return prefetchCount.get();
+    }
+
+    public long getCancelledCount(){
+        return cancelledCount.get();
+    }
+
+    public long getHitCount(){
+        return hitCount.get();
+    }
+
+    public long getMissCount(){
+        return missCount.get();
+    }
+
+    // Baris terlihat dari atas ke bawah, lalu melebar selang-seling ke bawah dan ke atas sejauh lookahead.
+    private List<String> wantedKeys(List<String> keys, int firstVisible, int lastVisible){
+        List<String> wanted = new ArrayList<>();
+        int last = Math.min(lastVisible, keys.size() - 1);
+        for (int i = firstVisible; i <= last && wanted.size() < maxQueued; i++){
+            wanted.add(keys.get(i));
+        }
+        for (int d = 1; d <= lookahead && wanted.size() < maxQueued; d++){
+            if (last + d < keys.size()){
+                wanted.add(keys.get(last + d));
+            }
+            if (firstVisible - d >= 0 && wanted.size() < maxQueued){
+                wanted.add(keys.get(firstVisible - d));
+            }
+        }
+        return wanted;
+    }
+
+    // Harus dipanggil dengan lock. Request dijalankan setelah lock dilepas lewat run().
+    private List<Runnable> dispatch(){
+        List<Runnable> starts = new ArrayList<>();
+        while (inFlight.size() < maxInFlight && !queue.isEmpty()){
+            String key = queue.remove(0);
+            InFlight<V> flight = new InFlight<>(key, createCall(key), true);
+            inFlight.put(key, flight);
+            prefetchCount.incrementAndGet();
+            starts.add(starter(flight));
+        }
+        return starts;
+    }
+
+    private static void run(List<Runnable> starts){
+        for (Runnable start : starts){
+            start.run();
+        }
+    }
+
+    private Runnable starter(final InFlight<V> flight){
+        return new Runnable() {
+            @Override
+            public void run() {
+                flight.call.enqueue(new retrofit2.Callback<V>() {
+                    @Override
+                    public void onResponse(Call<V> call, Response<V> response) {
+                        V value = response.isSuccessful() ? response.body() : null;
+                        if (value == null){
+                            finish(flight, null, new HttpException(response.code(), response.message()));
+                        } else {
+                            finish(flight, value, null);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<V> call, Throwable t) {
+                        finish(flight, null, t);
+                    }
+                });
+            }
+        };
+    }
+
+    private void finish(InFlight<V> flight, V value, Throwable error){
+        List<Callback<V>> waiters;
+        List<Runnable> starts;
+        synchronized (this){
+            if (inFlight.get(flight.key) != flight){
+                // Sudah dibatalkan karena di-scroll jauh atau layar ditutup.
+                return;
+            }
+            boolean noAnswer = error != null && !(error instanceof HttpException);
+            if (flight.prefetch && !flight.waiters.isEmpty() && noAnswer){
+                // Prefetch yang ditumpangi load() gagal tanpa jawaban server (misalnya dibuang dispatcher
+                // karena didahului aksi pengguna): ulangi sebagai request load, penunggunya tidak ikut gagal.
+                InFlight<V> retry = new InFlight<>(flight.key, createLoadCall(flight.key), false);
+                retry.waiters.addAll(flight.waiters);
+                inFlight.put(flight.key, retry);
+                starts = Collections.singletonList(starter(retry));
+                waiters = Collections.emptyList();
+            } else {
+                inFlight.remove(flight.key);
+                if (value != null && isCacheable(value)){
+                    cache.put(flight.key, value);
+                }
+                waiters = new ArrayList<>(flight.waiters);
+                starts = dispatch();
+            }
+        }
+        for (Callback<V> waiter : waiters){
+            if (error == null){
+                waiter.onResult(value);
+            } else {
+                waiter.onFailure(error);
+            }
+        }
+        run(starts);
+    }
+}
@@ -0,0 +1,49 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Okio;
+
+/**
+ * Network interceptor yang menghitung byte body response persis seperti diterima dari jaringan,
+ * sebelum didekompresi oleh {@link CompressionInterceptor}. Body yang ditutup sebelum habis
+ * (misalnya call-nya dibatalkan {@link CallScope}) dicatat sisa Content-Length-nya sebagai byte
+ * yang tidak jadi diunduh.
+ */
+public class WireBytesInterceptor implements Interceptor {
+
+    private final TransferStats stats;
+    private final String basePath;
+
+    public WireBytesInterceptor(TransferStats stats, String basePath) {
+        this.stats = stats;
+        this.basePath = basePath;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        final String endpoint = TransferStats.endpointOf(chain.request(), basePath);
+        Response response = chain.proceed(chain.request());
+        ResponseBody body = response.body();
+        if (body == null){
+            return response;
+        }
+
+        final long contentLength = body.contentLength();
+        CountingSource counting = new CountingSource(body.source()) {
+            @Override
+            protected void onComplete(long bytes) {
+                stats.recordWire(endpoint, bytes);
+                if (!isExhausted() && contentLength > bytes){
+                    stats.recordAbandoned(endpoint, contentLength - bytes);
+                }
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(counting)))
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class BinaryConverterFactoryTest {
+
+    private MockWebServer server;
+    private BinaryConverterFactory binaryFactory;
+    private BaseApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        binaryFactory = BinaryConverterFactory.create();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/mahasiswa/"))
+                .addConverterFactory(binaryFactory)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(BaseApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void binaryResponse_isDecodedWithCodec() throws Exception {
+        ResponseMatkul original = matkul(3);
+        Buffer body = new Buffer();
+        BinaryWire.encode(BinaryCodecs.MATKUL, original, body);
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", BinaryWire.CONTENT_TYPE)
+                .setBody(body));
+
+        ResponseMatkul decoded = apiService.getMatkulPage(null, 20).execute().body();
+
+        assertEquals(BinaryWire.ACCEPT, server.takeRequest().getHeader("Accept"));
+        assertEquals(42, decoded.getVersion());
+        assertEquals("next", decoded.getNextCursor());
+        assertNull(decoded.getMessage());
+        assertEquals(3, decoded.getSemuamatkul().size());
+        assertEquals("2", decoded.getSemuamatkul().get(2).getId());
+        assertEquals("Dosen 2", decoded.getSemuamatkul().get(2).getNamaDosen());
+        assertEquals(1, binaryFactory.getBinaryCount());
+    }
+
+    @Test
+    public void jsonResponse_fallsBackToGson() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"semuamatkul\":[{\"id\":\"7\",\"nama_dosen\":\"Budi\",\"matkul\":\"Basis Data\"}],"
+                        + "\"error\":false,\"version\":3}"));
+
+        ResponseMatkul decoded = apiService.getMatkulPage(null, 20).execute().body();
+
+        assertEquals("Budi", decoded.getSemuamatkul().get(0).getNamaDosen());
+        assertEquals(3, decoded.getVersion());
+        assertEquals(1, binaryFactory.getFallbackCount());
+        assertEquals(0, binaryFactory.getBinaryCount());
+    }
+
+    @Test
+    public void repeatedStrings_areSentOnce() throws Exception {
+        ResponseMatkul response = matkul(100);
+        Buffer binary = new Buffer();
+        BinaryWire.encode(BinaryCodecs.MATKUL, response, binary);
+
+        // 5 nama dosen dan 20 matkul: setelah kemunculan pertama cukup referensi 1 byte.
+        assertTrue(binary.size() < 100 * 6 + 25 * 10);
+        assertTrue(binary.size() < new Gson().toJson(response).length() / 4);
+    }
+
+    @Test
+    public void dosenWithoutRepeats_isStillSmallerThanJson() throws Exception {
+        List<SemuadosenItem> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++){
+            SemuadosenItem item = new SemuadosenItem();
+            item.setId(String.valueOf(i));
+            item.setNama("Dosen " + i);
+            item.setMatkul("Matkul " + (i % 20));
+            items.add(item);
+        }
+        ResponseDosen response = new ResponseDosen();
+        response.setSemuadosen(items);
+        Buffer binary = new Buffer();
+        BinaryWire.encode(BinaryCodecs.DOSEN, response, binary);
+
+        // Nama field dan tanda kutip tidak ikut dikirim.
+        assertTrue(binary.size() < new Gson().toJson(response).length() / 2);
+    }
+
+    private static ResponseMatkul matkul(int count){
+        List<SemuamatkulItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++){
+            SemuamatkulItem item = new SemuamatkulItem();
+            item.setId(String.valueOf(i));
+            item.setNamaDosen("Dosen " + (i % 5));
+            item.setMatkul("Matkul " + (i % 20));
+            items.add(item);
+        }
+        ResponseMatkul response = new ResponseMatkul();
+        response.setSemuamatkul(items);
+        response.setNextCursor("next");
+        response.setVersion(42);
+        return response;
+    }
+}
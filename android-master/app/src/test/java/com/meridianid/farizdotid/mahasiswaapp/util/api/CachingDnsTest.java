@@ -0,0 +1,144 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Dns;
+
+import static org.junit.Assert.*;
+
+public class CachingDnsTest {
+
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    public void lookup_isCachedUntilTtl() throws Exception {
+        FakeDns resolver = new FakeDns(address("10.0.0.1"));
+        CachingDns dns = new CachingDns(resolver, 60000, 0, 1000, 1000, clock, null);
+
+        assertEquals(resolver.addresses, dns.lookup("kampus"));
+        clock.now += 59000;
+        assertEquals(resolver.addresses, dns.lookup("kampus"));
+        assertEquals(1, resolver.calls.get());
+
+        clock.now += 1000;
+        dns.lookup("kampus");
+        assertEquals(2, resolver.calls.get());
+        assertEquals(1, dns.getHitCount());
+        assertEquals(2, dns.getMissCount());
+        assertEquals(2, dns.getLookupCount());
+    }
+
+    @Test
+    public void staleAddresses_areUsedWhenResolverFailsOrStalls() throws Exception {
+        FakeDns resolver = new FakeDns(address("10.0.0.1"));
+        CachingDns dns = new CachingDns(resolver, 1000, 60000, 50, 1000, clock, null);
+        List<InetAddress> first = dns.lookup("kampus");
+
+        clock.now += 2000;
+        resolver.failure = new UnknownHostException("kampus");
+        assertEquals(first, dns.lookup("kampus"));
+
+        resolver.failure = null;
+        resolver.stall = new CountDownLatch(1);
+        assertEquals(first, dns.lookup("kampus"));
+        assertEquals(2, dns.getStaleCount());
+        assertEquals(1, dns.getFailureCount());
+        resolver.stall.countDown();
+
+        // Tanpa alamat lama, kegagalan resolver diteruskan ke OkHttp.
+        resolver.failure = new UnknownHostException("lain");
+        try {
+            dns.lookup("lain");
+            fail();
+        } catch (UnknownHostException expected){
+        }
+    }
+
+    @Test
+    public void race_runsInBackgroundAndReordersNextLookup() throws Exception {
+        InetAddress v6a = address("2001:db8::1");
+        InetAddress v6b = address("2001:db8::2");
+        InetAddress v4a = address("10.0.0.1");
+        InetAddress v4b = address("10.0.0.2");
+        FakeDns resolver = new FakeDns(v6a, v6b, v4a, v4b);
+        // IPv6 tidak bisa dijangkau, seperti di banyak jaringan kampus.
+        CachingDns.Connector connector = new CachingDns.Connector() {
+            @Override
+            public void connect(InetSocketAddress address, int timeoutMillis) throws IOException {
+                if (address.getAddress().getAddress().length == 16){
+                    throw new IOException("Network is unreachable");
+                }
+            }
+        };
+        CachingDns dns = new CachingDns(resolver, 60000, 0, 1000, 5000, clock, connector);
+        dns.raceOn("kampus", 80);
+
+        // Lookup pertama tidak menunggu balapan, urutan resolver dipakai.
+        assertEquals(Arrays.asList(v6a, v4a, v6b, v4b), dns.lookup("kampus"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dns.getIpv4WinCount() == 0 && System.currentTimeMillis() < deadline){
+            Thread.sleep(10);
+        }
+        assertEquals(1, dns.getIpv4WinCount());
+        assertEquals(0, dns.getIpv6WinCount());
+        assertEquals(Arrays.asList(v4a, v6a, v4b, v6b), dns.lookup("kampus"));
+
+        // Setelah ttl lookup baru langsung memakai pemenang, tanpa balapan ulang sebelum intervalnya.
+        clock.now += 60000;
+        assertEquals(Arrays.asList(v4a, v6a, v4b, v6b), dns.lookup("kampus"));
+        Thread.sleep(50);
+        assertEquals(1, dns.getIpv4WinCount());
+
+        // Host tanpa port balapan hanya diselang-seling mengikuti urutan resolver.
+        assertEquals(Arrays.asList(v6a, v4a, v6b, v4b), dns.lookup("lain"));
+    }
+
+    private static InetAddress address(String literal) throws UnknownHostException {
+        return InetAddress.getByName(literal);
+    }
+
+    private static class FakeClock implements CachingDns.Clock {
+        volatile long now;
+
+        @Override
+        public long millis() {
+            return now;
+        }
+    }
+
+    private static class FakeDns implements Dns {
+        final List<InetAddress> addresses;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile UnknownHostException failure;
+        volatile CountDownLatch stall;
+
+        FakeDns(InetAddress... addresses) {
+            this.addresses = Arrays.asList(addresses);
+        }
+
+        @Override
+        public List<InetAddress> lookup(String hostname) throws UnknownHostException {
+            calls.incrementAndGet();
+            if (stall != null){
+                try {
+                    stall.await();
+                } catch (InterruptedException e){
+                    throw new UnknownHostException(hostname);
+                }
+            }
+            if (failure != null){
+                throw failure;
+            }
+            return addresses;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class CallScopeTest {
+
+    private MockWebServer server;
+    private TransferStats stats;
+    private BaseApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        stats = new TransferStats();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addNetworkInterceptor(new WireBytesInterceptor(stats, "/mahasiswa/"))
+                .build();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/mahasiswa/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .client(client)
+                .build()
+                .create(BaseApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void cancel_stopsDownloadAndDropsLateCallback() throws Exception {
+        StringBuilder body = new StringBuilder("{\"semuadosen\":[");
+        for (int i = 0; i < 2000; i++){
+            body.append(i == 0 ? "" : ",").append("{\"id\":\"").append(i).append("\",\"nama\":\"Dosen\"}");
+        }
+        body.append("]}");
+        server.enqueue(new MockResponse().setBody(body.toString()).throttleBody(1024, 50, TimeUnit.MILLISECONDS));
+
+        CallScope scope = new CallScope();
+        RecordingCallback callback = new RecordingCallback();
+        scope.enqueue(apiService.getSemuaDosen(null), callback);
+        server.takeRequest();
+        Thread.sleep(200);
+        scope.cancel();
+
+        assertFalse(callback.called.await(500, TimeUnit.MILLISECONDS));
+        assertEquals(1, scope.getCancelledCount());
+        assertEquals(1, scope.getDroppedCallbackCount());
+        assertEquals(0, scope.getActiveCount());
+        assertTrue(stats.getAbandonedBytes("GET semuadosen") > 0);
+    }
+
+    @Test
+    public void finishedCall_isNotCountedAsCancelled() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"semuadosen\":[]}"));
+
+        CallScope scope = new CallScope();
+        RecordingCallback callback = new RecordingCallback();
+        scope.enqueue(apiService.getSemuaDosen(null), callback);
+        assertTrue(callback.called.await(5, TimeUnit.SECONDS));
+        scope.cancel();
+
+        assertEquals(0, scope.getCancelledCount());
+        assertEquals(0, scope.getDroppedCallbackCount());
+        assertEquals(0, stats.getAbandonedBytes("GET semuadosen"));
+    }
+
+    @Test
+    public void finishedTrackedCall_isNotCountedAsCancelled() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"semuadosen\":[{\"nama\":\"Budi\"}]}"));
+        final CountDownLatch complete = new CountDownLatch(1);
+        StreamingListDecoder<SemuadosenItem> decoder = new StreamingListDecoder<>(SemuadosenItem.class,
+                "semuadosen", StreamingListDecoder.DEFAULT_CHUNK_SIZE, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+
+        CallScope scope = new CallScope();
+        Call<ResponseBody> call = scope.track(apiService.getSemuaDosenStream(null));
+        assertEquals(1, scope.getActiveCount());
+        decoder.load(call, new StreamingListDecoder.Listener<SemuadosenItem>() {
+            @Override
+            public void onItems(List<SemuadosenItem> items) {
+            }
+
+            @Override
+            public void onComplete(boolean error, String message, int total) {
+                complete.countDown();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+            }
+        }, scope.untrackOnFinish(call));
+        assertTrue(complete.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, scope.getActiveCount());
+        scope.cancel();
+        assertEquals(0, scope.getCancelledCount());
+    }
+
+    @Test
+    public void enqueueAfterCancel_neverHitsTheWire() throws Exception {
+        CallScope scope = new CallScope();
+        scope.cancel();
+        Call<ResponseDosen> call = scope.enqueue(apiService.getSemuaDosen(null), new RecordingCallback());
+
+        assertTrue(call.isCanceled());
+        assertEquals(1, scope.getCancelledCount());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void wrappedExecutor_dropsTasksAfterCancel() {
+        final AtomicInteger ran = new AtomicInteger();
+        CallScope scope = new CallScope();
+        Executor executor = scope.wrap(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                ran.incrementAndGet();
+            }
+        };
+
+        executor.execute(task);
+        scope.cancel();
+        executor.execute(task);
+
+        assertEquals(1, ran.get());
+        assertEquals(1, scope.getDroppedCallbackCount());
+    }
+
+    private static class RecordingCallback implements Callback<ResponseDosen> {
+        final CountDownLatch called = new CountDownLatch(1);
+
+        @Override
+        public void onResponse(Call<ResponseDosen> call, Response<ResponseDosen> response) {
+            called.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<ResponseDosen> call, Throwable t) {
+            called.countDown();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Cache;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerInterceptorTest {
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+    private FakeClock clock;
+    private CircuitBreakerInterceptor breaker;
+    private OkHttpClient client;
+    private final List<String> transitions = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        clock = new FakeClock();
+        // Jendela 4 request, terbuka pada 50% error atau p95 di atas 1 detik, 2 percobaan half-open.
+        breaker = new CircuitBreakerInterceptor("/mahasiswa/", 4, 4, 0.5, 1000, 10000, 2, clock);
+        breaker.setListener(new CircuitBreakerInterceptor.Listener() {
+            @Override
+            public void onStateChanged(String endpoint, CircuitBreakerInterceptor.State from,
+                                       CircuitBreakerInterceptor.State to) {
+                transitions.add(endpoint + ": " + from + " -> " + to);
+            }
+        });
+        client = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir.getRoot(), 1024 * 1024))
+                .addInterceptor(breaker)
+                .addNetworkInterceptor(clock)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void errors_openThenHalfOpenTrialsClose() throws Exception {
+        for (int i = 0; i < 2; i++){
+            server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("{}"));
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        for (int i = 0; i < 4; i++){
+            get("matkul").close();
+        }
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState("GET matkul"));
+
+        // Selama terbuka server tidak dihubungi, endpoint lain tidak terpengaruh.
+        try {
+            get("matkul");
+            fail();
+        } catch (CircuitOpenException expected){
+            assertEquals("GET matkul", expected.endpoint());
+        }
+        assertEquals(4, server.getRequestCount());
+        server.enqueue(new MockResponse().setBody("{}"));
+        assertEquals(200, get("semuadosen").code());
+
+        clock.now += 10000;
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+        get("matkul").close();
+        assertEquals(CircuitBreakerInterceptor.State.HALF_OPEN, breaker.getState("GET matkul"));
+        get("matkul").close();
+
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState("GET matkul"));
+        assertEquals(3, breaker.getTransitionCount("GET matkul"));
+        assertEquals("GET matkul: HALF_OPEN -> CLOSED", transitions.get(2));
+        assertEquals(1, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void slowResponses_openAndServeStaleCache() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=0").setBody("lama"));
+        assertEquals("lama", get("semuadosen").body().string());
+
+        // Bersama request pertama, p95 dari empat request sudah di atas 1 detik.
+        clock.latencyMillis = 1500;
+        for (int i = 0; i < 3; i++){
+            server.enqueue(new MockResponse().setHeader("Cache-Control", "no-store").setBody("lambat"));
+            get("semuadosen").close();
+        }
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState("GET semuadosen"));
+
+        assertEquals("lama", get("semuadosen").body().string());
+        assertEquals(4, server.getRequestCount());
+        assertEquals(1, breaker.getCachedCount());
+        assertEquals(0, breaker.getRejectedCount());
+    }
+
+    @Test
+    public void failedTrial_reopens() throws Exception {
+        for (int i = 0; i < 4; i++){
+            server.enqueue(new MockResponse().setResponseCode(500));
+            get("matkul").close();
+        }
+        clock.now += 10000;
+        server.enqueue(new MockResponse().setResponseCode(500));
+        get("matkul").close();
+
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState("GET matkul"));
+        assertEquals(2, breaker.getOpenedCount());
+        assertEquals("GET matkul: HALF_OPEN -> OPEN", transitions.get(2));
+    }
+
+    @Test
+    public void cancelledCalls_neverOpen() throws Exception {
+        // Dua dibatalkan sebelum dikirim, dua dibatalkan saat menunggu response (seperti hedge yang kalah).
+        for (int i = 0; i < 2; i++){
+            Call call = newCall("dosen/Budi");
+            call.cancel();
+            assertCancelled(call);
+        }
+        for (int i = 0; i < 2; i++){
+            server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+            final Call call = newCall("dosen/Budi");
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException ignored){
+                    }
+                    call.cancel();
+                }
+            }).start();
+            assertCancelled(call);
+        }
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState("GET dosen/*"));
+
+        server.enqueue(new MockResponse().setBody("{}"));
+        assertEquals(200, get("dosen/Budi").code());
+        assertEquals(0, breaker.getOpenedCount());
+    }
+
+    private void assertCancelled(Call call){
+        try {
+            call.execute().close();
+            fail();
+        } catch (IOException expected){
+        }
+    }
+
+    private Call newCall(String path){
+        return client.newCall(new Request.Builder().url(server.url("/mahasiswa/" + path)).build());
+    }
+
+    private Response get(String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url("/mahasiswa/" + path)).build()).execute();
+    }
+
+    // Jam palsu; sebagai network interceptor juga bisa menambah latensi setiap request ke server.
+    private static class FakeClock implements CircuitBreakerInterceptor.Clock, Interceptor {
+        volatile long now;
+        volatile long latencyMillis;
+
+        @Override
+        public long millis() {
+            return now;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            now += latencyMillis;
+            return chain.proceed(chain.request());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosenDetail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class CoalescingCallAdapterFactoryTest {
+
+    private MockWebServer server;
+    private CoalescingCallAdapterFactory factory;
+    private BaseApiService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        factory = new CoalescingCallAdapterFactory();
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(factory)
+                .build()
+                .create(BaseApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentIdenticalGets_shareOneNetworkCall() throws Exception {
+        server.enqueue(new MockResponse()
+                .setBody("{\"semuadosen\":[{\"nama\":\"Budi\"}],\"error\":false}")
+                .setBodyDelay(200, TimeUnit.MILLISECONDS));
+
+        final CountDownLatch latch = new CountDownLatch(3);
+        final List<ResponseDosen> bodies = new CopyOnWriteArrayList<>();
+        Callback<ResponseDosen> callback = new Callback<ResponseDosen>() {
+            @Override
+            public void onResponse(Call<ResponseDosen> call, Response<ResponseDosen> response) {
+                bodies.add(response.body());
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseDosen> call, Throwable t) {
+                latch.countDown();
+            }
+        };
+
+        service.getSemuaDosen(null).enqueue(callback);
+        service.getSemuaDosen(null).enqueue(callback);
+        service.getSemuaDosen(null).enqueue(callback);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+        assertEquals(3, bodies.size());
+        assertSame(bodies.get(0), bodies.get(2));
+        assertEquals(1, factory.getNetworkCount());
+        assertEquals(2, factory.getCoalescedCount());
+    }
+
+    @Test
+    public void cancelledFollower_failsWhileLeaderCompletes() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"semuadosen\":[],\"error\":false}")
+                .setBodyDelay(300, TimeUnit.MILLISECONDS));
+
+        final CountDownLatch done = new CountDownLatch(2);
+        final List<Object> results = new CopyOnWriteArrayList<>();
+        final List<Call<ResponseDosen>> delivered = new CopyOnWriteArrayList<>();
+        Callback<ResponseDosen> callback = new Callback<ResponseDosen>() {
+            @Override
+            public void onResponse(Call<ResponseDosen> call, Response<ResponseDosen> response) {
+                delivered.add(call);
+                results.add(response);
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseDosen> call, Throwable t) {
+                delivered.add(call);
+                results.add(t);
+                done.countDown();
+            }
+        };
+        Call<ResponseDosen> leader = service.getSemuaDosen(null);
+        Call<ResponseDosen> follower = service.getSemuaDosen(null);
+        leader.enqueue(callback);
+        follower.enqueue(callback);
+        follower.cancel();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        // Yang dibatalkan langsung gagal, request jaringan tetap berjalan untuk leader.
+        assertEquals("Canceled", ((Throwable) results.get(0)).getMessage());
+        assertSame(follower, delivered.get(0));
+        assertTrue(results.get(1) instanceof Response);
+        assertSame(leader, delivered.get(1));
+        assertTrue(follower.isCanceled());
+        assertFalse(leader.isCanceled());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void differentLanes_areNotCoalesced() throws Exception {
+        BaseApiService prioritized = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(factory)
+                .callFactory(new PriorityDispatcher(new OkHttpClient(), 4))
+                .build()
+                .create(BaseApiService.class);
+        for (int i = 0; i < 2; i++){
+            server.enqueue(new MockResponse().setBody("{\"nama\":\"Budi\"}")
+                    .setBodyDelay(200, TimeUnit.MILLISECONDS));
+        }
+
+        final CountDownLatch latch = new CountDownLatch(2);
+        Callback<ResponseDosenDetail> callback = new Callback<ResponseDosenDetail>() {
+            @Override
+            public void onResponse(Call<ResponseDosenDetail> call, Response<ResponseDosenDetail> response) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseDosenDetail> call, Throwable t) {
+            }
+        };
+        // Klik pada baris yang detailnya sedang di-prefetch tidak ikut jalur prefetch.
+        prioritized.prefetchDetailDosen("Budi").enqueue(callback);
+        prioritized.getDetailDosen("Budi").enqueue(callback);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, factory.getCoalescedCount());
+        assertNull(server.takeRequest().getHeader(ApiHeaders.PRIORITY));
+    }
+}
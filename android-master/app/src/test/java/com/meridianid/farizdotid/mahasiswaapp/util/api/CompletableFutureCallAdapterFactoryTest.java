@@ -0,0 +1,154 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.*;
+
+public class CompletableFutureCallAdapterFactoryTest {
+
+    interface FutureService {
+        @GET("semuadosen")
+        CompletableFuture<ResponseBody> dosen();
+
+        @GET("matkul")
+        CompletableFuture<Response<ResponseBody>> matkulResponse();
+
+        @Retry(maxAttempts = 2, initialBackoffMillis = 10, maxBackoffMillis = 20)
+        @GET("matkul")
+        CompletableFuture<ResponseBody> matkulRetried();
+    }
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private CountingExecutor executor;
+    private RetryCallAdapterFactory retryFactory;
+    private FutureService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder().retryOnConnectionFailure(false).build();
+        executor = new CountingExecutor();
+        retryFactory = new RetryCallAdapterFactory(Executors.newSingleThreadScheduledExecutor(), 5);
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addCallAdapterFactory(new CompletableFutureCallAdapterFactory(executor))
+                .addCallAdapterFactory(retryFactory)
+                .build()
+                .create(FutureService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void parallelCalls_areJoined() throws Exception {
+        // Server baru menjawab setelah kedua request tiba, jadi keduanya harus berjalan bersamaan.
+        final CountDownLatch bothArrived = new CountDownLatch(2);
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                bothArrived.countDown();
+                assertTrue(bothArrived.await(5, TimeUnit.SECONDS));
+                return new MockResponse().setBody(request.getPath());
+            }
+        });
+
+        String joined = service.dosen().thenCombine(service.matkulResponse(),
+                new BiFunction<ResponseBody, Response<ResponseBody>, String>() {
+                    @Override
+                    public String apply(ResponseBody dosen, Response<ResponseBody> matkul) {
+                        try {
+                            return dosen.string() + " " + matkul.code() + " " + matkul.body().string();
+                        } catch (IOException e){
+                            throw new AssertionError(e);
+                        }
+                    }
+                }).get(5, TimeUnit.SECONDS);
+
+        assertEquals("/semuadosen 200 /matkul", joined);
+        assertEquals(2, executor.count.get());
+    }
+
+    @Test
+    public void errorStatus_failsBodyFutureButNotResponseFuture() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(404));
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try {
+            service.dosen().get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException expected){
+            assertEquals(404, ((HttpException) expected.getCause()).code());
+        }
+        assertEquals(404, service.matkulResponse().get(5, TimeUnit.SECONDS).code());
+    }
+
+    @Test
+    public void retryAnnotation_stillApplies() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals("ok", service.matkulRetried().get(5, TimeUnit.SECONDS).string());
+        assertEquals(1, retryFactory.getRetryCount());
+    }
+
+    @Test
+    public void cancel_cancelsUnderlyingCall() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                Thread.sleep(5000);
+                return new MockResponse();
+            }
+        });
+        CompletableFuture<ResponseBody> future = service.dosen();
+        server.takeRequest(5, TimeUnit.SECONDS);
+
+        assertTrue(future.cancel(true));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (client.dispatcher().runningCallsCount() > 0 && System.currentTimeMillis() < deadline){
+            Thread.sleep(10);
+        }
+        assertEquals(0, client.dispatcher().runningCallsCount());
+        assertTrue(future.isCancelled());
+        // Kegagalan karena dibatalkan tidak dijadwalkan lagi ke executor.
+        assertEquals(0, executor.count.get());
+    }
+
+    private static class CountingExecutor implements Executor {
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public void execute(Runnable command) {
+            count.incrementAndGet();
+            command.run();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSink;
+import okio.GzipSource;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+public class CompressionInterceptorTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private TransferStats stats;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        stats = new TransferStats();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new CompressionInterceptor(stats, "/", 16))
+                .addNetworkInterceptor(new WireBytesInterceptor(stats, "/"))
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void gzipResponse_isDecodedAndCounted() throws Exception {
+        String json = repeat("{\"nama\":\"Algoritma\"},", 100);
+        server.enqueue(new MockResponse().setHeader("Content-Encoding", "gzip").setBody(gzip(json)));
+
+        Response response = client.newCall(new Request.Builder().url(server.url("/matkul")).build()).execute();
+        assertEquals(json, response.body().string());
+        assertNull(response.header("Content-Encoding"));
+
+        assertEquals("br, gzip", server.takeRequest().getHeader("Accept-Encoding"));
+        assertEquals(json.length(), stats.getDecodedBytes("GET matkul"));
+        assertTrue(stats.getWireBytes("GET matkul") < json.length());
+    }
+
+    @Test
+    public void largeRequestBody_isGzippedOnlyWhenRequested() throws Exception {
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+        String json = repeat("{\"kode\":\"IF101\"},", 10);
+        RequestBody body = RequestBody.create(MediaType.parse("application/json"), json);
+
+        client.newCall(new Request.Builder().url(server.url("/matkul/bulk"))
+                .header(ApiHeaders.GZIP_REQUEST, "1").post(body).build()).execute().close();
+        client.newCall(new Request.Builder().url(server.url("/matkul/bulk"))
+                .post(body).build()).execute().close();
+
+        RecordedRequest gzipped = server.takeRequest();
+        assertEquals("gzip", gzipped.getHeader("Content-Encoding"));
+        assertNull(gzipped.getHeader(ApiHeaders.GZIP_REQUEST));
+        assertEquals(json, Okio.buffer(new GzipSource(gzipped.getBody())).readUtf8());
+
+        RecordedRequest plain = server.takeRequest();
+        assertNull(plain.getHeader("Content-Encoding"));
+        assertEquals(json, plain.getBody().readUtf8());
+    }
+
+    @Test
+    public void endpointOf_collapsesPathParameters() {
+        Request request = new Request.Builder().url("http://localhost/api/dosen/Budi").build();
+        assertEquals("GET dosen/*", TransferStats.endpointOf(request, "/api/"));
+        assertEquals("GET dosen", TransferStats.endpointOf(
+                new Request.Builder().url("http://localhost/api/dosen").build(), "/api/"));
+    }
+
+    private static Buffer gzip(String value) throws Exception {
+        Buffer result = new Buffer();
+        GzipSink sink = new GzipSink(result);
+        Buffer source = new Buffer().writeUtf8(value);
+        sink.write(source, source.size());
+        sink.close();
+        return result;
+    }
+
+    private static String repeat(String value, int times){
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++){
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class ConnectionWarmerTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private ConnectionWarmer warmer;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        warmer = new ConnectionWarmer(server.url("/mahasiswa/"));
+        client = new OkHttpClient.Builder()
+                .addNetworkInterceptor(warmer)
+                .build();
+        warmer.setClient(client);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void firstRequest_reusesWarmedConnection() throws Exception {
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setBody("[]"));
+
+        warmer.warmUp();
+        assertEquals("HEAD", server.takeRequest().getMethod());
+        waitForIdleConnection();
+
+        assertEquals(-1, warmer.getSavedMillis());
+        client.newCall(new Request.Builder().url(server.url("/mahasiswa/matkul")).build())
+                .execute().body().string();
+
+        // Nomor urut 1 berarti request kedua di koneksi yang sama.
+        assertEquals(1, server.takeRequest().getSequenceNumber());
+        assertTrue(warmer.isFirstRequestReused());
+        assertTrue(warmer.getSavedMillis() >= 0);
+    }
+
+    @Test
+    public void warmUp_isSkippedWhenPoolHasIdleConnection() throws Exception {
+        server.enqueue(new MockResponse());
+        warmer.warmUp();
+        server.takeRequest();
+        waitForIdleConnection();
+
+        warmer.warmUp();
+        Thread.sleep(100);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private void waitForIdleConnection() throws InterruptedException {
+        for (int i = 0; i < 100 && client.connectionPool().idleConnectionCount() == 0; i++){
+            Thread.sleep(10);
+        }
+        assertEquals(1, client.connectionPool().idleConnectionCount());
+    }
+}
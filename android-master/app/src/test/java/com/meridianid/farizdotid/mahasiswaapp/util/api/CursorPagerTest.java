@@ -0,0 +1,203 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class CursorPagerTest {
+
+    private static final int TOTAL = 100;
+
+    private final List<SemuamatkulItem> items = new ArrayList<>();
+    private final List<String> requestedCursors = new ArrayList<>();
+    private CursorPager<ResponseMatkul, SemuamatkulItem> pager;
+
+    @Before
+    public void setUp() {
+        pager = new CursorPager<ResponseMatkul, SemuamatkulItem>(items, 10, 3, new NoopListener()) {
+            @Override
+            protected Call<ResponseMatkul> createCall(String cursor, int limit) {
+                requestedCursors.add(cursor);
+                return new ImmediateCall(page(cursor == null ? 0 : Integer.parseInt(cursor), limit));
+            }
+
+            @Override
+            protected boolean isError(ResponseMatkul response) {
+                return response.isError();
+            }
+
+            @Override
+            protected String messageOf(ResponseMatkul response) {
+                return response.getMessage();
+            }
+
+            @Override
+            protected List<SemuamatkulItem> itemsOf(ResponseMatkul response) {
+                return response.getSemuamatkul();
+            }
+
+            @Override
+            protected String nextCursorOf(ResponseMatkul response) {
+                return response.getNextCursor();
+            }
+        };
+    }
+
+    @Test
+    public void keepsAtMostMaxPagesInMemory() {
+        pager.loadFirst();
+        for (int i = 0; i < 4; i++){
+            pager.loadNext();
+        }
+
+        assertEquals(30, items.size());
+        assertEquals("20", items.get(0).getId());
+        assertEquals("49", items.get(29).getId());
+        assertTrue(pager.hasPrevious());
+        assertEquals(5, pager.getLoadedPageCount());
+    }
+
+    @Test
+    public void loadPrevious_restoresDroppedPageAndTrimsTail() {
+        pager.loadFirst();
+        for (int i = 0; i < 3; i++){
+            pager.loadNext();
+        }
+        pager.loadPrevious();
+
+        assertNull(requestedCursors.get(requestedCursors.size() - 1));
+        assertEquals(30, items.size());
+        assertEquals("0", items.get(0).getId());
+        assertEquals("29", items.get(29).getId());
+        assertFalse(pager.hasPrevious());
+
+        pager.loadNext();
+        assertEquals("30", requestedCursors.get(requestedCursors.size() - 1));
+    }
+
+    @Test
+    public void stopsAtLastPage() {
+        pager.loadFirst();
+        for (int i = 0; i < 20; i++){
+            pager.loadNext();
+        }
+
+        assertTrue(pager.isEndReached());
+        assertEquals(TOTAL / 10, requestedCursors.size());
+        assertEquals(String.valueOf(TOTAL - 1), items.get(items.size() - 1).getId());
+    }
+
+    @Test
+    public void removedItem_keepsPageBoundariesInSync() {
+        pager.loadFirst();
+        pager.loadNext();
+        items.remove(3);
+        pager.onItemRemoved(3);
+
+        pager.loadNext();
+        pager.loadNext();
+
+        // Halaman pertama (sekarang 9 item) yang dibuang, halaman berikutnya tetap utuh.
+        assertEquals(30, items.size());
+        assertEquals("10", items.get(0).getId());
+    }
+
+    @Test
+    public void reset_clearsWindowForReload() {
+        pager.loadFirst();
+        pager.loadNext();
+        pager.reset();
+
+        assertTrue(items.isEmpty());
+        assertFalse(pager.hasPrevious());
+        pager.loadFirst();
+        assertEquals("0", items.get(0).getId());
+    }
+
+    private static ResponseMatkul page(int offset, int limit){
+        List<SemuamatkulItem> pageItems = new ArrayList<>();
+        for (int i = offset; i < Math.min(offset + limit, TOTAL); i++){
+            SemuamatkulItem item = new SemuamatkulItem();
+            item.setId(String.valueOf(i));
+            pageItems.add(item);
+        }
+        ResponseMatkul response = new ResponseMatkul();
+        response.setSemuamatkul(pageItems);
+        response.setNextCursor(offset + limit < TOTAL ? String.valueOf(offset + limit) : null);
+        return response;
+    }
+
+    private static class NoopListener implements CursorPager.Listener {
+        @Override
+        public void onItemsInserted(int position, int count) {
+        }
+
+        @Override
+        public void onItemsRemoved(int position, int count) {
+        }
+
+        @Override
+        public void onPageError(boolean empty, String message) {
+        }
+
+        @Override
+        public void onFailure(Throwable t, boolean httpError) {
+            fail(t.toString());
+        }
+    }
+
+    private static class ImmediateCall implements Call<ResponseMatkul> {
+        private final ResponseMatkul body;
+
+        ImmediateCall(ResponseMatkul body) {
+            this.body = body;
+        }
+
+        @Override
+        public Response<ResponseMatkul> execute() throws IOException {
+            return Response.success(body);
+        }
+
+        @Override
+        public void enqueue(Callback<ResponseMatkul> callback) {
+            callback.onResponse(this, Response.success(body));
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public Call<ResponseMatkul> clone() {
+            return new ImmediateCall(body);
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("http://localhost/matkul").build();
+        }
+    }
+}
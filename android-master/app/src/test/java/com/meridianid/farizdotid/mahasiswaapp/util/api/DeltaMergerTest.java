@@ -0,0 +1,89 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DeltaMergerTest {
+
+    private final DeltaMerger<SemuamatkulItem> merger = new DeltaMerger<SemuamatkulItem>() {
+        @Override
+        protected String idOf(SemuamatkulItem item) {
+            return item.getId();
+        }
+    };
+
+    private final List<String> events = new ArrayList<>();
+    private final DeltaMerger.Listener listener = new DeltaMerger.Listener() {
+        @Override
+        public void onItemChanged(int position) {
+            events.add("changed " + position);
+        }
+
+        @Override
+        public void onItemRemoved(int position) {
+            events.add("removed " + position);
+        }
+
+        @Override
+        public void onItemsInserted(int position, int count) {
+            events.add("inserted " + position + " " + count);
+        }
+    };
+
+    @Test
+    public void appliesUpdatesTombstonesAndInserts() {
+        List<SemuamatkulItem> items = items("1", "2", "3", "4");
+
+        int changes = merger.apply(items, Arrays.asList(item("2", "Basis Data"), item("9", "Jaringan")),
+                Arrays.asList("1", "3", "7"), true, listener);
+
+        assertEquals(4, changes);
+        assertEquals(Arrays.asList("changed 1", "removed 2", "removed 0", "inserted 2 1"), events);
+        assertEquals(3, items.size());
+        assertEquals("Basis Data", items.get(0).getMatkul());
+        assertEquals("4", items.get(1).getId());
+        assertEquals("9", items.get(2).getId());
+    }
+
+    @Test
+    public void insertsWaitForPagingWhenEndNotReached() {
+        List<SemuamatkulItem> items = items("1", "2");
+
+        merger.apply(items, Arrays.asList(item("3", "Kalkulus")), null, false, listener);
+
+        assertEquals(2, items.size());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void tombstoneWinsOverUpsert() {
+        List<SemuamatkulItem> items = items("1");
+
+        merger.apply(items, Arrays.asList(item("1", "Fisika")), Arrays.asList("1"), true, listener);
+
+        assertTrue(items.isEmpty());
+        assertEquals(Arrays.asList("removed 0"), events);
+    }
+
+    private static List<SemuamatkulItem> items(String... ids){
+        List<SemuamatkulItem> items = new ArrayList<>();
+        for (String id : ids){
+            items.add(item(id, "Matkul " + id));
+        }
+        return items;
+    }
+
+    private static SemuamatkulItem item(String id, String matkul){
+        SemuamatkulItem item = new SemuamatkulItem();
+        item.setId(id);
+        item.setMatkul(matkul);
+        return item;
+    }
+}
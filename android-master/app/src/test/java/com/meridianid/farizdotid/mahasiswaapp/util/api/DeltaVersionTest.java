@@ -0,0 +1,46 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DeltaVersionTest {
+
+    private final DeltaVersion version = new DeltaVersion();
+
+    @Test
+    public void deltaStartsFromFirstPageVersion() {
+        assertEquals(DeltaVersion.Action.NONE, version.next());
+
+        version.onFirstPage(7);
+        version.onFirstPage(9);
+        assertEquals(DeltaVersion.Action.DELTA, version.next());
+        assertEquals(7, version.get());
+
+        assertFalse(version.onDelta(12, false));
+        assertEquals(12, version.get());
+    }
+
+    @Test
+    public void missingVersion_meansDeltaUnsupported() {
+        // Server lama tidak mengirim version, Gson membacanya sebagai 0.
+        version.onFirstPage(0);
+        assertEquals(DeltaVersion.Action.RELOAD, version.next());
+
+        version.reset();
+        assertEquals(DeltaVersion.Action.NONE, version.next());
+        version.onFirstPage(-3);
+        assertEquals(DeltaVersion.Action.RELOAD, version.next());
+    }
+
+    @Test
+    public void fullResyncOrMissingDeltaVersion_reloads() {
+        version.onFirstPage(5);
+        assertTrue(version.onDelta(6, true));
+        assertEquals(DeltaVersion.Action.NONE, version.next());
+
+        version.onFirstPage(5);
+        assertTrue(version.onDelta(0, false));
+        assertEquals(DeltaVersion.Action.NONE, version.next());
+    }
+}
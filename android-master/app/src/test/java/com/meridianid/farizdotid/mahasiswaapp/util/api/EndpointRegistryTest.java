@@ -0,0 +1,98 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosenDetail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class EndpointRegistryTest {
+
+    private MockWebServer local;
+    private MockWebServer mirror;
+    private EndpointRegistry registry;
+    private OkHttpClient client;
+    private BaseApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        local = new MockWebServer();
+        mirror = new MockWebServer();
+        local.start();
+        mirror.start();
+        registry = new EndpointRegistry(local.url("/mahasiswa/"));
+        registry.register("mirror", mirror.url("/api/v1/").toString());
+        client = new OkHttpClient.Builder().addInterceptor(registry).build();
+        apiService = new Retrofit.Builder()
+                .baseUrl(local.url("/mahasiswa/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .client(client)
+                .build()
+                .create(BaseApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        local.shutdown();
+        mirror.shutdown();
+    }
+
+    @Test
+    public void select_routesSameServiceToAnotherBackend() throws Exception {
+        local.enqueue(new MockResponse().setBody("{\"nama\":\"lokal\"}"));
+        mirror.enqueue(new MockResponse().setBody("{\"nama\":\"mirror\"}"));
+
+        assertEquals("lokal", apiService.getDetailDosen("Budi").execute().body().getNama());
+        registry.select("mirror");
+        ResponseDosenDetail detail = apiService.getDetailDosen("Budi").execute().body();
+
+        assertEquals("mirror", detail.getNama());
+        assertEquals("/api/v1/dosen/Budi", mirror.takeRequest().getPath());
+        assertEquals(1, registry.getRewriteCount());
+        assertEquals(2, client.connectionPool().connectionCount());
+    }
+
+    @Test
+    public void selectNearest_picksFastestReachableBackend() throws Exception {
+        local.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                Thread.sleep(300);
+                return new MockResponse();
+            }
+        });
+        mirror.enqueue(new MockResponse());
+
+        assertEquals("mirror", registry.selectNearest(client));
+        assertTrue(registry.getProbeMillis(EndpointRegistry.DEFAULT_NAME) >= 300);
+        assertEquals("/mahasiswa/", local.takeRequest().getPath());
+
+        mirror.shutdown();
+        assertEquals(EndpointRegistry.DEFAULT_NAME, registry.selectNearest(client));
+        assertEquals(-1, registry.getProbeMillis("mirror"));
+    }
+
+    @Test
+    public void registerAll_parsesMirrorSpec() {
+        registry.registerAll(" kampus-a=http://a.example/mahasiswa/ ; ;kampus-b=http://b.example/m/");
+        assertEquals(4, registry.getNames().size());
+        registry.select("kampus-b");
+        assertEquals("http://b.example/m/dosen/Budi",
+                registry.rewrite(local.url("/mahasiswa/dosen/Budi")).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void select_unknownBackendFails() {
+        registry.select("tidak-ada");
+    }
+}
@@ -0,0 +1,124 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okio.Buffer;
+import okio.GzipSink;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Laporan penghematan byte per layar: ukuran list dosen lengkap dibanding list dengan projection
+ * layar tersebut, dalam JSON, JSON gzip dan BinaryWire. Item yang diproyeksikan dibuat seperti server,
+ * field di luar projection dikosongkan dan Gson tidak menulis field null. Hanya jalan dengan
+ * -Dbenchmark=true, pemeriksaan ukuran kecil ada di FieldProjectionTest.
+ */
+public class FieldProjectionBenchmark {
+
+    private static final FieldProjection[] SCREENS = {
+            FieldProjection.DOSEN_LIST, FieldProjection.DOSEN_NAMA
+    };
+
+    private final Gson gson = new Gson();
+
+    @BeforeClass
+    public static void onlyWhenRequested() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void bytesSavedPerScreen() throws IOException {
+        int[] sizes = {1000, 10000, 100000};
+        System.out.println(String.format("%-21s %-12s %7s %16s %17s %17s",
+                "layar", "fields", "items", "json B (hemat)", "gz B (hemat)", "bin B (hemat)"));
+        for (int size : sizes){
+            ResponseDosen full = dosen(size);
+            Sizes fullSizes = measure(full);
+            for (FieldProjection screen : SCREENS){
+                Sizes projected = measure(project(full, screen));
+                print(screen, size, fullSizes, projected);
+
+                assertTrue(projected.json < fullSizes.json);
+                assertTrue(projected.binary < fullSizes.binary);
+            }
+        }
+    }
+
+    private Sizes measure(ResponseDosen value) throws IOException {
+        Buffer json = new Buffer().writeUtf8(gson.toJson(value));
+        Buffer binary = new Buffer();
+        BinaryWire.encode(BinaryCodecs.DOSEN, value, binary);
+
+        Sizes sizes = new Sizes();
+        sizes.json = json.size();
+        sizes.gzip = gzipSize(json);
+        sizes.binary = binary.size();
+        return sizes;
+    }
+
+    private static ResponseDosen project(ResponseDosen full, FieldProjection projection){
+        List<SemuadosenItem> items = new ArrayList<>(full.getSemuadosen().size());
+        for (SemuadosenItem source : full.getSemuadosen()){
+            SemuadosenItem item = new SemuadosenItem();
+            item.setId(projection.includes("id") ? source.getId() : null);
+            item.setNama(projection.includes("nama") ? source.getNama() : null);
+            item.setMatkul(projection.includes("matkul") ? source.getMatkul() : null);
+            items.add(item);
+        }
+        ResponseDosen response = new ResponseDosen();
+        response.setSemuadosen(items);
+        return response;
+    }
+
+    private static long gzipSize(Buffer data) throws IOException {
+        Buffer compressed = new Buffer();
+        okio.BufferedSink gzip = Okio.buffer(new GzipSink(compressed));
+        gzip.write(data.clone(), data.size());
+        gzip.close();
+        return compressed.size();
+    }
+
+    private static void print(FieldProjection screen, int size, Sizes full, Sizes projected){
+        System.out.println(String.format("%-21s %-12s %7d %9d (%3d%%) %10d (%3d%%) %10d (%3d%%)",
+                screen.getScreen(), screen, size,
+                projected.json, saved(full.json, projected.json),
+                projected.gzip, saved(full.gzip, projected.gzip),
+                projected.binary, saved(full.binary, projected.binary)));
+    }
+
+    private static long saved(long full, long projected){
+        return Math.round(100.0 * (full - projected) / full);
+    }
+
+    // Data sama dengan WireFormatBenchmark supaya angkanya bisa dibandingkan.
+    private static ResponseDosen dosen(int count){
+        List<SemuadosenItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++){
+            SemuadosenItem item = new SemuadosenItem();
+            item.setId(String.valueOf(i));
+            item.setNama("Dr. Dosen Pengajar " + i);
+            item.setMatkul("Pemrograman Berorientasi Objek " + (i % 800));
+            items.add(item);
+        }
+        ResponseDosen response = new ResponseDosen();
+        response.setSemuadosen(items);
+        return response;
+    }
+
+    private static final class Sizes {
+        long json;
+        long gzip;
+        long binary;
+    }
+}
@@ -0,0 +1,100 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class FieldProjectionTest {
+
+    private MockWebServer server;
+    private BaseApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/mahasiswa/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(BaseApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void projection_isSentAsFieldsQuery() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"semuadosen\":[{\"nama\":\"Budi\"}]}"));
+
+        SemuadosenItem item = apiService.getSemuaDosen(FieldProjection.DOSEN_NAMA).execute()
+                .body().getSemuadosen().get(0);
+
+        assertEquals("/mahasiswa/semuadosen?fields=nama", server.takeRequest().getPath());
+        assertEquals("Budi", item.getNama());
+        assertNull(item.getId());
+        assertNull(item.getMatkul());
+    }
+
+    @Test
+    public void nullProjection_requestsAllFields() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"semuadosen\":[]}"));
+        server.enqueue(new MockResponse().setBody("{\"semuadosen\":[]}"));
+
+        apiService.getSemuaDosen(null).execute();
+        apiService.getSemuaDosenStream(FieldProjection.DOSEN_LIST).execute().body().close();
+
+        assertEquals("/mahasiswa/semuadosen", server.takeRequest().getPath());
+        assertEquals("/mahasiswa/semuadosen?fields=nama,matkul",
+                server.takeRequest().getPath());
+        assertTrue(FieldProjection.DOSEN_LIST.includes("matkul"));
+        assertFalse(FieldProjection.DOSEN_LIST.includes("id"));
+    }
+
+    @Test
+    public void listProjection_isSmallerOnTheWire() throws Exception {
+        ResponseDosen full = new ResponseDosen();
+        ResponseDosen projected = new ResponseDosen();
+        full.setSemuadosen(new ArrayList<SemuadosenItem>());
+        projected.setSemuadosen(new ArrayList<SemuadosenItem>());
+        for (int i = 0; i < 100; i++){
+            SemuadosenItem item = new SemuadosenItem();
+            item.setId(String.valueOf(i));
+            item.setNama("Dosen " + i);
+            item.setMatkul("Matkul " + (i % 20));
+            full.getSemuadosen().add(item);
+
+            // Seperti server: field di luar DOSEN_LIST dikosongkan.
+            SemuadosenItem listed = new SemuadosenItem();
+            listed.setNama(item.getNama());
+            listed.setMatkul(item.getMatkul());
+            projected.getSemuadosen().add(listed);
+        }
+
+        Gson gson = new Gson();
+        assertTrue(gson.toJson(projected).length() < gson.toJson(full).length());
+        assertTrue(binarySize(projected) < binarySize(full));
+    }
+
+    private static long binarySize(ResponseDosen response) throws Exception {
+        Buffer binary = new Buffer();
+        BinaryWire.encode(BinaryCodecs.DOSEN, response, binary);
+        return binary.size();
+    }
+}
@@ -0,0 +1,253 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutation;
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
+import com.meridianid.farizdotid.mahasiswaapp.model.RequestBulkMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseBulkMatkul;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.QueueDispatcher;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class MatkulOutboxTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private ScheduledExecutorService scheduler;
+    private MatkulBatcher batcher;
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.setDispatcher(new EchoDispatcher());
+        server.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        BaseApiService apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/mahasiswa/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .client(new OkHttpClient.Builder().retryOnConnectionFailure(false).build())
+                .build()
+                .create(BaseApiService.class);
+        // Window panjang: hanya flush dari outbox yang mengirim.
+        batcher = new MatkulBatcher(apiService, scheduler, TimeUnit.MINUTES.toMillis(1), 50);
+        file = new File(folder.getRoot(), "outbox.log");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void networkFailure_isQueuedAndReplayedWithBackoff() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        MatkulOutbox outbox = new MatkulOutbox(file, batcher, DIRECT, scheduler, 10, 100);
+
+        RecordingCallback callback = new RecordingCallback();
+        MatkulMutation add = outbox.simpan("Budi", "Basis Data", callback);
+        assertTrue(callback.done.await(5, TimeUnit.SECONDS));
+        assertTrue(callback.queued);
+        assertEquals(add.getClientId(), callback.result.getClientId());
+        assertFalse(callback.result.isError());
+        assertEquals(0, outbox.getPendingCount());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void deleteOfInFlightAdd_waitsForServerId() throws Exception {
+        MatkulOutbox outbox = new MatkulOutbox(file, batcher, DIRECT, scheduler, 10, 100);
+        // Sebelum file selesai dibaca tambah belum dikirim, jadi hapus akan membuang keduanya.
+        outbox.awaitDisk();
+        RecordingCallback add = new RecordingCallback();
+        RecordingCallback delete = new RecordingCallback();
+        MatkulMutation mutation = outbox.simpan("Budi", "Basis Data", add);
+        outbox.hapus(MatkulOutbox.localIdOf(mutation), delete);
+
+        assertTrue(delete.done.await(5, TimeUnit.SECONDS));
+        assertEquals("server-" + mutation.getClientId(), add.result.getId());
+        server.takeRequest();
+        RequestBulkMatkul second = new Gson().fromJson(server.takeRequest().getBody().readUtf8(),
+                RequestBulkMatkul.class);
+        assertEquals("server-" + mutation.getClientId(), second.getOperations().get(0).getId());
+    }
+
+    @Test
+    public void addThenDelete_neverHitsTheWire() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        MatkulOutbox outbox = new MatkulOutbox(file, batcher, DIRECT, scheduler,
+                TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+
+        RecordingCallback add = new RecordingCallback();
+        MatkulMutation mutation = outbox.simpan("Budi", "Basis Data", add);
+        assertTrue(add.queuedLatch.await(5, TimeUnit.SECONDS));
+
+        RecordingCallback delete = new RecordingCallback();
+        outbox.hapus(MatkulOutbox.localIdOf(mutation), delete);
+
+        assertNotNull(delete.result);
+        assertNotNull(add.error);
+        assertEquals(0, outbox.getPendingCount());
+        assertEquals(2, outbox.getCompactedCount());
+        MatkulOutbox restored = new MatkulOutbox(file, batcher, DIRECT, scheduler, 10, 100);
+        restored.awaitDisk();
+        assertEquals(0, restored.getPendingCount());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void listener_seesEverySettledMutation() throws Exception {
+        MatkulOutbox outbox = new MatkulOutbox(file, batcher, DIRECT, scheduler, 10, 100);
+        final List<MatkulMutation> settled = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        outbox.addListener(new MatkulOutbox.Listener() {
+            @Override
+            public void onSettled(MatkulMutation mutation, MatkulMutationResult result, Throwable error) {
+                settled.add(mutation);
+                latch.countDown();
+            }
+        });
+
+        MatkulMutation add = outbox.simpan("Budi", "Basis Data", new RecordingCallback());
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(add.getClientId(), settled.get(0).getClientId());
+    }
+
+    @Test
+    public void pendingMutations_surviveRestartInOrder() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        MatkulOutbox outbox = new MatkulOutbox(file, batcher, DIRECT, scheduler,
+                TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+        RecordingCallback first = new RecordingCallback();
+        outbox.simpan("Budi", "Basis Data", first);
+        assertTrue(first.queuedLatch.await(5, TimeUnit.SECONDS));
+        RecordingCallback second = new RecordingCallback();
+        outbox.hapus("7", second);
+        assertTrue(second.queuedLatch.await(5, TimeUnit.SECONDS));
+
+        MatkulOutbox restored = new MatkulOutbox(file, batcher, DIRECT, scheduler, 10, 100);
+        restored.awaitDisk();
+        assertEquals(2, restored.getPendingCount());
+        assertEquals(MatkulMutation.OP_ADD, restored.getPendingMutations().get(0).getOp());
+        assertEquals("7", restored.getPendingMutations().get(1).getId());
+    }
+
+    @Test
+    public void simpan_doesNotWaitForDisk() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        MatkulOutbox outbox = new MatkulOutbox(file, batcher, DIRECT, scheduler,
+                TimeUnit.MINUTES.toMillis(1), TimeUnit.MINUTES.toMillis(1));
+        outbox.awaitDisk();
+        // Scheduler ditahan, jadi tulisan file belum bisa jalan.
+        final CountDownLatch release = new CountDownLatch(1);
+        scheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await();
+                } catch (InterruptedException ignored){
+                }
+            }
+        });
+
+        outbox.simpan("Budi", "Basis Data", new RecordingCallback());
+        assertEquals(1, outbox.getPendingCount());
+        assertFalse(file.exists());
+
+        release.countDown();
+        outbox.awaitDisk();
+        MatkulOutbox restored = new MatkulOutbox(file, batcher, DIRECT, scheduler, 10, 100);
+        restored.awaitDisk();
+        assertEquals(1, restored.getPendingCount());
+    }
+
+    // Response yang sudah di-enqueue dipakai lebih dulu, selain itu setiap operasi dijawab berhasil.
+    private static class EchoDispatcher extends QueueDispatcher {
+        private final List<MockResponse> queued = new ArrayList<>();
+
+        @Override
+        public synchronized void enqueueResponse(MockResponse response) {
+            queued.add(response);
+        }
+
+        @Override
+        public synchronized MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            if (!queued.isEmpty()){
+                return queued.remove(0);
+            }
+            Gson gson = new Gson();
+            RequestBulkMatkul body = gson.fromJson(request.getBody().clone().readUtf8(), RequestBulkMatkul.class);
+            List<MatkulMutationResult> results = new ArrayList<>();
+            for (MatkulMutation mutation : body.getOperations()){
+                MatkulMutationResult result = new MatkulMutationResult();
+                result.setClientId(mutation.getClientId());
+                result.setId(MatkulMutation.OP_ADD.equals(mutation.getOp())
+                        ? "server-" + mutation.getClientId() : mutation.getId());
+                results.add(result);
+            }
+            ResponseBulkMatkul response = new ResponseBulkMatkul();
+            response.setResults(results);
+            return new MockResponse().setBody(gson.toJson(response));
+        }
+    }
+
+    private static class RecordingCallback implements MatkulOutbox.Callback {
+        final CountDownLatch done = new CountDownLatch(1);
+        final CountDownLatch queuedLatch = new CountDownLatch(1);
+        volatile MatkulMutationResult result;
+        volatile Throwable error;
+        volatile boolean queued;
+
+        @Override
+        public void onQueued() {
+            queued = true;
+            queuedLatch.countDown();
+        }
+
+        @Override
+        public void onResult(MatkulMutationResult result) {
+            this.result = result;
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            error = t;
+            done.countDown();
+        }
+    }
+}
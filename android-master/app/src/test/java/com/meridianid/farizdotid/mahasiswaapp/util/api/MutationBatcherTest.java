@@ -0,0 +1,116 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.MatkulMutationResult;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+public class MutationBatcherTest {
+
+    private MockWebServer server;
+    private ScheduledExecutorService scheduler;
+    private BaseApiService apiService;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        apiService = new Retrofit.Builder()
+                .baseUrl(server.url("/mahasiswa/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(BaseApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        scheduler.shutdownNow();
+        server.shutdown();
+    }
+
+    @Test
+    public void mutationsInWindow_areSentAsOneRequest() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"error\":false,\"results\":["
+                + "{\"client_id\":\"3\",\"error\":false},"
+                + "{\"client_id\":\"1\",\"error\":false,\"id\":\"41\"},"
+                + "{\"client_id\":\"2\",\"error\":true,\"message\":\"duplikat\"}]}"));
+
+        MatkulBatcher batcher = new MatkulBatcher(apiService, scheduler, 200, 50);
+        RecordingCallback add1 = new RecordingCallback();
+        RecordingCallback add2 = new RecordingCallback();
+        RecordingCallback delete = new RecordingCallback();
+        batcher.simpan("Budi", "Basis Data", add1);
+        batcher.simpan("Budi", "Basis Data", add2);
+        batcher.hapus("7", delete);
+
+        assertTrue(add1.await() && add2.await() && delete.await());
+        assertEquals("41", add1.results.get("result").getId());
+        assertTrue(add2.results.get("result").isError());
+        assertFalse(delete.results.get("result").isError());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/mahasiswa/matkul/batch", request.getPath());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(3, batcher.getMutationCount());
+    }
+
+    @Test
+    public void reachingMaxBatchSize_flushesWithoutWaiting() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"results\":[{\"client_id\":\"1\"},{\"client_id\":\"2\"}]}"));
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        MatkulBatcher batcher = new MatkulBatcher(apiService, scheduler, TimeUnit.MINUTES.toMillis(1), 2);
+        RecordingCallback first = new RecordingCallback();
+        RecordingCallback second = new RecordingCallback();
+        RecordingCallback third = new RecordingCallback();
+        batcher.hapus("1", first);
+        batcher.hapus("2", second);
+        assertTrue(first.await() && second.await());
+
+        batcher.hapus("3", third);
+        batcher.flush();
+        assertTrue(third.await());
+        assertTrue(third.error instanceof HttpException);
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private static class RecordingCallback implements MutationBatcher.Callback<MatkulMutationResult> {
+        final Map<String, MatkulMutationResult> results = new ConcurrentHashMap<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error;
+
+        @Override
+        public void onResult(MatkulMutationResult result) {
+            results.put("result", result);
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            error = t;
+            done.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return done.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class NetworkConditionInterceptorTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void sameSeed_givesSameDelays() throws Exception {
+        assertEquals(delaysFor(42), delaysFor(42));
+        assertNotEquals(delaysFor(42), delaysFor(7));
+    }
+
+    @Test
+    public void bandwidthCap_pacesTheBody() throws Exception {
+        NetworkProfile profile = new NetworkProfile("lambat", 0, 0, 10 * 1024, 0, 0, 0);
+        RecordingSleeper sleeper = new RecordingSleeper();
+        OkHttpClient client = clientWith(new NetworkConditionInterceptor(profile, 1, "/mahasiswa/", sleeper));
+        server.enqueue(new MockResponse().setBody(new String(new char[20 * 1024]).replace('\0', 'a')));
+
+        Response response = client.newCall(request("semuadosen")).execute();
+        assertEquals(20 * 1024, response.body().string().length());
+        assertEquals(2000, sleeper.total());
+        assertTrue(sleeper.delays.size() >= 20);
+    }
+
+    @Test
+    public void failureRate_failsBeforeReachingServer() throws Exception {
+        NetworkProfile lossy = new NetworkProfile("putus", 100, 0, 0, 0, 1, 0);
+        NetworkConditionInterceptor conditions =
+                new NetworkConditionInterceptor(null, 1, "/mahasiswa/", new RecordingSleeper());
+        conditions.setProfile("GET dosen/*", lossy);
+        OkHttpClient client = clientWith(conditions);
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        try {
+            client.newCall(request("dosen/Budi")).execute();
+            fail();
+        } catch (SocketTimeoutException expected){
+        }
+        assertEquals(1, conditions.getFailureCount());
+        assertEquals(0, server.getRequestCount());
+
+        // Endpoint lain tanpa profil tidak disimulasikan.
+        assertEquals(200, client.newCall(request("semuadosen")).execute().code());
+    }
+
+    @Test
+    public void firstByteDelay_isAddedAfterLatency() throws Exception {
+        NetworkProfile profile = new NetworkProfile("tetap", 200, 0, 0, 0, 0, 300);
+        RecordingSleeper sleeper = new RecordingSleeper();
+        OkHttpClient client = clientWith(new NetworkConditionInterceptor(profile, 1, "/mahasiswa/", sleeper));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        client.newCall(request("semuadosen")).execute().body().close();
+        assertEquals(2, sleeper.delays.size());
+        assertEquals(100, (long) sleeper.delays.get(0));
+        assertEquals(400, (long) sleeper.delays.get(1));
+    }
+
+    private List<Long> delaysFor(long seed) throws IOException {
+        // Seperti 3G tapi tanpa kegagalan supaya kelima request selesai.
+        NetworkProfile profile = new NetworkProfile("3G", 200, 0.3, 190 * 1024, 90 * 1024, 0, 100);
+        RecordingSleeper sleeper = new RecordingSleeper();
+        OkHttpClient client = clientWith(new NetworkConditionInterceptor(profile, seed, "/mahasiswa/", sleeper));
+        for (int i = 0; i < 5; i++){
+            server.enqueue(new MockResponse().setBody("{}"));
+            client.newCall(request("semuadosen")).execute().body().close();
+        }
+        return sleeper.delays;
+    }
+
+    private OkHttpClient clientWith(NetworkConditionInterceptor conditions){
+        return new OkHttpClient.Builder().addNetworkInterceptor(conditions).build();
+    }
+
+    private Request request(String path){
+        return new Request.Builder().url(server.url("/mahasiswa/" + path)).build();
+    }
+
+    private static class RecordingSleeper implements NetworkConditionInterceptor.Sleeper {
+        final List<Long> delays = new ArrayList<>();
+
+        @Override
+        public synchronized void sleep(long millis) throws InterruptedIOException {
+            delays.add(millis);
+        }
+
+        synchronized long total(){
+            long total = 0;
+            for (long delay : delays){
+                total += delay;
+            }
+            return total;
+        }
+    }
+}
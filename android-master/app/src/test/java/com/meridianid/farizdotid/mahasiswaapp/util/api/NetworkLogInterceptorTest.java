@@ -0,0 +1,102 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.BufferedSource;
+
+import static org.junit.Assert.*;
+
+public class NetworkLogInterceptorTest {
+
+    private MockWebServer server;
+    private NetworkLogInterceptor logInterceptor;
+    private OkHttpClient client;
+    private final BlockingQueue<String> records = new LinkedBlockingQueue<>();
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        logInterceptor = new NetworkLogInterceptor();
+        logInterceptor.setLevel(NetworkLogInterceptor.Level.BODY);
+        logInterceptor.setMaxBodyBytes(10);
+        logInterceptor.setWriter(new AsyncLogWriter(16, new AsyncLogWriter.Sink() {
+            @Override
+            public void write(String record) {
+                records.add(record);
+            }
+        }));
+        client = new OkHttpClient.Builder().addInterceptor(logInterceptor).build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void sampleRate_zeroSkipsAndOneLogs() throws Exception {
+        server.enqueue(new MockResponse().setBody("a"));
+        server.enqueue(new MockResponse().setBody("b"));
+
+        logInterceptor.setSampleRate(0);
+        get("/dilewati").close();
+        logInterceptor.setSampleRate(1);
+        get("/dicatat").close();
+
+        // Record pertama yang sampai ke sink adalah request kedua.
+        String record = records.poll(5, TimeUnit.SECONDS);
+        assertTrue(record, record.contains("/dicatat"));
+        assertNull(records.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void body_isTruncatedOnlyWhenLongerThanMax() throws Exception {
+        server.enqueue(new MockResponse().setBody("0123456789"));
+        server.enqueue(new MockResponse().setBody("0123456789A"));
+
+        assertEquals("0123456789", get("/pas").body().string());
+        assertTrue(nextRecord().endsWith("\n0123456789"));
+
+        assertEquals("0123456789A", get("/panjang").body().string());
+        assertTrue(nextRecord().endsWith("\n0123456789..."));
+    }
+
+    @Test
+    public void streamingBody_isStillReadableAfterPeek() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++){
+            json.append(i).append(',');
+        }
+        json.append("-1]");
+        // Body dikirim per potongan kecil seperti response @Streaming yang belum selesai diunduh.
+        server.enqueue(new MockResponse().setBody(json.toString()).throttleBody(512, 10, TimeUnit.MILLISECONDS));
+
+        Response response = get("/matkul");
+        BufferedSource source = response.body().source();
+        assertEquals(json.toString(), source.readUtf8());
+        assertTrue(nextRecord().endsWith("\n[0,1,2,3,4..."));
+    }
+
+    private Response get(String path) throws Exception {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+
+    private String nextRecord() throws Exception {
+        String record = records.poll(5, TimeUnit.SECONDS);
+        assertNotNull(record);
+        return record;
+    }
+}
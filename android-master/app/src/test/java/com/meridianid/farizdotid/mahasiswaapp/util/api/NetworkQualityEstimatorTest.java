@@ -0,0 +1,115 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+public class NetworkQualityEstimatorTest {
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void quality_followsSmoothedRtt() {
+        NetworkQualityEstimator estimator = new NetworkQualityEstimator();
+        final List<NetworkQualityEstimator.Quality> changes = new ArrayList<>();
+        estimator.setListener(new NetworkQualityEstimator.Listener() {
+            @Override
+            public void onQualityChanged(NetworkQualityEstimator.Quality quality) {
+                changes.add(quality);
+            }
+        });
+        assertEquals(NetworkQualityEstimator.Quality.UNKNOWN, estimator.getQuality());
+
+        estimator.addRttSample(1200);
+        assertEquals(NetworkQualityEstimator.Quality.POOR, estimator.getQuality());
+        // Satu request cepat belum cukup untuk menaikkan kelas.
+        estimator.addRttSample(50);
+        assertEquals(NetworkQualityEstimator.Quality.MODERATE, estimator.getQuality());
+        for (int i = 0; i < 20; i++){
+            estimator.addRttSample(50);
+        }
+        assertEquals(NetworkQualityEstimator.Quality.EXCELLENT, estimator.getQuality());
+        assertEquals(NetworkQualityEstimator.Quality.POOR, changes.get(0));
+        assertEquals(NetworkQualityEstimator.Quality.EXCELLENT, changes.get(changes.size() - 1));
+    }
+
+    @Test
+    public void slowBandwidth_winsOverFastRtt() {
+        NetworkQualityEstimator estimator = new NetworkQualityEstimator();
+        estimator.addRttSample(50);
+        assertEquals(60, estimator.pageSizeFor(30));
+        assertTrue(estimator.shouldPrefetch());
+
+        // 12 KB dalam 1 detik, sekitar 98 kbps.
+        estimator.addBandwidthSample(12 * 1024, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(NetworkQualityEstimator.Quality.POOR, estimator.getQuality());
+        assertEquals(98, estimator.getBandwidthKbps());
+        assertEquals(10, estimator.pageSizeFor(30));
+        assertFalse(estimator.shouldPrefetch());
+
+        // Body kecil tidak dihitung sebagai sampel bandwidth.
+        estimator.addBandwidthSample(1024, 1);
+        assertEquals(1, estimator.getBandwidthSampleCount());
+    }
+
+    @Test
+    public void interceptor_measuresThrottledBody() throws Exception {
+        NetworkQualityEstimator estimator = new NetworkQualityEstimator();
+        OkHttpClient client = new OkHttpClient.Builder().addNetworkInterceptor(estimator).build();
+        server.enqueue(new MockResponse()
+                .setBody(new String(new char[32 * 1024]).replace('\0', 'a'))
+                .throttleBody(8 * 1024, 100, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        assertEquals(32 * 1024, client.newCall(request()).execute().body().string().length());
+        client.newCall(request()).execute().body().close();
+
+        assertEquals(2, estimator.getRttSampleCount());
+        assertEquals(1, estimator.getBandwidthSampleCount());
+        // Paling cepat 32 KB dalam 300 ms.
+        assertTrue(estimator.toString(), estimator.getBandwidthKbps() > 0);
+        assertTrue(estimator.toString(), estimator.getBandwidthKbps() < 900);
+    }
+
+    @Test
+    public void callFactory_derivesClientPerQuality() {
+        NetworkQualityEstimator estimator = new NetworkQualityEstimator();
+        OkHttpClient client = new OkHttpClient();
+        AdaptiveTimeoutCallFactory factory = new AdaptiveTimeoutCallFactory(client, estimator);
+
+        assertSame(client, factory.clientFor(NetworkQualityEstimator.Quality.UNKNOWN));
+        OkHttpClient poor = factory.clientFor(NetworkQualityEstimator.Quality.POOR);
+        assertEquals(60000, poor.readTimeoutMillis());
+        assertEquals(30000, poor.connectTimeoutMillis());
+        assertSame(client.connectionPool(), poor.connectionPool());
+        assertSame(client.dispatcher(), poor.dispatcher());
+        assertSame(poor, factory.clientFor(NetworkQualityEstimator.Quality.POOR));
+        assertEquals(8000, factory.clientFor(NetworkQualityEstimator.Quality.EXCELLENT).readTimeoutMillis());
+    }
+
+    private Request request(){
+        return new Request.Builder().url(server.url("/mahasiswa/semuadosen")).build();
+    }
+}
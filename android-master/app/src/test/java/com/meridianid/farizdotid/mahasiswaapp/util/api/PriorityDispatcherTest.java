@@ -0,0 +1,173 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import static org.junit.Assert.*;
+
+public class PriorityDispatcherTest {
+
+    private final FakeCallFactory network = new FakeCallFactory();
+    private final List<String> results = new ArrayList<>();
+
+    @Test
+    public void interactive_skipsQueuedBackgroundWork() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(network, 2);
+        enqueue(dispatcher, "matkul-1", null);
+        enqueue(dispatcher, "matkul-2", null);
+        enqueue(dispatcher, "batch", "sync");
+        // Satu slot disisakan untuk aksi pengguna.
+        assertEquals(1, network.started.size());
+
+        enqueue(dispatcher, "login", "interactive");
+        assertEquals("/login", network.started.get(1).request().url().encodedPath());
+        assertEquals(1, dispatcher.getQueuedCount(PriorityDispatcher.Lane.VISIBLE));
+
+        // Slot yang bebas diberikan ke jalur visible dulu, baru sync.
+        network.started.get(0).complete();
+        network.started.get(1).complete();
+        assertEquals("/matkul-2", network.started.get(2).request().url().encodedPath());
+        network.started.get(2).complete();
+        assertEquals("/batch", network.started.get(3).request().url().encodedPath());
+        assertEquals(1, dispatcher.getDispatchedCount(PriorityDispatcher.Lane.INTERACTIVE));
+        assertTrue(dispatcher.getQueueWaitMillis(PriorityDispatcher.Lane.SYNC, 50) >= 0);
+    }
+
+    @Test
+    public void waitingInteractive_preemptsQueuedPrefetch() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(network, 1);
+        enqueue(dispatcher, "login", "interactive");
+        enqueue(dispatcher, "dosen/A", "prefetch");
+        enqueue(dispatcher, "dosen/B", "prefetch");
+        enqueue(dispatcher, "simpan", "interactive");
+
+        assertEquals(2, dispatcher.getPreemptedCount());
+        assertEquals(0, dispatcher.getQueuedCount(PriorityDispatcher.Lane.PREFETCH));
+        assertEquals(2, results.size());
+        assertEquals("dosen/A: Preempted", results.get(0));
+
+        network.started.get(0).complete();
+        assertEquals("/simpan", network.started.get(1).request().url().encodedPath());
+        assertEquals(2, network.started.size());
+    }
+
+    @Test
+    public void priorityHeader_isStrippedBeforeNetwork() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(network, 4);
+        enqueue(dispatcher, "matkul", "bukan-jalur");
+        FakeCall call = network.started.get(0);
+        assertNull(call.request().header(ApiHeaders.PRIORITY));
+        assertEquals(1, dispatcher.getRunningCount(PriorityDispatcher.Lane.VISIBLE));
+
+        call.complete();
+        assertEquals("matkul: 200", results.get(0));
+        assertEquals(0, dispatcher.getRunningCount(PriorityDispatcher.Lane.VISIBLE));
+    }
+
+    @Test
+    public void cancelQueued_failsWithoutReachingNetwork() {
+        PriorityDispatcher dispatcher = new PriorityDispatcher(network, 1);
+        enqueue(dispatcher, "matkul", null);
+        Call queued = enqueue(dispatcher, "batch", "sync");
+
+        queued.cancel();
+        assertTrue(queued.isCanceled());
+        assertEquals("batch: Canceled", results.get(0));
+        network.started.get(0).complete();
+        assertEquals(1, network.started.size());
+    }
+
+    private Call enqueue(PriorityDispatcher dispatcher, final String path, String lane){
+        Request.Builder request = new Request.Builder().url("http://10.0.2.2/" + path);
+        if (lane != null){
+            request.header(ApiHeaders.PRIORITY, lane);
+        }
+        Call call = dispatcher.newCall(request.build());
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                results.add(path + ": " + e.getMessage());
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                results.add(path + ": " + response.code());
+            }
+        });
+        return call;
+    }
+
+    // Pengganti OkHttp: call baru selesai saat complete() dipanggil dari test.
+    private static class FakeCallFactory implements Call.Factory {
+        final List<FakeCall> started = new ArrayList<>();
+
+        @Override
+        public Call newCall(Request request) {
+            return new FakeCall(request, this);
+        }
+    }
+
+    private static class FakeCall implements Call {
+        private final Request request;
+        private final FakeCallFactory factory;
+        private Callback callback;
+        private boolean canceled;
+
+        FakeCall(Request request, FakeCallFactory factory) {
+            this.request = request;
+            this.factory = factory;
+        }
+
+        void complete(){
+            try {
+                callback.onResponse(this, new Response.Builder()
+                        .request(request)
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(200)
+                        .build());
+            } catch (IOException e){
+                throw new AssertionError(e);
+            }
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(Callback responseCallback) {
+            callback = responseCallback;
+            factory.started.add(this);
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.*;
+
+public class ResponseCacheTest {
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private CacheTtlInterceptor ttlInterceptor;
+    private StaleWhileRevalidateInterceptor swrInterceptor;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        ttlInterceptor = new CacheTtlInterceptor();
+        swrInterceptor = new StaleWhileRevalidateInterceptor();
+        client = new OkHttpClient.Builder()
+                .cache(new Cache(cacheDir.getRoot(), 1024 * 1024))
+                .addInterceptor(swrInterceptor)
+                .addNetworkInterceptor(ttlInterceptor)
+                .build();
+        swrInterceptor.setCallFactory(client);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void expiredEntry_isRevalidatedWithEtag() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("{\"semuamatkul\":[]}"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        assertEquals("{\"semuamatkul\":[]}", get("0", null));
+        assertEquals("{\"semuamatkul\":[]}", get("0", null));
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        RecordedRequest conditional = server.takeRequest();
+        assertEquals("\"v1\"", conditional.getHeader("If-None-Match"));
+        assertNull(conditional.getHeader(ApiHeaders.CACHE_TTL));
+        assertEquals(1, ttlInterceptor.getNotModifiedCount());
+    }
+
+    @Test
+    public void freshEntry_isServedWithoutNetwork() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "no-cache").setBody("dosen"));
+
+        assertEquals("dosen", get("300", null));
+        assertEquals("dosen", get("300", null));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void staleEntry_isServedWhileRevalidating() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("lama"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v2\"").setBody("baru"));
+
+        assertEquals("lama", get("0", "60"));
+        assertEquals("lama", get("0", "60"));
+
+        server.takeRequest();
+        RecordedRequest revalidation = server.takeRequest(5, TimeUnit.SECONDS);
+        assertNotNull(revalidation);
+        assertEquals("\"v1\"", revalidation.getHeader("If-None-Match"));
+        assertEquals(1, swrInterceptor.getStaleServedCount());
+    }
+
+    private String get(String ttl, String swr) throws Exception {
+        Request.Builder builder = new Request.Builder()
+                .url(server.url("/matkul"))
+                .header(ApiHeaders.CACHE_TTL, ttl);
+        if (swr != null){
+            builder.header(ApiHeaders.CACHE_SWR, swr);
+        }
+        Response response = client.newCall(builder.build()).execute();
+        return response.body().string();
+    }
+}
@@ -0,0 +1,215 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+
+import static org.junit.Assert.*;
+
+public class RetryCallAdapterFactoryTest {
+
+    interface FlakyService {
+        @Retry(maxAttempts = 3, initialBackoffMillis = 10, maxBackoffMillis = 20)
+        @GET("matkul")
+        Call<ResponseBody> retried();
+
+        @Retry(initialBackoffMillis = 10, hedge = true)
+        @GET("matkul")
+        Call<ResponseBody> hedged();
+
+        @Retry(initialBackoffMillis = 10, hedge = true)
+        @GET("matkul")
+        Call<ResponseBody> hedgedPage(@Query("page") int page);
+
+        @Retry(maxAttempts = 3, initialBackoffMillis = 2000, maxBackoffMillis = 2000)
+        @GET("matkul")
+        Call<ResponseBody> slowRetried();
+
+        @GET("matkul")
+        Call<ResponseBody> plain();
+    }
+
+    @Rule
+    public TemporaryFolder cacheDir = new TemporaryFolder();
+
+    private MockWebServer server;
+    private RetryCallAdapterFactory factory;
+    private FlakyService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+
+        factory = new RetryCallAdapterFactory(Executors.newSingleThreadScheduledExecutor(), 5);
+        // Retry bawaan OkHttp dimatikan supaya hanya lapisan @Retry yang diuji.
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient.Builder().retryOnConnectionFailure(false).build())
+                .addCallAdapterFactory(factory)
+                .build()
+                .create(FlakyService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void retriesServerErrorsUntilSuccess() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        Response<ResponseBody> response = await(service.retried());
+
+        assertEquals(200, response.code());
+        assertEquals("ok", response.body().string());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, factory.getRetryCount());
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws Exception {
+        for (int i = 0; i < 3; i++){
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        Response<ResponseBody> response = await(service.retried());
+
+        assertEquals(503, response.code());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void executeAlsoRetries() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals("ok", service.retried().execute().body().string());
+    }
+
+    @Test
+    public void endpointWithoutRetry_isNotRetried() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals(503, await(service.plain()).code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void slowRequest_isHedgedAfterP95() throws Exception {
+        for (int i = 0; i < 5; i++){
+            server.enqueue(new MockResponse().setBody("cepat"));
+            await(service.hedged()).body().close();
+        }
+        server.enqueue(new MockResponse().setBody("lambat").setBodyDelay(5, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("cadangan"));
+
+        long start = System.nanoTime();
+        Response<ResponseBody> response = await(service.hedged());
+
+        assertEquals("cadangan", response.body().string());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 4000);
+        assertEquals(1, factory.getHedgeCount());
+        assertEquals(1, factory.getHedgeWinCount());
+    }
+
+    @Test
+    public void cachedResponses_doNotLowerHedgeDeadline() throws Exception {
+        FlakyService cached = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient.Builder().cache(new Cache(cacheDir.getRoot(), 1024 * 1024)).build())
+                .addCallAdapterFactory(factory)
+                .build()
+                .create(FlakyService.class);
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=60").setBody("cepat"));
+        for (int i = 0; i < 6; i++){
+            assertEquals("cepat", await(cached.hedgedPage(1)).body().string());
+        }
+
+        // Lima hit cache tidak dihitung, jadi p95 belum ada dan halaman lambat tidak di-hedge.
+        server.enqueue(new MockResponse().setBody("lambat").setBodyDelay(300, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("cadangan"));
+        assertEquals("lambat", await(cached.hedgedPage(2)).body().string());
+        assertEquals(0, factory.getHedgeCount());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void cancelDuringBackoff_failsAndNeverRetries() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Call<ResponseBody> call = service.slowRetried();
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                failure.set(t);
+                latch.countDown();
+            }
+        });
+        server.takeRequest();
+        // Percobaan pertama sudah gagal, percobaan kedua menunggu backoff minimal 1 detik.
+        Thread.sleep(200);
+        call.cancel();
+
+        assertTrue(latch.await(500, TimeUnit.MILLISECONDS));
+        assertEquals("Canceled", failure.get().getMessage());
+        Thread.sleep(1500);
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private static Response<ResponseBody> await(Call<ResponseBody> call) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Response<ResponseBody>> result = new AtomicReference<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                result.set(response);
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                failure.set(t);
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        if (failure.get() != null){
+            throw new AssertionError(failure.get());
+        }
+        return result.get();
+    }
+}
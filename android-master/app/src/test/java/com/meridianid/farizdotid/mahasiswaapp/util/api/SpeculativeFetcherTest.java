@@ -0,0 +1,147 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.*;
+
+public class SpeculativeFetcherTest {
+
+    interface ListService {
+        @GET("matkul")
+        CompletableFuture<Response<ResponseBody>> matkul();
+
+        @GET("matkul")
+        Call<ResponseBody> matkulCall();
+    }
+
+    private MockWebServer server;
+    private ListService service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addCallAdapterFactory(new CompletableFutureCallAdapterFactory())
+                .build()
+                .create(ListService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void finishedResponse_isHandedOffWithoutNewRequest() throws Exception {
+        SpeculativeFetcher fetcher = new SpeculativeFetcher();
+        server.enqueue(new MockResponse().setBody("matkul").setBodyDelay(200, TimeUnit.MILLISECONDS));
+        fetcher.start("matkul", matkul()).get(5, TimeUnit.SECONDS);
+
+        Call<ResponseBody> handoff = fetcher.take("matkul");
+        assertEquals("matkul", await(handoff).body().string());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, fetcher.getHitCount());
+        assertTrue(fetcher.getSavedMillis() >= 150);
+
+        // Setiap entry hanya bisa diambil satu kali.
+        assertNull(fetcher.take("matkul"));
+        assertEquals(0.5, fetcher.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void inFlightRequest_isJoined() throws Exception {
+        SpeculativeFetcher fetcher = new SpeculativeFetcher();
+        server.enqueue(new MockResponse().setBody("matkul").setBodyDelay(300, TimeUnit.MILLISECONDS));
+        CompletableFuture<Response<ResponseBody>> future = fetcher.start("matkul", matkul());
+        // Request yang belum diambil tidak dimulai ulang.
+        assertSame(future, fetcher.start("matkul", matkul()));
+
+        Call<ResponseBody> handoff = fetcher.take("matkul");
+        assertNotNull(handoff);
+        assertFalse(future.isDone());
+        assertEquals("matkul", await(handoff).body().string());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void failedOrStaleResponse_isMiss() throws Exception {
+        SpeculativeFetcher fetcher = new SpeculativeFetcher(0);
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("matkul"));
+
+        fetcher.start("gagal", matkul()).get(5, TimeUnit.SECONDS);
+        fetcher.start("basi", matkul()).get(5, TimeUnit.SECONDS);
+        Thread.sleep(20);
+
+        assertNull(fetcher.take("gagal"));
+        assertNull(fetcher.take("basi"));
+        assertNull(fetcher.take("tidak-ada"));
+        assertEquals(3, fetcher.getMissCount());
+        assertEquals(2, fetcher.getUnusedCount());
+    }
+
+    @Test
+    public void failedHandoff_usesFallback() throws Exception {
+        SpeculativeFetcher fetcher = new SpeculativeFetcher();
+        server.enqueue(new MockResponse().setResponseCode(503).setBodyDelay(200, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody("matkul"));
+        fetcher.start("matkul", matkul());
+
+        // Masih berjalan saat diambil, baru gagal setelahnya.
+        Call<ResponseBody> handoff = fetcher.take("matkul", service.matkulCall());
+        Response<ResponseBody> response = await(handoff);
+        assertEquals("matkul", response.body().string());
+        assertEquals(2, server.getRequestCount());
+
+        Call<ResponseBody> fallback = service.matkulCall();
+        assertSame(fallback, fetcher.take("tidak-ada", fallback));
+    }
+
+    // Request hanya dibuat jika fetcher memerlukannya.
+    private Supplier<CompletableFuture<Response<ResponseBody>>> matkul(){
+        return new Supplier<CompletableFuture<Response<ResponseBody>>>() {
+            @Override
+            public CompletableFuture<Response<ResponseBody>> get() {
+                return service.matkul();
+            }
+        };
+    }
+
+    private static Response<ResponseBody> await(Call<ResponseBody> call) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Response<ResponseBody>> result = new AtomicReference<>();
+        call.enqueue(new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                result.set(response);
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return result.get();
+    }
+}
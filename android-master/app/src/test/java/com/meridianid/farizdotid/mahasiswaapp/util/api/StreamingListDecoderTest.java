@@ -0,0 +1,148 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+import static org.junit.Assert.*;
+
+public class StreamingListDecoderTest {
+
+    interface ListService {
+        @Streaming
+        @GET("matkul")
+        Call<ResponseBody> matkul();
+    }
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void decode_emitsItemsInChunks() throws Exception {
+        StringBuilder json = new StringBuilder("{\"semuamatkul\":[");
+        for (int i = 0; i < 45; i++){
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"").append(i).append("\",\"nama_dosen\":\"Budi\",\"matkul\":\"Matkul ").append(i).append("\"}");
+        }
+        json.append("],\"error\":false,\"message\":\"ok\"}");
+
+        RecordingListener listener = new RecordingListener();
+        new StreamingListDecoder<>(SemuamatkulItem.class, "semuamatkul", 20, DIRECT)
+                .decode(body(json.toString()), listener);
+
+        assertEquals(3, listener.chunkSizes.size());
+        assertEquals(Integer.valueOf(20), listener.chunkSizes.get(0));
+        assertEquals(Integer.valueOf(5), listener.chunkSizes.get(2));
+        assertEquals("44", listener.items.get(44).getId());
+        assertEquals(45, listener.total);
+        assertFalse(listener.error);
+        assertEquals("ok", listener.message);
+    }
+
+    @Test
+    public void decode_readsErrorFlagWithoutArray() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        new StreamingListDecoder<>(SemuamatkulItem.class, "semuamatkul", 20, DIRECT)
+                .decode(body("{\"error\":true,\"message\":\"kosong\",\"extra\":{\"a\":[1,2]}}"), listener);
+
+        assertTrue(listener.chunkSizes.isEmpty());
+        assertTrue(listener.error);
+        assertEquals("kosong", listener.message);
+        assertEquals(0, listener.total);
+    }
+
+    @Test
+    public void load_waitsUntilPreviousChunkIsConsumed() throws Exception {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody(json(100)));
+        server.start();
+        try {
+            ListService service = new Retrofit.Builder()
+                    .baseUrl(server.url("/"))
+                    .build()
+                    .create(ListService.class);
+            // Seperti looper main thread yang sedang sibuk: tugas baru dijalankan saat diambil dari antrian.
+            final BlockingQueue<Runnable> looper = new LinkedBlockingQueue<>();
+            RecordingListener listener = new RecordingListener();
+            new StreamingListDecoder<>(SemuamatkulItem.class, "semuamatkul", 20, new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    looper.add(command);
+                }
+            }).load(service.matkul(), listener);
+
+            Thread.sleep(300);
+            assertEquals(1, looper.size());
+            while (listener.total < 0){
+                Runnable task = looper.poll(5, TimeUnit.SECONDS);
+                assertNotNull(task);
+                // Paling banyak onComplete yang menyusul potongan terakhir.
+                assertTrue(looper.size() <= 1);
+                task.run();
+            }
+            assertEquals(5, listener.chunkSizes.size());
+            assertEquals(100, listener.total);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static String json(int count){
+        StringBuilder json = new StringBuilder("{\"semuamatkul\":[");
+        for (int i = 0; i < count; i++){
+            if (i > 0) json.append(',');
+            json.append("{\"id\":\"").append(i).append("\",\"matkul\":\"Matkul ").append(i).append("\"}");
+        }
+        return json.append("],\"error\":false}").toString();
+    }
+
+    private static ResponseBody body(String json){
+        return ResponseBody.create(MediaType.parse("application/json"), json);
+    }
+
+    private static class RecordingListener implements StreamingListDecoder.Listener<SemuamatkulItem> {
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final List<SemuamatkulItem> items = new ArrayList<>();
+        boolean error;
+        String message;
+        int total = -1;
+
+        @Override
+        public void onItems(List<SemuamatkulItem> chunk) {
+            chunkSizes.add(chunk.size());
+            items.addAll(chunk);
+        }
+
+        @Override
+        public void onComplete(boolean error, String message, int total) {
+            this.error = error;
+            this.message = message;
+            this.total = total;
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            fail(t.toString());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.*;
+
+public class ViewportPrefetcherTest {
+
+    private final List<String> keys = new ArrayList<>();
+    private final List<PendingCall> calls = new ArrayList<>();
+    private ViewportPrefetcher<String> prefetcher;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 100; i++){
+            keys.add("dosen" + i);
+        }
+        prefetcher = new ViewportPrefetcher<String>(2, 2, 6, 10) {
+            @Override
+            protected Call<String> createCall(String key) {
+                PendingCall call = new PendingCall(key);
+                calls.add(call);
+                return call;
+            }
+        };
+    }
+
+    @Test
+    public void visibleRowsFirst_thenNearestOutward() {
+        prefetcher.onViewportChanged(keys, 10, 12);
+        assertEquals(2, calls.size());
+        assertEquals("dosen10", calls.get(0).key);
+        assertEquals("dosen11", calls.get(1).key);
+
+        calls.get(0).complete();
+        calls.get(1).complete();
+        calls.get(2).complete();
+        calls.get(3).complete();
+
+        // Terlihat 10..12, lalu 13, 9, 14 (dibatasi maxQueued 6).
+        List<String> order = new ArrayList<>();
+        for (PendingCall call : calls){
+            order.add(call.key);
+        }
+        assertEquals(6, order.size());
+        assertEquals("dosen12", order.get(2));
+        assertEquals("dosen13", order.get(3));
+        assertEquals("dosen9", order.get(4));
+        assertEquals("dosen14", order.get(5));
+    }
+
+    @Test
+    public void scrolledAway_cancelsInFlightAndClearsQueue() {
+        prefetcher.onViewportChanged(keys, 10, 12);
+        prefetcher.onViewportChanged(keys, 60, 62);
+
+        assertTrue(calls.get(0).canceled);
+        assertTrue(calls.get(1).canceled);
+        assertEquals(2, prefetcher.getCancelledCount());
+        assertEquals("dosen60", calls.get(2).key);
+        assertEquals("dosen61", calls.get(3).key);
+        assertEquals(4, prefetcher.getQueuedCount());
+    }
+
+    @Test
+    public void load_usesCacheOrJoinsPrefetch() {
+        prefetcher.onViewportChanged(keys, 10, 12);
+        calls.get(0).complete();
+
+        RecordingCallback cached = new RecordingCallback();
+        prefetcher.load("dosen10", cached);
+        assertEquals("detail dosen10", cached.value);
+        assertEquals(1, prefetcher.getHitCount());
+
+        RecordingCallback joined = new RecordingCallback();
+        prefetcher.load("dosen11", joined);
+        int before = calls.size();
+        // Request yang ditunggu load() tidak dibatalkan walaupun barisnya sudah di-scroll jauh.
+        prefetcher.onViewportChanged(keys, 60, 62);
+        assertFalse(calls.get(1).canceled);
+        calls.get(1).complete();
+        assertEquals("detail dosen11", joined.value);
+        assertTrue(calls.size() > before);
+    }
+
+    @Test
+    public void failedPrefetch_isRetriedForLoadWaiters() {
+        prefetcher.onViewportChanged(keys, 10, 12);
+        RecordingCallback joined = new RecordingCallback();
+        prefetcher.load("dosen10", joined);
+        int before = calls.size();
+
+        // Prefetch dibuang dispatcher karena ada aksi pengguna yang harus didahulukan.
+        calls.get(0).callback.onFailure(calls.get(0), new IOException("Preempted"));
+        assertNull(joined.error);
+        assertEquals(before + 1, calls.size());
+        assertEquals("dosen10", calls.get(before).key);
+
+        calls.get(before).complete();
+        assertEquals("detail dosen10", joined.value);
+    }
+
+    private static class RecordingCallback implements ViewportPrefetcher.Callback<String> {
+        String value;
+        Throwable error;
+
+        @Override
+        public void onResult(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            error = t;
+        }
+    }
+
+    private static class PendingCall implements Call<String> {
+        final String key;
+        Callback<String> callback;
+        boolean canceled;
+
+        PendingCall(String key) {
+            this.key = key;
+        }
+
+        void complete() {
+            callback.onResponse(this, Response.success("detail " + key));
+        }
+
+        @Override
+        public Response<String> execute() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void enqueue(Callback<String> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return callback != null;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            if (callback != null){
+                callback.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<String> clone() {
+            return new PendingCall(key);
+        }
+
+        @Override
+        public Request request() {
+            return new Request.Builder().url("http://localhost/dosen/" + key).build();
+        }
+    }
+}
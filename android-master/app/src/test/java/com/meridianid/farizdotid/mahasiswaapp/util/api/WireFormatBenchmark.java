@@ -0,0 +1,155 @@
+package com.meridianid.farizdotid.mahasiswaapp.util.api;
+
+import com.google.gson.Gson;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseDosen;
+import com.meridianid.farizdotid.mahasiswaapp.model.ResponseMatkul;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuadosenItem;
+import com.meridianid.farizdotid.mahasiswaapp.model.SemuamatkulItem;
+
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import okio.Buffer;
+import okio.GzipSink;
+import okio.Okio;
+
+import static org.junit.Assert.*;
+
+/**
+ * Membandingkan ukuran (mentah dan setelah gzip) dan waktu decode JSON (Gson) dengan BinaryWire
+ * untuk ResponseMatkul dan ResponseDosen, 1k sampai 100k item. Hanya jalan dengan -Dbenchmark=true,
+ * pemeriksaan ukuran kecil ada di BinaryConverterFactoryTest.
+ */
+public class WireFormatBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Gson gson = new Gson();
+
+    @BeforeClass
+    public static void onlyWhenRequested() {
+        Assume.assumeTrue(Boolean.getBoolean("benchmark"));
+    }
+
+    @Test
+    public void jsonVersusBinary() throws IOException {
+        int[] sizes = {1000, 10000, 100000};
+        System.out.println("model     items   json B  json gz B  bin B  bin gz B  json ms  bin ms");
+        for (int size : sizes){
+            Result matkul = measure(matkul(size), ResponseMatkul.class, BinaryCodecs.MATKUL);
+            Result dosen = measure(dosen(size), ResponseDosen.class, BinaryCodecs.DOSEN);
+            print("matkul", size, matkul);
+            print("dosen", size, dosen);
+
+            // Matkul banyak mengulang nama dosen, dosen hanya menghemat nama field dan tanda kutip.
+            assertTrue(matkul.binaryBytes < matkul.jsonBytes / 2);
+            assertTrue(dosen.binaryBytes < dosen.jsonBytes);
+            assertTrue(matkul.binaryGzipBytes <= matkul.jsonGzipBytes);
+        }
+    }
+
+    private <T> Result measure(T value, Class<T> type, BinaryCodec<T> codec) throws IOException {
+        Buffer json = new Buffer().writeUtf8(gson.toJson(value));
+        Buffer binary = new Buffer();
+        BinaryWire.encode(codec, value, binary);
+
+        Result result = new Result();
+        result.jsonBytes = json.size();
+        result.binaryBytes = binary.size();
+        result.jsonGzipBytes = gzipSize(json);
+        result.binaryGzipBytes = gzipSize(binary);
+
+        long[] jsonNanos = new long[RUNS];
+        long[] binaryNanos = new long[RUNS];
+        // Satu putaran pemanasan untuk JIT, lalu RUNS putaran yang diukur.
+        for (int run = -1; run < RUNS; run++){
+            Buffer jsonCopy = json.clone();
+            long start = System.nanoTime();
+            T fromJson = gson.fromJson(new InputStreamReader(jsonCopy.inputStream(), UTF_8), type);
+            long jsonElapsed = System.nanoTime() - start;
+
+            Buffer binaryCopy = binary.clone();
+            start = System.nanoTime();
+            T fromBinary = BinaryWire.decode(codec, binaryCopy);
+            long binaryElapsed = System.nanoTime() - start;
+
+            assertNotNull(fromJson);
+            assertNotNull(fromBinary);
+            if (run >= 0){
+                jsonNanos[run] = jsonElapsed;
+                binaryNanos[run] = binaryElapsed;
+            }
+        }
+        result.jsonMillis = medianMillis(jsonNanos);
+        result.binaryMillis = medianMillis(binaryNanos);
+        return result;
+    }
+
+    private static long gzipSize(Buffer data) throws IOException {
+        Buffer compressed = new Buffer();
+        okio.BufferedSink gzip = Okio.buffer(new GzipSink(compressed));
+        gzip.write(data.clone(), data.size());
+        gzip.close();
+        return compressed.size();
+    }
+
+    private static double medianMillis(long[] nanos){
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1000000.0;
+    }
+
+    private static void print(String model, int size, Result result){
+        System.out.println(String.format("%-7s %7d %8d %10d %6d %9d %8.2f %7.2f", model, size,
+                result.jsonBytes, result.jsonGzipBytes, result.binaryBytes, result.binaryGzipBytes,
+                result.jsonMillis, result.binaryMillis));
+    }
+
+    // Data mirip kampus: 300 dosen, setiap dosen mengajar beberapa dari 800 matkul.
+    private static ResponseMatkul matkul(int count){
+        List<SemuamatkulItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++){
+            SemuamatkulItem item = new SemuamatkulItem();
+            item.setId(String.valueOf(100000 + i));
+            item.setNamaDosen("Dr. Dosen Pengajar " + (i % 300));
+            item.setMatkul("Pemrograman Berorientasi Objek " + (i % 800));
+            items.add(item);
+        }
+        ResponseMatkul response = new ResponseMatkul();
+        response.setSemuamatkul(items);
+        response.setVersion(count);
+        return response;
+    }
+
+    private static ResponseDosen dosen(int count){
+        List<SemuadosenItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++){
+            SemuadosenItem item = new SemuadosenItem();
+            item.setId(String.valueOf(i));
+            item.setNama("Dr. Dosen Pengajar " + i);
+            item.setMatkul("Pemrograman Berorientasi Objek " + (i % 800));
+            items.add(item);
+        }
+        ResponseDosen response = new ResponseDosen();
+        response.setSemuadosen(items);
+        return response;
+    }
+
+    private static final class Result {
+        long jsonBytes;
+        long jsonGzipBytes;
+        long binaryBytes;
+        long binaryGzipBytes;
+        double jsonMillis;
+        double binaryMillis;
+    }
+}